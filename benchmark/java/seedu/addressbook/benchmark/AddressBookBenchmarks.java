@@ -0,0 +1,458 @@
+package seedu.addressbook.benchmark;
+
+import seedu.addressbook.commands.FindCommand;
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.data.InvertedIndex;
+import seedu.addressbook.data.person.Person;
+import seedu.addressbook.data.person.ReadOnlyPerson;
+import seedu.addressbook.data.person.SortOrder;
+import seedu.addressbook.data.person.UniquePersonList;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.UniqueTagList;
+import seedu.addressbook.parser.Parser;
+import seedu.addressbook.storage.StorageFile;
+import seedu.addressbook.ui.Formatter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * The benchmarks for the core model, commands, parser, storage and formatting.
+ */
+public class AddressBookBenchmarks {
+
+    /** Number of fresh persons each addPerson iteration can add. */
+    private static final int PERSONS_TO_ADD = 100000;
+
+    /** Number of prepared inputs the find and parse benchmarks cycle through. */
+    private static final int PREPARED_INPUTS = 1024;
+
+    /**
+     * Returns every benchmark, in the order they are run.
+     */
+    public static List<Benchmark> all() {
+        return Arrays.asList(
+                new AddPerson(false),
+                new AddPerson(true),
+                new Find(FindCommand.NO_LIMIT, false),
+                new Find(10, false),
+                new Find(FindCommand.NO_LIMIT, true),
+                new ParseCommand(),
+                new CreateStorageFile(StorageFile.XML_FILE_EXTENSION),
+                new Save(StorageFile.XML_FILE_EXTENSION),
+                new Save(StorageFile.BINARY_FILE_EXTENSION),
+                new Load(StorageFile.XML_FILE_EXTENSION),
+                new Load(StorageFile.BINARY_FILE_EXTENSION),
+                new RenameTag(),
+                new Snapshot(),
+                new Sort(),
+                new FormatPersons());
+    }
+
+    /**
+     * Adds one new person to an address book of the benchmark size, which may be kept sorted.
+     * The persons added in an iteration are removed again before the next one.
+     */
+    static class AddPerson extends Benchmark {
+        private final boolean keepSorted;
+        private AddressBook addressBook;
+        private List<Person> toAdd;
+        private int added;
+
+        AddPerson(boolean keepSorted) {
+            super(keepSorted ? "AddressBook.addPerson.keptSorted" : "AddressBook.addPerson");
+            this.keepSorted = keepSorted;
+        }
+
+        @Override
+        public void setUpTrial(int size, long seed) {
+            final SyntheticAddressBookData data = new SyntheticAddressBookData(seed);
+            addressBook = data.addressBook(size);
+            if (keepSorted) {
+                addressBook.sort(SortOrder.BY_NAME, true);
+            }
+            toAdd = data.persons(PERSONS_TO_ADD);
+            added = 0;
+        }
+
+        @Override
+        public void setUpIteration() throws Exception {
+            for (int i = 0; i < added; i++) {
+                addressBook.removePerson(toAdd.get(i));
+            }
+            added = 0;
+        }
+
+        @Override
+        public Object invoke() throws Exception {
+            final Person person = toAdd.get(added++);
+            addressBook.addPerson(person);
+            return person;
+        }
+
+        @Override
+        public long maxInvocationsPerIteration() {
+            return PERSONS_TO_ADD;
+        }
+
+        @Override
+        public void tearDownTrial() {
+            addressBook = null;
+            toAdd = null;
+        }
+    }
+
+    /**
+     * Executes a find command with two common name keywords and one tag, which may list only the most relevant
+     * persons found. The name keywords may be cut down to prefixes, e.g. "ali*".
+     */
+    static class Find extends Benchmark {
+        private static final int PREFIX_LENGTH = 3;
+
+        private final int limit;
+        private final boolean byPrefix;
+        private final List<FindCommand> commands = new ArrayList<>();
+        private int next;
+
+        Find(int limit, boolean byPrefix) {
+            super("FindCommand.execute" + (byPrefix ? ".prefix" : "")
+                    + (limit == FindCommand.NO_LIMIT ? "" : ".limit" + limit));
+            this.limit = limit;
+            this.byPrefix = byPrefix;
+        }
+
+        private String nameKeyword(SyntheticAddressBookData data) {
+            final String keyword = data.commonNameKeyword();
+            return byPrefix && keyword.length() > PREFIX_LENGTH
+                    ? keyword.substring(0, PREFIX_LENGTH) + InvertedIndex.PREFIX_WILDCARD
+                    : keyword;
+        }
+
+        @Override
+        public void setUpTrial(int size, long seed) {
+            final SyntheticAddressBookData data = new SyntheticAddressBookData(seed);
+            final AddressBook addressBook = data.addressBook(size);
+            final List<String> tagNames = SyntheticAddressBookData.tagNames();
+            final Random random = new Random(seed);
+            commands.clear();
+            for (int i = 0; i < PREPARED_INPUTS; i++) {
+                final FindCommand command = new FindCommand(new HashSet<>(Arrays.asList(
+                        nameKeyword(data), nameKeyword(data),
+                        "[" + tagNames.get(random.nextInt(tagNames.size())) + "]")), limit);
+                command.setData(addressBook, Collections.<ReadOnlyPerson>emptyList(), Collections.<Tag>emptyList());
+                commands.add(command);
+            }
+        }
+
+        @Override
+        public Object invoke() {
+            return commands.get(next++ % PREPARED_INPUTS).execute();
+        }
+
+        @Override
+        public void tearDownTrial() {
+            commands.clear();
+        }
+    }
+
+    /**
+     * Parses a mix of typical user inputs. Does not depend on the address book size.
+     */
+    static class ParseCommand extends Benchmark {
+        private final Parser parser = new Parser();
+        private final List<String> inputs = new ArrayList<>();
+        private int next;
+
+        ParseCommand() {
+            super("Parser.parseCommand");
+        }
+
+        @Override
+        public void setUpTrial(int size, long seed) {
+            final SyntheticAddressBookData data = new SyntheticAddressBookData(seed);
+            final Random random = new Random(seed);
+            inputs.clear();
+            for (int i = 0; i < PREPARED_INPUTS; i++) {
+                final Person person = data.nextPerson();
+                switch (i % 5) {
+                case 0:
+                    inputs.add(addCommandFor(person));
+                    break;
+                case 1:
+                    inputs.add("find " + data.commonNameKeyword() + " " + data.commonNameKeyword());
+                    break;
+                case 2:
+                    inputs.add("edit " + (1 + random.nextInt(100)) + " p/" + person.getPhone().value
+                            + " a/" + person.getAddress().value);
+                    break;
+                case 3:
+                    inputs.add("delete " + (1 + random.nextInt(100)));
+                    break;
+                default:
+                    inputs.add("list");
+                }
+            }
+        }
+
+        @Override
+        public Object invoke() {
+            return parser.parseCommand(inputs.get(next++ % PREPARED_INPUTS));
+        }
+
+        @Override
+        public boolean dependsOnSize() {
+            return false;
+        }
+
+        private static String addCommandFor(Person person) {
+            final StringBuilder command = new StringBuilder("add ")
+                    .append(person.getName().fullName)
+                    .append(person.getPhone().isPrivate() ? " pp/" : " p/").append(person.getPhone().value)
+                    .append(person.getEmail().isPrivate() ? " pe/" : " e/").append(person.getEmail().value)
+                    .append(person.getAddress().isPrivate() ? " pa/" : " a/").append(person.getAddress().value);
+            for (Tag tag : person.getTagIds()) {
+                command.append(" t/").append(tag.tagName);
+            }
+            return command.toString();
+        }
+    }
+
+    /**
+     * Creates a storage file of the given format, as done at startup and by tools that open many address books.
+     * Does not depend on the address book size.
+     */
+    static class CreateStorageFile extends Benchmark {
+        private final String filePath;
+
+        CreateStorageFile(String fileExtension) {
+            super("StorageFile.<init>(" + fileExtension + ")");
+            filePath = "addressbook" + fileExtension;
+        }
+
+        @Override
+        public void setUpTrial(int size, long seed) {
+        }
+
+        @Override
+        public Object invoke() throws Exception {
+            return new StorageFile(filePath);
+        }
+
+        @Override
+        public boolean dependsOnSize() {
+            return false;
+        }
+    }
+
+    /**
+     * Saves an address book of the benchmark size to a storage file of the given format.
+     */
+    static class Save extends Benchmark {
+        private final String fileExtension;
+        private Path folder;
+        private StorageFile storage;
+        private AddressBook addressBook;
+
+        Save(String fileExtension) {
+            super("StorageFile.save(" + fileExtension + ")");
+            this.fileExtension = fileExtension;
+        }
+
+        @Override
+        public void setUpTrial(int size, long seed) throws Exception {
+            folder = Files.createTempDirectory("addressbook-benchmark");
+            storage = new StorageFile(folder.resolve("addressbook" + fileExtension).toString());
+            addressBook = new SyntheticAddressBookData(seed).addressBook(size);
+        }
+
+        @Override
+        public Object invoke() throws Exception {
+            storage.save(addressBook);
+            return storage;
+        }
+
+        @Override
+        public void tearDownTrial() throws Exception {
+            deleteFolder(folder);
+            addressBook = null;
+        }
+    }
+
+    /**
+     * Loads an address book of the benchmark size from a storage file of the given format.
+     */
+    static class Load extends Benchmark {
+        private final String fileExtension;
+        private Path folder;
+        private StorageFile storage;
+
+        Load(String fileExtension) {
+            super("StorageFile.load(" + fileExtension + ")");
+            this.fileExtension = fileExtension;
+        }
+
+        @Override
+        public void setUpTrial(int size, long seed) throws Exception {
+            folder = Files.createTempDirectory("addressbook-benchmark");
+            storage = new StorageFile(folder.resolve("addressbook" + fileExtension).toString());
+            storage.save(new SyntheticAddressBookData(seed).addressBook(size));
+        }
+
+        @Override
+        public Object invoke() throws Exception {
+            return storage.load();
+        }
+
+        @Override
+        public void tearDownTrial() throws Exception {
+            deleteFolder(folder);
+        }
+    }
+
+    /**
+     * Renames the most common tag, back and forth between two names.
+     */
+    static class RenameTag extends Benchmark {
+        private static final String OTHER_NAME = "buddies";
+
+        private AddressBook addressBook;
+        private Tag current;
+        private String otherName;
+
+        RenameTag() {
+            super("AddressBook.renameTag");
+        }
+
+        @Override
+        public void setUpTrial(int size, long seed) throws Exception {
+            addressBook = new SyntheticAddressBookData(seed).addressBook(size);
+            current = new Tag(SyntheticAddressBookData.tagNames().get(0));
+            otherName = OTHER_NAME;
+        }
+
+        @Override
+        public Object invoke() throws Exception {
+            addressBook.renameTag(current, otherName);
+            final String renamedFrom = current.tagName;
+            current = new Tag(otherName);
+            otherName = renamedFrom;
+            return current;
+        }
+
+        @Override
+        public void tearDownTrial() {
+            addressBook = null;
+        }
+    }
+
+    /**
+     * Takes a snapshot of an address book of the benchmark size, as done after every change to publish it.
+     */
+    static class Snapshot extends Benchmark {
+        private AddressBook addressBook;
+
+        Snapshot() {
+            super("AddressBook.snapshot");
+        }
+
+        @Override
+        public void setUpTrial(int size, long seed) {
+            addressBook = new SyntheticAddressBookData(seed).addressBook(size);
+        }
+
+        @Override
+        public Object invoke() {
+            return addressBook.snapshot();
+        }
+
+        @Override
+        public void tearDownTrial() {
+            addressBook = null;
+        }
+    }
+
+    /**
+     * Sorts an unsorted address book of the benchmark size. Each iteration sorts a fresh copy once.
+     */
+    static class Sort extends Benchmark {
+        private UniquePersonList unsorted;
+        private AddressBook addressBook;
+
+        Sort() {
+            super("AddressBook.sort");
+        }
+
+        @Override
+        public void setUpTrial(int size, long seed) throws Exception {
+            unsorted = new UniquePersonList(new SyntheticAddressBookData(seed).persons(size));
+        }
+
+        @Override
+        public void setUpIteration() {
+            addressBook = new AddressBook(unsorted, new UniqueTagList());
+        }
+
+        @Override
+        public Object invoke() {
+            addressBook.sort(SortOrder.BY_NAME, false);
+            return addressBook;
+        }
+
+        @Override
+        public long maxInvocationsPerIteration() {
+            return 1;
+        }
+
+        @Override
+        public void tearDownTrial() {
+            unsorted = null;
+            addressBook = null;
+        }
+    }
+
+    /**
+     * Formats the list of every person in an address book of the benchmark size, as the list command shows it.
+     */
+    static class FormatPersons extends Benchmark {
+        private final Formatter formatter = new Formatter();
+        private List<ReadOnlyPerson> persons;
+
+        FormatPersons() {
+            super("Formatter.formatPersons");
+        }
+
+        @Override
+        public void setUpTrial(int size, long seed) {
+            persons = new SyntheticAddressBookData(seed).addressBook(size).getAllPersons();
+        }
+
+        @Override
+        public Object invoke() {
+            return formatter.formatPersons(persons);
+        }
+
+        @Override
+        public void tearDownTrial() {
+            persons = null;
+        }
+    }
+
+    private static void deleteFolder(Path folder) throws Exception {
+        if (folder == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(folder);
+    }
+}
@@ -0,0 +1,53 @@
+package seedu.addressbook.benchmark;
+
+/**
+ * A single operation to be timed by the {@link BenchmarkRunner}, at a given address book size.
+ *
+ * The runner calls {@link #setUpTrial} once per size, {@link #setUpIteration} before every warmup and
+ * measurement iteration, and then {@link #invoke} repeatedly until the iteration's time is up or
+ * {@link #maxInvocationsPerIteration} is reached. Only the time spent in {@link #invoke} is measured.
+ */
+public abstract class Benchmark {
+
+    public final String name;
+
+    protected Benchmark(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Prepares the state shared by all iterations at the given address book size.
+     */
+    public abstract void setUpTrial(int size, long seed) throws Exception;
+
+    /**
+     * Prepares the state for the next iteration. Does nothing by default.
+     */
+    public void setUpIteration() throws Exception {
+    }
+
+    /**
+     * Performs the operation once. The result is consumed by the runner so that the work is not optimised away.
+     */
+    public abstract Object invoke() throws Exception;
+
+    /**
+     * Returns the most invocations an iteration may make, e.g. because each one consumes prepared state.
+     */
+    public long maxInvocationsPerIteration() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns false if the operation does not depend on the address book size, so that it is run only once.
+     */
+    public boolean dependsOnSize() {
+        return true;
+    }
+
+    /**
+     * Releases the state prepared for a size, so that it can be garbage collected before the next size.
+     */
+    public void tearDownTrial() throws Exception {
+    }
+}
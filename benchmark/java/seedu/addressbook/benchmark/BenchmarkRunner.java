@@ -0,0 +1,265 @@
+package seedu.addressbook.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the {@link AddressBookBenchmarks} and writes the results as JSON, in the layout JMH uses for its
+ * JSON result format, so that runs can be compared between releases with the usual JMH tooling.
+ *
+ * Each benchmark is run, at each address book size, for a number of warmup iterations followed by a
+ * number of measured iterations. The score is the average time per operation over the measured iterations,
+ * with the error being the half-width of its 99.9% confidence interval.
+ */
+public class BenchmarkRunner {
+
+    public static final String MESSAGE_USAGE = "Usage: BenchmarkRunner [--sizes 1000,100000,1000000]"
+            + " [--warmup ITERATIONS] [--iterations ITERATIONS] [--time MILLISECONDS]"
+            + " [--seed SEED] [--filter REGEX] [--out FILE]";
+
+    private static final String DEFAULT_OUTPUT_FILE = "benchmark-results.json";
+
+    /** Student's t quantiles for a two-sided 99.9% interval, by degrees of freedom 1 to 10. */
+    private static final double[] T_QUANTILES = {
+        636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587
+    };
+
+    /** Written with every result, so that the operations cannot be optimised away. */
+    private static volatile Object sink;
+
+    private int[] sizes = {1000, 100000, 1000000};
+    private int warmupIterations = 3;
+    private int measurementIterations = 5;
+    private long iterationMillis = 1000;
+    private long seed = SyntheticAddressBookData.DEFAULT_SEED;
+    private Pattern filter = Pattern.compile(".*");
+    private String outputFile = DEFAULT_OUTPUT_FILE;
+
+    public static void main(String[] args) throws Exception {
+        final BenchmarkRunner runner = new BenchmarkRunner();
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException iae) {
+            System.err.println(iae.getMessage());
+            System.err.println(MESSAGE_USAGE);
+            System.exit(1);
+        }
+        runner.run(AddressBookBenchmarks.all());
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            final String value = args[++i];
+            try {
+                switch (args[i - 1]) {
+                case "--sizes":
+                    final String[] parts = value.split(",");
+                    sizes = new int[parts.length];
+                    for (int j = 0; j < parts.length; j++) {
+                        sizes[j] = Integer.parseInt(parts[j].trim());
+                    }
+                    break;
+                case "--warmup":
+                    warmupIterations = Integer.parseInt(value);
+                    break;
+                case "--iterations":
+                    measurementIterations = Integer.parseInt(value);
+                    break;
+                case "--time":
+                    iterationMillis = Long.parseLong(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--filter":
+                    filter = Pattern.compile(value);
+                    break;
+                case "--out":
+                    outputFile = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i - 1]);
+                }
+            } catch (NumberFormatException nfe) {
+                throw new IllegalArgumentException("Not a number: " + value);
+            }
+        }
+        if (measurementIterations < 1) {
+            throw new IllegalArgumentException("At least one measurement iteration is needed");
+        }
+    }
+
+    private void run(List<Benchmark> benchmarks) throws Exception {
+        final List<Result> results = new ArrayList<>();
+        for (Benchmark benchmark : benchmarks) {
+            if (!filter.matcher(benchmark.name).find()) {
+                continue;
+            }
+            if (!benchmark.dependsOnSize()) {
+                results.add(runTrial(benchmark, sizes[0], false));
+                continue;
+            }
+            for (int size : sizes) {
+                results.add(runTrial(benchmark, size, true));
+            }
+        }
+
+        System.out.println();
+        System.out.println(String.format("%-32s %10s %16s %14s", "Benchmark", "size", "Score", "Error"));
+        for (Result result : results) {
+            System.out.println(String.format(Locale.ROOT, "%-32s %10s %16.3f +- %11.3f us/op", result.benchmark,
+                    result.hasSize ? Integer.toString(result.size) : "-", result.score(), result.scoreError()));
+        }
+
+        try (Writer out = Files.newBufferedWriter(Paths.get(outputFile), StandardCharsets.UTF_8)) {
+            writeJson(results, out);
+        }
+        System.out.println("Results written to " + outputFile);
+    }
+
+    private Result runTrial(Benchmark benchmark, int size, boolean hasSize) throws Exception {
+        System.out.println("# " + benchmark.name + (hasSize ? ", size " + size : ""));
+        final Result result = new Result(benchmark.name, size, hasSize);
+        benchmark.setUpTrial(size, seed);
+        try {
+            for (int i = 1; i <= warmupIterations; i++) {
+                System.out.println(String.format(Locale.ROOT, "Warmup iteration %d: %.3f us/op",
+                        i, runIteration(benchmark)));
+            }
+            for (int i = 1; i <= measurementIterations; i++) {
+                final double score = runIteration(benchmark);
+                result.iterationScores.add(score);
+                System.out.println(String.format(Locale.ROOT, "Iteration %d: %.3f us/op", i, score));
+            }
+        } finally {
+            benchmark.tearDownTrial();
+        }
+        return result;
+    }
+
+    /**
+     * Invokes the benchmark until the iteration time is up, and returns the average time per invocation in
+     * microseconds.
+     */
+    private double runIteration(Benchmark benchmark) throws Exception {
+        benchmark.setUpIteration();
+        System.gc();
+
+        final long maxInvocations = benchmark.maxInvocationsPerIteration();
+        final long budget = iterationMillis * 1000000L;
+        long invocations = 0;
+        final long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink = benchmark.invoke();
+            invocations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < budget && invocations < maxInvocations);
+        return elapsed / 1000.0 / invocations;
+    }
+
+    private void writeJson(List<Result> results, Writer out) throws IOException {
+        out.write("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            final Result result = results.get(i);
+            out.write("    {\n");
+            out.write("        \"benchmark\" : " + quote(result.benchmark) + ",\n");
+            out.write("        \"mode\" : \"avgt\",\n");
+            out.write("        \"threads\" : 1,\n");
+            out.write("        \"forks\" : 1,\n");
+            out.write("        \"warmupIterations\" : " + warmupIterations + ",\n");
+            out.write("        \"warmupTime\" : \"" + iterationMillis + " ms\",\n");
+            out.write("        \"measurementIterations\" : " + measurementIterations + ",\n");
+            out.write("        \"measurementTime\" : \"" + iterationMillis + " ms\",\n");
+            if (result.hasSize) {
+                out.write("        \"params\" : {\n");
+                out.write("            \"size\" : \"" + result.size + "\"\n");
+                out.write("        },\n");
+            }
+            out.write("        \"primaryMetric\" : {\n");
+            out.write("            \"score\" : " + number(result.score()) + ",\n");
+            out.write("            \"scoreError\" : " + number(result.scoreError()) + ",\n");
+            out.write("            \"scoreConfidence\" : [ " + number(result.score() - result.scoreError()) + ", "
+                    + number(result.score() + result.scoreError()) + " ],\n");
+            out.write("            \"scoreUnit\" : \"us/op\",\n");
+            out.write("            \"rawData\" : [ [ ");
+            for (int j = 0; j < result.iterationScores.size(); j++) {
+                out.write((j == 0 ? "" : ", ") + number(result.iterationScores.get(j)));
+            }
+            out.write(" ] ]\n");
+            out.write("        },\n");
+            out.write("        \"secondaryMetrics\" : {}\n");
+            out.write(i + 1 < results.size() ? "    },\n" : "    }\n");
+        }
+        out.write("]\n");
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "\"NaN\"" : String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    /**
+     * The measured scores of one benchmark at one size.
+     */
+    private static class Result {
+        final String benchmark;
+        final int size;
+        final boolean hasSize;
+        final List<Double> iterationScores = new ArrayList<>();
+
+        Result(String benchmark, int size, boolean hasSize) {
+            this.benchmark = benchmark;
+            this.size = size;
+            this.hasSize = hasSize;
+        }
+
+        double score() {
+            double sum = 0;
+            for (double score : iterationScores) {
+                sum += score;
+            }
+            return sum / iterationScores.size();
+        }
+
+        /**
+         * Returns the half-width of the 99.9% confidence interval of the score, or NaN for a single iteration.
+         */
+        double scoreError() {
+            final int n = iterationScores.size();
+            if (n < 2) {
+                return Double.NaN;
+            }
+            final double mean = score();
+            double squares = 0;
+            for (double score : iterationScores) {
+                squares += (score - mean) * (score - mean);
+            }
+            final double standardDeviation = Math.sqrt(squares / (n - 1));
+            return tQuantile(n - 1) * standardDeviation / Math.sqrt(n);
+        }
+
+        private static double tQuantile(int degreesOfFreedom) {
+            if (degreesOfFreedom <= T_QUANTILES.length) {
+                return T_QUANTILES[degreesOfFreedom - 1];
+            }
+            if (degreesOfFreedom <= 20) {
+                return 3.850;
+            }
+            return degreesOfFreedom <= 30 ? 3.646 : 3.291;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package seedu.addressbook.benchmark;
+
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.data.exception.IllegalValueException;
+import seedu.addressbook.data.person.*;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.UniqueTagList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates realistic-looking persons for benchmarks, reproducibly from a seed.
+ *
+ * Names are drawn from common first and last names, so that name keywords match many persons, as they would
+ * in a real address book. Every person gets a distinct email, so no two generated persons are duplicates.
+ * Tags follow a skewed distribution: a few tags are carried by most tagged persons, most tags by few.
+ */
+public class SyntheticAddressBookData {
+
+    public static final long DEFAULT_SEED = 42L;
+
+    private static final String[] FIRST_NAMES = {
+        "Alice", "Benjamin", "Chloe", "Daniel", "Emily", "Farhan", "Grace", "Hui Min", "Isaac", "Jia Hao",
+        "Kavya", "Liam", "Mei Ling", "Nur", "Oliver", "Priya", "Qi Xuan", "Rahul", "Siti", "Timothy",
+        "Umar", "Vanessa", "Wei Jie", "Xin Yi", "Yusuf", "Zoe", "Aaron", "Bella", "Calvin", "Divya"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Tan", "Lim", "Lee", "Ng", "Wong", "Goh", "Chua", "Ong", "Koh", "Teo",
+        "Kumar", "Singh", "Rahman", "Abdullah", "Smith", "Brown", "Nguyen", "Garcia", "Ibrahim", "Chen"
+    };
+
+    private static final String[] STREETS = {
+        "Clementi Ave 3", "Jurong West St 42", "Ang Mo Kio Ave 10", "Tampines St 81", "Bedok North Rd",
+        "Holland Drive", "Toa Payoh Lor 1", "Punggol Field", "Woodlands Ave 6", "Serangoon Central"
+    };
+
+    private static final String[] EMAIL_DOMAINS = {
+        "gmail.com", "yahoo.com", "hotmail.com", "u.nus.edu", "example.org"
+    };
+
+    private static final String[] TAG_NAMES = {
+        "friends", "family", "colleagues", "classmates", "neighbours", "cs2103", "gym", "football",
+        "choir", "project", "mentor", "client", "supplier", "alumni", "hall", "band", "volunteer", "travel",
+        "bookclub", "hackathon"
+    };
+
+    /** Share of persons with 0, 1, 2, 3 and 4 tags, in percent. */
+    private static final int[] TAG_COUNT_PERCENTAGES = {25, 35, 25, 10, 5};
+
+    private final Random random;
+    private final Tag[] tags;
+    private int serial;
+
+    public SyntheticAddressBookData() {
+        this(DEFAULT_SEED);
+    }
+
+    public SyntheticAddressBookData(long seed) {
+        random = new Random(seed);
+        tags = new Tag[TAG_NAMES.length];
+        for (int i = 0; i < TAG_NAMES.length; i++) {
+            tags[i] = newTag(TAG_NAMES[i]);
+        }
+    }
+
+    /**
+     * Returns the names of all tags the generator uses, the most common first.
+     */
+    public static List<String> tagNames() {
+        final List<String> names = new ArrayList<>();
+        for (String name : TAG_NAMES) {
+            names.add(name);
+        }
+        return names;
+    }
+
+    /**
+     * Returns a keyword that matches a word in many generated names.
+     */
+    public String commonNameKeyword() {
+        return random.nextBoolean()
+                ? LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                : FIRST_NAMES[random.nextInt(FIRST_NAMES.length)].split(" ")[0];
+    }
+
+    /**
+     * Returns a new person, distinct from every person generated before by this generator.
+     */
+    public Person nextPerson() {
+        serial++;
+        final String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        final String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        final String phone = String.format("%d%07d", 8 + random.nextInt(2), random.nextInt(10000000));
+        final String email = (firstName + "." + lastName).replace(' ', '.').toLowerCase() + serial
+                + "@" + EMAIL_DOMAINS[random.nextInt(EMAIL_DOMAINS.length)];
+        final String address = String.format("Blk %d %s, #%02d-%03d, Singapore %06d",
+                1 + random.nextInt(999), STREETS[random.nextInt(STREETS.length)],
+                1 + random.nextInt(25), 1 + random.nextInt(300), random.nextInt(1000000));
+
+        try {
+            return new Person(
+                    new Name(firstName + " " + lastName),
+                    new Phone(phone, random.nextInt(100) < 30),
+                    new Email(email, random.nextInt(100) < 10),
+                    new Address(address, random.nextInt(100) < 50),
+                    new UniqueTagList(nextTags()));
+        } catch (IllegalValueException ive) {
+            throw new AssertionError("Generated person is invalid: " + ive.getMessage());
+        }
+    }
+
+    /**
+     * Returns the given number of new persons.
+     */
+    public List<Person> persons(int count) {
+        final List<Person> persons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            persons.add(nextPerson());
+        }
+        return persons;
+    }
+
+    /**
+     * Returns an address book holding the given number of new persons.
+     */
+    public AddressBook addressBook(int size) {
+        final AddressBook addressBook = new AddressBook();
+        for (Person person : persons(size)) {
+            try {
+                addressBook.addPerson(person);
+            } catch (IllegalValueException ive) {
+                throw new AssertionError("Generated persons are not unique: " + ive.getMessage());
+            }
+        }
+        return addressBook;
+    }
+
+    private Set<Tag> nextTags() {
+        int roll = random.nextInt(100);
+        int count = 0;
+        while (roll >= TAG_COUNT_PERCENTAGES[count]) {
+            roll -= TAG_COUNT_PERCENTAGES[count];
+            count++;
+        }
+        final Set<Tag> personTags = new LinkedHashSet<>();
+        while (personTags.size() < count) {
+            // the product of two uniform numbers skews picks towards the first tags
+            final double skewed = random.nextDouble() * random.nextDouble();
+            personTags.add(tags[(int) (skewed * tags.length)]);
+        }
+        return personTags;
+    }
+
+    private static Tag newTag(String name) {
+        try {
+            return new Tag(name);
+        } catch (IllegalValueException ive) {
+            throw new AssertionError("Invalid tag name: " + name);
+        }
+    }
+}
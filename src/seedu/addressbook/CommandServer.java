@@ -0,0 +1,227 @@
+package seedu.addressbook;
+
+import seedu.addressbook.commands.CommandResult;
+import seedu.addressbook.commands.ExitCommand;
+import seedu.addressbook.logic.Logic;
+import seedu.addressbook.logic.Session;
+import seedu.addressbook.ui.Formatter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless entry point to the application: serves the address book to other processes on this machine over a TCP
+ * socket bound to the loopback address, instead of showing the GUI.
+ *
+ * Clients send one command per line, exactly as typed into the GUI. For each command, the server sends back the
+ * text the GUI would display, followed by an empty line; the text itself has no empty lines. An exit command
+ * ends the connection only, not the server.
+ *
+ * Each connection is served on its own thread with its own {@link Session}, so indexes in its commands refer to
+ * its own listings, and read-only commands of different connections run in parallel. A connection's next command
+ * is only read once the previous one is answered, so a client sending faster than its commands complete is held
+ * back by TCP flow control instead of having its commands pile up in the server. Answers are sent as soon as the
+ * connection has no more commands waiting, so a client may send many commands before reading their answers.
+ */
+public class CommandServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 4321;
+    public static final int DEFAULT_MAX_CONNECTIONS = 64;
+
+    /** Launch argument, followed by a port number, that sets the port to listen on. */
+    public static final String ARG_PORT = "--port=";
+
+    /** Launch argument, followed by a number, that sets how many connections are served at once. */
+    public static final String ARG_MAX_CONNECTIONS = "--connections=";
+
+    public static final String MESSAGE_LAUNCH_ARGS_USAGE = "Launch command format: "
+            + "java seedu.addressbook.CommandServer [STORAGE_FILE_PATH] [--journal] [--async[=MAX_DELAY_MILLIS]]"
+            + " [--backups=COUNT] [" + ARG_PORT + "PORT] [" + ARG_MAX_CONNECTIONS + "COUNT]";
+    public static final String MESSAGE_LISTENING = "Address book server listening on %1$s:%2$d";
+    public static final String MESSAGE_TOO_MANY_CONNECTIONS = "Too many connections, please try again later.";
+
+    /** Number of connections that may wait to be accepted. */
+    private static final int ACCEPT_BACKLOG = 50;
+
+    private final Logic logic;
+    private final ServerSocket serverSocket;
+    private final Semaphore connectionSlots;
+    private final ExecutorService connectionThreads = Executors.newCachedThreadPool();
+    private final Set<Socket> openConnections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    /**
+     * Creates a server for the given logic, listening on the given port of the loopback address,
+     * or on any free port if it is 0. Connections are only accepted once the server is started.
+     *
+     * @param maxConnections number of connections served at once; more are told to try again later
+     * @throws IOException if the port could not be listened on.
+     */
+    public CommandServer(Logic logic, int port, int maxConnections) throws IOException {
+        this.logic = logic;
+        this.serverSocket = new ServerSocket(port, ACCEPT_BACKLOG, InetAddress.getLoopbackAddress());
+        this.connectionSlots = new Semaphore(maxConnections);
+        this.acceptor = new Thread(this::acceptUntilClosed, "command-server");
+    }
+
+    /**
+     * Starts accepting connections.
+     */
+    public void start() {
+        acceptor.start();
+    }
+
+    /** Returns the port the server listens on. */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Waits until the server is closed.
+     */
+    public void awaitClosed() throws InterruptedException {
+        acceptor.join();
+    }
+
+    /**
+     * Stops accepting connections, ends all open connections, waits for commands already running to complete,
+     * and then saves all changes.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket connection : openConnections) {
+            connection.close();
+        }
+        connectionThreads.shutdown();
+        try {
+            connectionThreads.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            logic.flush();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void acceptUntilClosed() {
+        while (!serverSocket.isClosed()) {
+            final Socket connection;
+            try {
+                connection = serverSocket.accept();
+            } catch (IOException ioe) {
+                // the server socket was closed
+                return;
+            }
+            if (!connectionSlots.tryAcquire()) {
+                refuse(connection);
+                continue;
+            }
+            openConnections.add(connection);
+            connectionThreads.execute(() -> {
+                try {
+                    serve(connection);
+                } finally {
+                    openConnections.remove(connection);
+                    connectionSlots.release();
+                }
+            });
+        }
+    }
+
+    private static void refuse(Socket connection) {
+        try (Socket refused = connection;
+             Writer out = new OutputStreamWriter(refused.getOutputStream(), StandardCharsets.UTF_8)) {
+            out.write(new Formatter().format(MESSAGE_TOO_MANY_CONNECTIONS) + System.lineSeparator());
+        } catch (IOException ioe) {
+            // the client is gone already
+        }
+    }
+
+    /**
+     * Executes the commands sent over the connection, in a session of their own, until the client is done.
+     */
+    private void serve(Socket connection) {
+        final Session session = new Session();
+        final Formatter formatter = new Formatter();
+        try (Socket socket = connection;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String userCommandText;
+            while ((userCommandText = in.readLine()) != null) {
+                boolean isExit = false;
+                try {
+                    final CommandResult result = logic.execute(userCommandText, session);
+                    isExit = result.feedbackToUser.equals(ExitCommand.MESSAGE_EXIT_ACKNOWEDGEMENT);
+                    out.write(formatter.formatResult(result));
+                } catch (Exception e) {
+                    out.write(formatter.format(String.valueOf(e.getMessage())));
+                }
+                out.write(System.lineSeparator());
+                if (isExit) {
+                    return;
+                }
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+        } catch (SocketException se) {
+            // the connection was reset by the client or closed by the server
+        } catch (IOException ioe) {
+            System.err.println(ioe.getMessage());
+        }
+    }
+
+    /**
+     * Starts a server for the address book given by the launch arguments, and serves it until the process
+     * is stopped. All changes are saved before the process exits.
+     */
+    public static void main(String[] args) throws Exception {
+        int port = DEFAULT_PORT;
+        int maxConnections = DEFAULT_MAX_CONNECTIONS;
+        final List<String> logicArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith(ARG_PORT)) {
+                port = Integer.parseInt(arg.substring(ARG_PORT.length()));
+            } else if (arg.startsWith(ARG_MAX_CONNECTIONS)) {
+                maxConnections = Integer.parseInt(arg.substring(ARG_MAX_CONNECTIONS.length()));
+            } else {
+                logicArgs.add(arg);
+            }
+        }
+        final Logic logic = Main.initializeLogic(logicArgs);
+        final CommandServer server = new CommandServer(logic, port, maxConnections);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException ioe) {
+                System.err.println(ioe.getMessage());
+            }
+        }));
+        server.start();
+        System.out.println(String.format(MESSAGE_LISTENING,
+                InetAddress.getLoopbackAddress().getHostAddress(), server.getPort()));
+        System.out.println(MESSAGE_LAUNCH_ARGS_USAGE);
+        server.awaitClosed();
+    }
+}
@@ -4,10 +4,19 @@ import javafx.application.Application;
 import javafx.application.Platform;
 
 import javafx.stage.Stage;
+import seedu.addressbook.commands.CommandResult;
+import seedu.addressbook.commands.RunCommand;
 import seedu.addressbook.logic.Logic;
+import seedu.addressbook.storage.JournaledStorageFile;
+import seedu.addressbook.storage.StorageFile;
+import seedu.addressbook.storage.WriteBehindSaver;
+import seedu.addressbook.ui.Formatter;
 import seedu.addressbook.ui.Gui;
 import seedu.addressbook.ui.Stoppable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Main entry point to the application.
  */
@@ -16,22 +25,126 @@ public class Main extends Application implements Stoppable{
     /** Version info of the program. */
     public static final String VERSION = "AddessBook Level 3 - Version 1.0";
 
+    /** Launch argument that turns on journaled storage. */
+    public static final String ARG_JOURNAL = "--journal";
+
+    /**
+     * Launch argument that turns on saving in the background. It may be followed by '=' and the longest time,
+     * in milliseconds, a change may wait to be saved, e.g. --async=500.
+     */
+    public static final String ARG_ASYNC = "--async";
+
+    /** Launch argument, followed by '=' and a number, that sets how many previous storage files to keep as backups. */
+    public static final String ARG_BACKUPS = "--backups=";
+
+    /**
+     * Launch argument, followed by a file path, that runs the commands in the file without showing the GUI,
+     * and then exits; the exit status is 0 only if the whole file was run and all of them succeeded.
+     */
+    public static final String ARG_SCRIPT = "--script=";
+
+    /** Launch argument, followed by a number, that saves the changes of a script after every that many commands. */
+    public static final String ARG_CHECKPOINT = "--checkpoint=";
+
     private Gui gui;
+    private Logic logic;
 
     @Override
     public void start(Stage primaryStage) throws Exception{
-        gui = new Gui(new Logic(), VERSION);
+        logic = initializeLogic(getParameters().getRaw());
+        gui = new Gui(logic, VERSION);
         gui.start(primaryStage, this);
     }
 
+    /**
+     * Creates the logic from the launch arguments.
+     * Journaled storage already saves each change with a small append, so it is never combined with
+     * saving in the background.
+     */
+    static Logic initializeLogic(List<String> launchArgs) throws Exception {
+        final StorageFile storage = initializeStorage(launchArgs);
+        Long maxStalenessMillis = null;
+        for (String arg : launchArgs) {
+            if (arg.equals(ARG_ASYNC)) {
+                maxStalenessMillis = WriteBehindSaver.DEFAULT_MAX_STALENESS_MILLIS;
+            } else if (arg.startsWith(ARG_ASYNC + "=")) {
+                maxStalenessMillis = Long.parseLong(arg.substring(ARG_ASYNC.length() + 1));
+            }
+        }
+        if (maxStalenessMillis == null || storage instanceof JournaledStorageFile) {
+            return new Logic(storage);
+        }
+        return new Logic(storage, maxStalenessMillis);
+    }
+
+    /**
+     * Creates the storage file from the launch arguments.
+     * The first argument that is not an option is taken as the storage file path.
+     *
+     * @throws StorageFile.InvalidStorageFilePathException if the target file path is incorrect.
+     */
+    private static StorageFile initializeStorage(List<String> launchArgs)
+            throws StorageFile.InvalidStorageFilePathException {
+        String filePath = StorageFile.DEFAULT_STORAGE_FILEPATH;
+        boolean isJournaled = false;
+        int backupCount = 0;
+        for (String arg : launchArgs) {
+            if (arg.equals(ARG_JOURNAL)) {
+                isJournaled = true;
+            } else if (arg.startsWith(ARG_BACKUPS)) {
+                backupCount = Integer.parseInt(arg.substring(ARG_BACKUPS.length()));
+            } else if (!arg.startsWith(ARG_ASYNC)) {
+                filePath = arg;
+            }
+        }
+        return isJournaled
+                ? new JournaledStorageFile(filePath, JournaledStorageFile.DEFAULT_COMPACTION_THRESHOLD, backupCount)
+                : new StorageFile(filePath, backupCount);
+    }
+
     @Override
     public void stop() throws Exception {
+        if (logic != null) {
+            logic.flush();
+        }
         super.stop();
         Platform.exit();
         System.exit(0);
     }
 
-    public static void main(String[] args) {
+    /**
+     * Runs the script given by the launch arguments against the address book given by the rest of them,
+     * prints the result and saves all changes.
+     *
+     * @return whether the whole script was run and all its commands succeeded.
+     */
+    private static boolean runScript(String[] args) throws Exception {
+        String scriptPath = null;
+        int checkpointInterval = RunCommand.NO_CHECKPOINTS;
+        final List<String> logicArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith(ARG_SCRIPT)) {
+                scriptPath = arg.substring(ARG_SCRIPT.length());
+            } else if (arg.startsWith(ARG_CHECKPOINT)) {
+                checkpointInterval = Integer.parseInt(arg.substring(ARG_CHECKPOINT.length()));
+            } else {
+                logicArgs.add(arg);
+            }
+        }
+        final Logic logic = initializeLogic(logicArgs);
+        final RunCommand script = new RunCommand(scriptPath, checkpointInterval);
+        final CommandResult result = logic.execute(script, shownResult -> true);
+        System.out.print(new Formatter().formatResult(result));
+        logic.flush();
+        return !script.hasFailed();
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String arg : args) {
+            if (arg.startsWith(ARG_SCRIPT)) {
+                System.exit(runScript(args) ? 0 : 1);
+            }
+        }
         launch(args);
     }
 }
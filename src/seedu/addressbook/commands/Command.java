@@ -2,8 +2,10 @@ package seedu.addressbook.commands;
 
 import seedu.addressbook.common.Messages;
 import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.data.UndoHistory;
 import seedu.addressbook.data.person.ReadOnlyPerson;
 import seedu.addressbook.data.tag.ReadOnlyTag;
+import seedu.addressbook.storage.StorageFile.StorageOperationException;
 
 import java.util.List;
 
@@ -13,9 +15,21 @@ import static seedu.addressbook.ui.Gui.DISPLAYED_INDEX_OFFSET;
  * Represents an executable command.
  */
 public abstract class Command {
+
+    /**
+     * Saves every change made to the address book so far, for long commands to save part way through.
+     */
+    public interface Checkpoint {
+        void save() throws StorageOperationException;
+    }
+
     protected AddressBook addressBook;
     protected List<? extends ReadOnlyPerson> relevantPersons;
     protected List<? extends ReadOnlyTag> relevantTags;
+    protected UndoHistory undoHistory;
+    /** The client the command runs for, e.g. a session, whose steps in {@link #undoHistory} it may undo. */
+    protected Object client;
+    protected Checkpoint checkpoint;
     private int targetIndex = -1;
 
     /**
@@ -53,6 +67,20 @@ public abstract class Command {
      */
     public abstract CommandResult execute();
 
+    /**
+     * Returns true if executing this command never modifies the address book.
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Returns true if every change must be saved to storage before the result of this command is returned.
+     */
+    public boolean requiresFlush() {
+        return false;
+    }
+
     /** 
      * Supplies the data the command will operate on.
      */
@@ -63,6 +91,22 @@ public abstract class Command {
         this.relevantTags = relevantTags;
     }
 
+    /**
+     * Supplies the history of changes to the address book, for commands that undo or redo them,
+     * and the client the command runs for, which may only undo and redo its own changes.
+     */
+    public void setUndoHistory(UndoHistory undoHistory, Object client) {
+        this.undoHistory = undoHistory;
+        this.client = client;
+    }
+
+    /**
+     * Supplies the means to save changes part way through the command.
+     */
+    public void setCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     /**
      * Extracts the target person in the last shown list from the given arguments.
      *
@@ -0,0 +1,37 @@
+package seedu.addressbook.commands;
+
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.UniqueTagList;
+
+/**
+ * Shows how many persons in the address book have each tag.
+ * The counts are not a listing that index-based commands refer to; {@code listtag} shows one.
+ */
+public class CountTagCommand extends Command {
+
+    public static final String COMMAND_WORD = "counttag";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ":\n"
+            + "Displays all distinct tags in the address book with the number of persons that have each tag.\n\t"
+            + "Example: " + COMMAND_WORD;
+
+    public static final String MESSAGE_TAG_COUNT = "%1$s: %2$d persons";
+    public static final String MESSAGE_TAGS_COUNTED = "%1$d tags counted";
+
+    @Override
+    public CommandResult execute() {
+        final UniqueTagList allTags = addressBook.getAllTags();
+        final StringBuilder counts = new StringBuilder();
+        for (Tag tag : allTags) {
+            counts.append(String.format(MESSAGE_TAG_COUNT, tag, addressBook.countPersonsWithTag(tag)))
+                    .append('\n');
+        }
+        return new CommandResult(counts + String.format(MESSAGE_TAGS_COUNTED, allTags.immutableListView().size()));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+}
@@ -1,13 +1,14 @@
 package seedu.addressbook.commands;
 
+import seedu.addressbook.common.Prefixes;
 import seedu.addressbook.data.person.ReadOnlyPerson;
-import seedu.addressbook.data.tag.Tag;
 
 import java.util.*;
 
 /**
  * Finds and lists all persons in address book whose name contains any of the argument keywords.
- * Keyword matching is case sensitive.
+ * Keyword matching is case insensitive.
+ * With a limit, lists only that many of the most relevant persons, most relevant first.
  */
 public class FindCommand extends Command {
 
@@ -17,14 +18,30 @@ public class FindCommand extends Command {
             + "contain any of the specified keywords (case-insensitive) and displays them as a list with "
             + "index numbers.\n\t"
             + "Note: to search using tags, encase it with square brackets [ ].\n\t"
-            + "Parameters: KEYWORD [MORE_KEYWORDS]...\n\t"
+            + "End a keyword with * to match every word starting with it.\n\t"
+            + "With a limit, displays only that many of the most relevant persons, most relevant first.\n\t"
+            + "Parameters: KEYWORD [MORE_KEYWORDS]... [" + Prefixes.LIMIT + "LIMIT]\n\t"
             + "Example: " + COMMAND_WORD + " alice bob charlie\n\t"
-            + "Example: " + COMMAND_WORD + " [friendsTag]";
+            + "Example: " + COMMAND_WORD + " [friendsTag]\n\t"
+            + "Example: " + COMMAND_WORD + " ali* [fri*]\n\t"
+            + "Example: " + COMMAND_WORD + " alice clementi " + Prefixes.LIMIT + "5";
+
+    /** Stands for no limit: every person found is listed, in list order. */
+    public static final int NO_LIMIT = 0;
 
     private final Set<String> keywords;
+    private final int limit;
 
     public FindCommand(Set<String> keywords) {
+        this(keywords, NO_LIMIT);
+    }
+
+    /**
+     * @param limit the number of most relevant persons to list, or {@link #NO_LIMIT}.
+     */
+    public FindCommand(Set<String> keywords, int limit) {
         this.keywords = keywords;
+        this.limit = limit;
     }
 
     /**
@@ -34,80 +51,21 @@ public class FindCommand extends Command {
         return new HashSet<>(keywords);
     }
 
+    public int getLimit() {
+        return limit;
+    }
+
     @Override
     public CommandResult execute() {
-        final List<ReadOnlyPerson> personsFound = getPersonsWithNameContainingAnyKeyword(keywords);
+        final List<ReadOnlyPerson> personsFound = limit == NO_LIMIT
+                ? addressBook.findPersons(keywords)
+                : addressBook.findMostRelevantPersons(keywords, limit);
         return new CommandResult(getMessageForPersonListShownSummary(personsFound), personsFound, null);
     }
 
-    /**
-     * Retrieve all persons in the address book whose names contain some of the specified keywords.
-     *
-     * @param keywords for searching
-     * @return list of persons found
-     */
-    private List<ReadOnlyPerson> getPersonsWithNameContainingAnyKeyword(Set<String> keywords) {
-        final List<ReadOnlyPerson> matchedPersons = new ArrayList<>();
-        for (ReadOnlyPerson person : addressBook.getAllPersons()) {
-            final Set<String> dataInPerson = fillPersonDataSet(person);
-            if (!Collections.disjoint(changeToUpperCase(dataInPerson), changeToUpperCase(keywords))) {
-                matchedPersons.add(person);
-            }
-        }
-        return matchedPersons;
-    }
-    
-    /**
-     * Consolidate all the non-private data of a person into a set
-     * 
-     * @param person
-     * @return set of a person's data
-     */
-    private Set<String> fillPersonDataSet(ReadOnlyPerson person) {
-        
-        
-        final StringBuilder builder = new StringBuilder();
-        builder.append(person.getName())
-                .append(" ");
-        if (!person.getPhone().isPrivate()) {
-            builder.append(person.getPhone())
-                .append(" ");
-        }
-
-        if (!person.getEmail().isPrivate()) {
-            builder.append(person.getEmail())
-                .append(" ");
-        }
-        
-        if (!person.getAddress().isPrivate()) {
-            builder.append(person.getAddress())
-                .append(" ");
-        }
-
-        for (Tag tag : person.getTags()) {
-            builder.append(tag)
-                .append(" ");
-        }
-      
-        
-        Set<String> dataInPerson = new HashSet<>(Arrays.asList(builder.toString().split("\\s+")));
-
-
-        return dataInPerson;
-    }
-    
-    /**
-     * Changes all words in wordsInName and keywords to Upper Case
-     * 
-     * @param setToChange
-     * @return new set of words that are in upper case
-     */
-    private Set<String> changeToUpperCase(Set<String> setToChange) {
-        Set<String> caseInsensitiveSet = new HashSet<String>();
-        for (String word : setToChange) {
-            caseInsensitiveSet.add(word.toUpperCase());
-        }
-        return caseInsensitiveSet;
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 
 }
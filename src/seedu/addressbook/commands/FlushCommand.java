@@ -0,0 +1,29 @@
+package seedu.addressbook.commands;
+
+/**
+ * Waits until every change made so far is saved to storage.
+ */
+public class FlushCommand extends Command {
+
+    public static final String COMMAND_WORD = "flush";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ":\n"
+            + "Waits until all changes are saved to the storage file.\n\t"
+            + "Example: " + COMMAND_WORD;
+    public static final String MESSAGE_SUCCESS = "All changes are saved";
+
+    @Override
+    public CommandResult execute() {
+        return new CommandResult(MESSAGE_SUCCESS);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean requiresFlush() {
+        return true;
+    }
+}
@@ -19,9 +19,15 @@ public class HelpCommand extends Command {
             + "\n" + SortCommand.MESSAGE_USAGE
             + "\n" + ListCommand.MESSAGE_USAGE
             + "\n" + ListTagCommand.MESSAGE_USAGE
+            + "\n" + CountTagCommand.MESSAGE_USAGE
             + "\n" + RenameTagCommand.MESSAGE_USAGE
             + "\n" + ViewCommand.MESSAGE_USAGE
             + "\n" + ViewAllCommand.MESSAGE_USAGE
+            + "\n" + UndoCommand.MESSAGE_USAGE
+            + "\n" + RedoCommand.MESSAGE_USAGE
+            + "\n" + FlushCommand.MESSAGE_USAGE
+            + "\n" + RunCommand.MESSAGE_USAGE
+            + "\n" + ImportCommand.MESSAGE_USAGE
             + "\n" + HelpCommand.MESSAGE_USAGE
             + "\n" + ExitCommand.MESSAGE_USAGE;
 
@@ -31,4 +37,9 @@ public class HelpCommand extends Command {
     public CommandResult execute() {
         return new CommandResult(MESSAGE_ALL_USAGES);
     }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
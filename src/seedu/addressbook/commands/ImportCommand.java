@@ -0,0 +1,101 @@
+package seedu.addressbook.commands;
+
+import seedu.addressbook.data.exception.IllegalValueException;
+import seedu.addressbook.parser.ContactFileParser;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the persons in a CSV or vCard file to the address book; see {@link ContactFileParser} for the formats.
+ *
+ * The file is parsed in chunks on several threads, and the persons of each chunk are added to the address book
+ * together, skipping those already in it. The result tells how many persons were added, skipped and invalid,
+ * and how fast the file was imported.
+ */
+public class ImportCommand extends Command {
+
+    public static final String COMMAND_WORD = "import";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ":\n"
+            + "Adds the persons in a CSV (.csv) or vCard (.vcf) file to the address book. "
+            + "The first line of a CSV file names its columns: "
+            + ContactFileParser.COLUMN_NAME + ", " + ContactFileParser.COLUMN_PHONE + ", "
+            + ContactFileParser.COLUMN_EMAIL + ", " + ContactFileParser.COLUMN_ADDRESS + " and optionally "
+            + ContactFileParser.COLUMN_TAGS + ", separated by spaces. "
+            + "Spaces, dashes, dots, brackets and a leading + are dropped from phone numbers. "
+            + "Persons already in the address book are skipped.\n\t"
+            + "Parameters: FILE_PATH\n\t"
+            + "Example: " + COMMAND_WORD + " contacts.csv";
+
+    public static final String MESSAGE_SUCCESS = "Imported %1$d persons from %2$s: %3$d already in the address book, "
+            + "%4$d invalid";
+    public static final String MESSAGE_THROUGHPUT = "Read %1$d records in %2$d ms (%3$d records/s)";
+    public static final String MESSAGE_MORE_RECORDS_INVALID = "... and %1$d more invalid records";
+    public static final String MESSAGE_CANNOT_READ = "Could not read %1$s: %2$s";
+
+    /** Number of invalid records listed in the result; the rest are only counted. */
+    static final int MAX_INVALID_RECORDS_LISTED = 20;
+
+    private final String filePath;
+
+    private int addedCount;
+    private int duplicateCount;
+    private int invalidCount;
+
+    public ImportCommand(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public CommandResult execute() {
+        addedCount = 0;
+        duplicateCount = 0;
+        invalidCount = 0;
+        final List<String> problems = new ArrayList<>();
+        final long startNanos = System.nanoTime();
+        try {
+            new ContactFileParser().parse(Paths.get(filePath), chunk -> {
+                final int chunkAddedCount = addressBook.addPersons(chunk.persons).size();
+                addedCount += chunkAddedCount;
+                duplicateCount += chunk.persons.size() - chunkAddedCount;
+                invalidCount += chunk.problems.size();
+                for (String problem : chunk.problems) {
+                    if (problems.size() < MAX_INVALID_RECORDS_LISTED) {
+                        problems.add(problem);
+                    }
+                }
+            });
+        } catch (IllegalValueException ive) {
+            return new CommandResult(ive.getMessage());
+        } catch (IOException | InvalidPathException e) {
+            problems.add(String.format(MESSAGE_CANNOT_READ, filePath, e.getMessage()));
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return new CommandResult(summary(problems, elapsedMillis));
+    }
+
+    private String summary(List<String> problems, long elapsedMillis) {
+        final int recordCount = addedCount + duplicateCount + invalidCount;
+        final StringBuilder summary = new StringBuilder(String.format(MESSAGE_SUCCESS,
+                addedCount, filePath, duplicateCount, invalidCount));
+        summary.append('\n').append(String.format(MESSAGE_THROUGHPUT,
+                recordCount, elapsedMillis, recordCount * 1000L / Math.max(1, elapsedMillis)));
+        for (String problem : problems) {
+            summary.append('\n').append(problem);
+        }
+        if (invalidCount > MAX_INVALID_RECORDS_LISTED) {
+            summary.append('\n').append(String.format(MESSAGE_MORE_RECORDS_INVALID,
+                    invalidCount - MAX_INVALID_RECORDS_LISTED));
+        }
+        return summary.toString();
+    }
+}
@@ -19,7 +19,12 @@ public class ListCommand extends Command {
 
     @Override
     public CommandResult execute() {
-        List<ReadOnlyPerson> allPersons = addressBook.getAllPersons().immutableListView();
+        List<ReadOnlyPerson> allPersons = addressBook.getAllPersons();
         return new CommandResult(getMessageForPersonListShownSummary(allPersons), allPersons, null);
     }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
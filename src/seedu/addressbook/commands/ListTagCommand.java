@@ -23,4 +23,9 @@ public class ListTagCommand extends Command {
         return new CommandResult(getMessageForTagListShownSummary(allTags), null, allTags);
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
 }
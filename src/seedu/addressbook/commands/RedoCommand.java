@@ -0,0 +1,36 @@
+package seedu.addressbook.commands;
+
+import seedu.addressbook.data.AddressBookChange.ChangeNotApplicableException;
+
+/**
+ * Redoes the most recently undone command, if the client running this command made it.
+ */
+public class RedoCommand extends Command {
+
+    public static final String COMMAND_WORD = "redo";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ":\n"
+            + "Redoes the most recently undone command.\n\t"
+            + "Example: " + COMMAND_WORD;
+    public static final String MESSAGE_SUCCESS = "Redid the last undone change";
+    public static final String MESSAGE_NOTHING_TO_REDO = "There is nothing to redo";
+    public static final String MESSAGE_CHANGED_BY_OTHER_CLIENT = "The last undone change was made by another "
+            + "client, and only it can redo that change";
+    public static final String MESSAGE_FAILED = "Could not redo the last undone change: %1$s";
+
+    @Override
+    public CommandResult execute() {
+        if (!undoHistory.canRedo()) {
+            return new CommandResult(MESSAGE_NOTHING_TO_REDO);
+        }
+        if (!undoHistory.canRedo(client)) {
+            return new CommandResult(MESSAGE_CHANGED_BY_OTHER_CLIENT);
+        }
+        try {
+            undoHistory.redo(client);
+            return new CommandResult(MESSAGE_SUCCESS);
+        } catch (ChangeNotApplicableException cnae) {
+            return new CommandResult(String.format(MESSAGE_FAILED, cnae.getMessage()));
+        }
+    }
+}
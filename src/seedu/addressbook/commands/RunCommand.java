@@ -0,0 +1,198 @@
+package seedu.addressbook.commands;
+
+import seedu.addressbook.common.Prefixes;
+import seedu.addressbook.data.person.ReadOnlyPerson;
+import seedu.addressbook.data.tag.ReadOnlyTag;
+import seedu.addressbook.parser.Parser;
+import seedu.addressbook.storage.StorageFile.StorageOperationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs the commands in a file, one per line, as if they were entered one after another.
+ *
+ * The file is read a line at a time, so it may be larger than memory. The changes are saved once, after the last
+ * line, instead of after every line, or also after every given number of lines, as checkpoints.
+ * A line fails if it is not a valid command, or if it should change the address book but changes nothing,
+ * e.g. adding a duplicate person; the failed lines are listed in the result. Unlike at the prompt, a line
+ * with an unknown command word fails instead of showing the help, and a line cannot run another script.
+ */
+public class RunCommand extends Command {
+
+    public static final String COMMAND_WORD = "run";
+
+    /** Starts a line to be skipped. */
+    public static final String COMMENT_START = "#";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ":\n"
+            + "Runs the commands in a file, one per line, and saves the changes once at the end. "
+            + "Blank lines and lines starting with " + COMMENT_START + " are skipped. "
+            + "With a checkpoint, the changes are also saved after every that many commands.\n\t"
+            + "Parameters: FILE_PATH [" + Prefixes.CHECKPOINT + "COMMANDS]\n\t"
+            + "Example: " + COMMAND_WORD + " contacts.txt\n\t"
+            + "Example: " + COMMAND_WORD + " contacts.txt " + Prefixes.CHECKPOINT + "10000";
+
+    public static final String MESSAGE_SUCCESS = "Ran %1$d commands from %2$s: %3$d succeeded, %4$d failed";
+    public static final String MESSAGE_LINE_FAILED = "Line %1$d: %2$s";
+    public static final String MESSAGE_UNKNOWN_COMMAND = "Unknown command: %1$s";
+    public static final String MESSAGE_NESTED_RUN = "A script cannot run another script";
+    public static final String MESSAGE_MORE_LINES_FAILED = "... and %1$d more failed lines";
+    public static final String MESSAGE_CANNOT_READ = "Could not read %1$s: %2$s";
+    public static final String MESSAGE_CHECKPOINT_FAILED = "Stopped after line %1$d, as the changes could not be "
+            + "saved: %2$s";
+
+    /** Stands for no checkpoints: the changes are only saved at the end. */
+    public static final int NO_CHECKPOINTS = 0;
+
+    /** Number of failed lines listed in the result; the rest are only counted. */
+    static final int MAX_FAILED_LINES_LISTED = 20;
+
+    private final String filePath;
+    private final int checkpointInterval;
+
+    private int runCount;
+    private int failedCount;
+
+    /** True if every line of the file was run and every checkpoint saved. */
+    private boolean isCompleted;
+
+    /**
+     * @param checkpointInterval number of commands after which the changes are saved, or {@link #NO_CHECKPOINTS}.
+     */
+    public RunCommand(String filePath, int checkpointInterval) {
+        this.filePath = filePath;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Returns the number of commands in the file that failed, once executed.
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Returns true if, once executed, the file could not be run to the end, e.g. because it could not be read
+     * or a checkpoint could not be saved, or any of its commands failed.
+     */
+    public boolean hasFailed() {
+        return !isCompleted || failedCount > 0;
+    }
+
+    @Override
+    public CommandResult execute() {
+        runCount = 0;
+        failedCount = 0;
+        isCompleted = false;
+        final List<String> failedLines = new ArrayList<>();
+        // the commands in the file refer to the listings shown by the commands before them
+        List<? extends ReadOnlyPerson> shownPersons = relevantPersons;
+        List<? extends ReadOnlyTag> shownTags = relevantTags;
+        int lineNumber = 0;
+        try (BufferedReader lines = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                final String commandText = line.trim();
+                if (commandText.isEmpty() || commandText.startsWith(COMMENT_START)) {
+                    continue;
+                }
+                final Command command = new Parser().parseCommand(commandText);
+                if (isUnknownCommand(command, commandText)) {
+                    runCount++;
+                    fail(failedLines, lineNumber,
+                            String.format(MESSAGE_UNKNOWN_COMMAND, commandText.split("\\s+")[0]));
+                    continue;
+                }
+                if (command instanceof RunCommand) { // a script running itself would never end
+                    runCount++;
+                    fail(failedLines, lineNumber, MESSAGE_NESTED_RUN);
+                    continue;
+                }
+                command.setData(addressBook, shownPersons, shownTags);
+                command.setUndoHistory(undoHistory, client);
+                command.setCheckpoint(checkpoint);
+                final long modificationCountBefore = addressBook.getModificationCount();
+                final CommandResult result = command.execute();
+                undoHistory.endStep(client); // each command can be undone on its own, as if entered separately
+                runCount++;
+
+                final boolean hasFailed = command instanceof IncorrectCommand
+                        || !command.isReadOnly() && addressBook.getModificationCount() == modificationCountBefore;
+                if (hasFailed) {
+                    fail(failedLines, lineNumber, firstLineOf(result));
+                }
+                final Optional<List<? extends ReadOnlyPerson>> persons = result.getRelevantPersons();
+                final Optional<List<? extends ReadOnlyTag>> tags = result.getRelevantTags();
+                if (persons.isPresent()) {
+                    shownPersons = persons.get();
+                }
+                if (tags.isPresent()) {
+                    shownTags = tags.get();
+                }
+
+                if (checkpointInterval != NO_CHECKPOINTS && runCount % checkpointInterval == 0) {
+                    checkpoint.save();
+                }
+            }
+            isCompleted = true;
+        } catch (IOException | InvalidPathException e) {
+            failedLines.add(String.format(MESSAGE_CANNOT_READ, filePath, e.getMessage()));
+        } catch (StorageOperationException soe) {
+            failedLines.add(String.format(MESSAGE_CHECKPOINT_FAILED, lineNumber, soe.getMessage()));
+        }
+        return new CommandResult(summary(failedLines));
+    }
+
+    /**
+     * Counts the line as failed, and lists it with the reason unless enough lines are listed already.
+     */
+    private void fail(List<String> failedLines, int lineNumber, String reason) {
+        failedCount++;
+        if (failedLines.size() < MAX_FAILED_LINES_LISTED) {
+            failedLines.add(String.format(MESSAGE_LINE_FAILED, lineNumber, reason));
+        }
+    }
+
+    private String summary(List<String> failedLines) {
+        final StringBuilder summary = new StringBuilder(String.format(MESSAGE_SUCCESS,
+                runCount, filePath, runCount - failedCount, failedCount));
+        for (String failedLine : failedLines) {
+            summary.append('\n').append(failedLine);
+        }
+        if (failedCount > MAX_FAILED_LINES_LISTED) {
+            summary.append('\n').append(String.format(MESSAGE_MORE_LINES_FAILED,
+                    failedCount - MAX_FAILED_LINES_LISTED));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Returns true if the command is the help shown for a line that does not start with a known command word.
+     */
+    private static boolean isUnknownCommand(Command command, String commandText) {
+        return command instanceof HelpCommand && !commandText.split("\\s+")[0].equals(HelpCommand.COMMAND_WORD);
+    }
+
+    private static String firstLineOf(CommandResult result) {
+        final String feedback = result.feedbackToUser.trim();
+        final int end = feedback.indexOf('\n');
+        return end < 0 ? feedback : feedback.substring(0, end).trim();
+    }
+}
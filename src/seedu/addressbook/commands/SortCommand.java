@@ -1,25 +1,49 @@
 package seedu.addressbook.commands;
 
 import seedu.addressbook.data.person.ReadOnlyPerson;
+import seedu.addressbook.data.person.SortOrder;
 
 import java.util.List;
 
 
 /**
- * Sorts the address book.
+ * Sorts the address book, optionally keeping it sorted as persons are added or edited.
  */
 public class SortCommand extends Command{
 
     public static final String COMMAND_WORD = "sort";
-    public static final String MESSAGE_USAGE = COMMAND_WORD + ":\n" + "Sorts addressbook alphabetically.\n\t"
-            + "Example: " + COMMAND_WORD;
+    public static final String KEEP_SORTED_WORD = "keep";
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ":\n" + "Sorts addressbook by the given fields, "
+            + "alphabetically by name if none are given. "
+            + "With '" + KEEP_SORTED_WORD + "', persons added or edited later are placed in order too.\n\t"
+            + "Parameters: [FIELD [" + SortOrder.ASCENDING + "|" + SortOrder.DESCENDING + "]]... ["
+            + KEEP_SORTED_WORD + "]\n\t"
+            + "Fields: name, phone, email, address, tags\n\t"
+            + "Example: " + COMMAND_WORD + " " + SortOrder.EXAMPLE + " " + KEEP_SORTED_WORD;
 
-    public static final String MESSAGE_SUCCESS = "Address book sorted!";
+    public static final String MESSAGE_SUCCESS = "Address book sorted by %1$s!";
+    public static final String MESSAGE_SUCCESS_KEPT_SORTED = "Address book sorted by %1$s, and will be kept sorted!";
+
+    private final SortOrder order;
+    private final boolean keepSorted;
+
+    public SortCommand() {
+        this(SortOrder.BY_NAME, false);
+    }
+
+    /**
+     * @param keepSorted whether persons added or edited later are placed in order too
+     */
+    public SortCommand(SortOrder order, boolean keepSorted) {
+        this.order = order;
+        this.keepSorted = keepSorted;
+    }
 
     @Override
     public CommandResult execute() {
-        addressBook.sort();
-        List<ReadOnlyPerson> allPersons = addressBook.getAllPersons().immutableListView();
-        return new CommandResult(MESSAGE_SUCCESS, allPersons, null);
+        addressBook.sort(order, keepSorted);
+        List<ReadOnlyPerson> allPersons = addressBook.getAllPersons();
+        return new CommandResult(String.format(keepSorted ? MESSAGE_SUCCESS_KEPT_SORTED : MESSAGE_SUCCESS, order),
+                allPersons, null);
     }
 }
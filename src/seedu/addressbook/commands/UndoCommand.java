@@ -0,0 +1,36 @@
+package seedu.addressbook.commands;
+
+import seedu.addressbook.data.AddressBookChange.ChangeNotApplicableException;
+
+/**
+ * Undoes the most recent command that changed the address book, if the client running this command made it.
+ */
+public class UndoCommand extends Command {
+
+    public static final String COMMAND_WORD = "undo";
+
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ":\n"
+            + "Undoes the most recent command that changed the address book.\n\t"
+            + "Example: " + COMMAND_WORD;
+    public static final String MESSAGE_SUCCESS = "Undid the last change";
+    public static final String MESSAGE_NOTHING_TO_UNDO = "There is nothing to undo";
+    public static final String MESSAGE_CHANGED_BY_OTHER_CLIENT = "The last change was made by another client, "
+            + "and only it can undo that change";
+    public static final String MESSAGE_FAILED = "Could not undo the last change: %1$s";
+
+    @Override
+    public CommandResult execute() {
+        if (!undoHistory.canUndo()) {
+            return new CommandResult(MESSAGE_NOTHING_TO_UNDO);
+        }
+        if (!undoHistory.canUndo(client)) {
+            return new CommandResult(MESSAGE_CHANGED_BY_OTHER_CLIENT);
+        }
+        try {
+            undoHistory.undo(client);
+            return new CommandResult(MESSAGE_SUCCESS);
+        } catch (ChangeNotApplicableException cnae) {
+            return new CommandResult(String.format(MESSAGE_FAILED, cnae.getMessage()));
+        }
+    }
+}
@@ -37,4 +37,9 @@ public class ViewAllCommand extends Command {
             return new CommandResult(Messages.MESSAGE_INVALID_PERSON_DISPLAYED_INDEX);
         }
     }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
@@ -38,4 +38,9 @@ public class ViewCommand extends Command {
         }
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
 }
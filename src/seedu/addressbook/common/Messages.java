@@ -16,7 +16,11 @@ public class Messages {
     public static final String MESSAGE_PERSONS_LISTED_OVERVIEW = "%1$d persons listed!";
     public static final String MESSAGE_TAGS_LISTED_OVERVIEW = "%1$d tags listed!";
     public static final String MESSAGE_PROGRAM_LAUNCH_ARGS_USAGE = "Launch command format: " +
-            "java seedu.addressbook.Main [STORAGE_FILE_PATH]";
+            "java seedu.addressbook.Main [STORAGE_FILE_PATH] [--journal] [--async[=MAX_DELAY_MILLIS]]"
+            + " [--backups=COUNT] [--script=SCRIPT_FILE_PATH [--checkpoint=COMMANDS]]";
+    public static final String MESSAGE_UNDO_HISTORY_FORGOTTEN = "Older changes can no longer be undone, "
+            + "to keep the undo history within its memory budget";
+    public static final String MESSAGE_COMMAND_CANCELLED = "Cancelled: %1$s";
     public static final String MESSAGE_WELCOME = "Welcome to your Address Book!";
     public static final String MESSAGE_USING_STORAGE_FILE = "Using storage file : %1$s";
 }
@@ -0,0 +1,382 @@
+package seedu.addressbook.common;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * An immutable hash map whose updates return a new map sharing all unchanged structure with the old one
+ * (a hash array mapped trie). Looking up, adding and removing a key take time logarithmic in the size of
+ * the map with base 32, so in practice a handful of steps, and copy only the nodes on the path to the key.
+ *
+ * Keys are compared with {@link Object#equals(Object)}, or by reference for maps made by {@link #emptyByIdentity()}.
+ * Null keys and values are not allowed.
+ */
+public final class PersistentHashMap<K, V> {
+
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0, false);
+    private static final PersistentHashMap<?, ?> EMPTY_BY_IDENTITY = new PersistentHashMap<>(null, 0, true);
+
+    private final Node root;
+    private final int size;
+    private final boolean isByIdentity;
+
+    private PersistentHashMap(Node root, int size, boolean isByIdentity) {
+        this.root = root;
+        this.size = size;
+        this.isByIdentity = isByIdentity;
+    }
+
+    /**
+     * Returns the empty map comparing keys with {@link Object#equals(Object)}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns the empty map comparing keys by reference, like an {@link java.util.IdentityHashMap}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> emptyByIdentity() {
+        return (PersistentHashMap<K, V>) EMPTY_BY_IDENTITY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value of the given key, or null if the map does not contain the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return root == null ? null : (V) root.find(0, hash(key), key, isByIdentity);
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns a map with the given key mapped to the given value, and otherwise the same as this one.
+     * Returns this map itself if the key is already mapped to that very value.
+     */
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        final boolean[] isAdded = new boolean[1];
+        final Node start = root == null ? BitmapNode.EMPTY : root;
+        final Node newRoot = start.plus(0, hash(key), key, value, isByIdentity, isAdded);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, isAdded[0] ? size + 1 : size, isByIdentity);
+    }
+
+    /**
+     * Returns a map without the given key, and otherwise the same as this one.
+     * Returns this map itself if it does not contain the key.
+     */
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (root == null) {
+            return this;
+        }
+        final Node newRoot = root.minus(0, hash(key), key, isByIdentity);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, size - 1, isByIdentity);
+    }
+
+    /**
+     * Returns a map with the same keys, each mapped to the value the function gives for its value in this map.
+     * Takes time linear in the size of the map, as its trie is copied as it is, without hashing any key.
+     * The function must not return null.
+     */
+    @SuppressWarnings("unchecked")
+    public <W> PersistentHashMap<K, W> mapValues(Function<? super V, ? extends W> function) {
+        if (root == null) {
+            return (PersistentHashMap<K, W>) this;
+        }
+        return new PersistentHashMap<>(root.mapValues((Function<Object, Object>) function), size, isByIdentity);
+    }
+
+    /**
+     * Performs the given action for every key and value, in no particular order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    private int hash(Object key) {
+        return hashOf(key, isByIdentity);
+    }
+
+    private static boolean isSameKey(Object key1, Object key2, boolean isByIdentity) {
+        return key1 == key2 || (!isByIdentity && key1.equals(key2));
+    }
+
+    /**
+     * A node of the trie. Updates return a new node, or the node itself if nothing changed;
+     * removing the last entry of a node returns null.
+     */
+    private abstract static class Node {
+        abstract Object find(int shift, int hash, Object key, boolean isByIdentity);
+
+        abstract Node plus(int shift, int hash, Object key, Object value, boolean isByIdentity, boolean[] isAdded);
+
+        abstract Node minus(int shift, int hash, Object key, boolean isByIdentity);
+
+        abstract Node mapValues(Function<Object, Object> function);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * A node holding, for each set bit of its bitmap, either a key and its value, or a null key and a child node.
+     * The bits stand for the next five bits of the hash, so the array only holds the slots in use.
+     */
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key, boolean isByIdentity) {
+            final int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final int i = 2 * slotOf(bit);
+            final Object storedKey = array[i];
+            if (storedKey == null) {
+                return ((Node) array[i + 1]).find(shift + BITS_PER_LEVEL, hash, key, isByIdentity);
+            }
+            return isSameKey(key, storedKey, isByIdentity) ? array[i + 1] : null;
+        }
+
+        @Override
+        Node plus(int shift, int hash, Object key, Object value, boolean isByIdentity, boolean[] isAdded) {
+            final int bit = bitFor(hash, shift);
+            final int i = 2 * slotOf(bit);
+            if ((bitmap & bit) == 0) {
+                final Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, i);
+                newArray[i] = key;
+                newArray[i + 1] = value;
+                System.arraycopy(array, i, newArray, i + 2, array.length - i);
+                isAdded[0] = true;
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+            final Object storedKey = array[i];
+            final Object storedValue = array[i + 1];
+            if (storedKey == null) {
+                final Node child = ((Node) storedValue).plus(shift + BITS_PER_LEVEL, hash, key, value,
+                        isByIdentity, isAdded);
+                return child == storedValue ? this : withSlot(i, null, child);
+            }
+            if (isSameKey(key, storedKey, isByIdentity)) {
+                return value == storedValue ? this : withSlot(i, storedKey, value);
+            }
+            isAdded[0] = true;
+            return withSlot(i, null, nodeOf(shift + BITS_PER_LEVEL, storedKey, storedValue, hash, key, value,
+                    isByIdentity));
+        }
+
+        @Override
+        Node minus(int shift, int hash, Object key, boolean isByIdentity) {
+            final int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int i = 2 * slotOf(bit);
+            final Object storedKey = array[i];
+            if (storedKey == null) {
+                final Node child = (Node) array[i + 1];
+                final Node newChild = child.minus(shift + BITS_PER_LEVEL, hash, key, isByIdentity);
+                if (newChild == child) {
+                    return this;
+                }
+                return newChild != null ? withSlot(i, null, newChild) : withoutSlot(bit, i);
+            }
+            return isSameKey(key, storedKey, isByIdentity) ? withoutSlot(bit, i) : this;
+        }
+
+        @Override
+        Node mapValues(Function<Object, Object> function) {
+            final Object[] newArray = new Object[array.length];
+            for (int i = 0; i < array.length; i += 2) {
+                newArray[i] = array[i];
+                newArray[i + 1] = array[i] == null
+                        ? ((Node) array[i + 1]).mapValues(function)
+                        : requireValue(function.apply(array[i + 1]));
+            }
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+
+        private int slotOf(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private BitmapNode withSlot(int i, Object key, Object value) {
+            final Object[] newArray = array.clone();
+            newArray[i] = key;
+            newArray[i + 1] = value;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        private BitmapNode withoutSlot(int bit, int i) {
+            if (bitmap == bit) {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            return new BitmapNode(bitmap ^ bit, newArray);
+        }
+    }
+
+    /**
+     * A node holding keys that have the very same hash.
+     */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        private final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key, boolean isByIdentity) {
+            final int i = indexOf(key, isByIdentity);
+            return i < 0 ? null : array[i + 1];
+        }
+
+        @Override
+        Node plus(int shift, int hash, Object key, Object value, boolean isByIdentity, boolean[] isAdded) {
+            if (hash != this.hash) {
+                // the new key differs at this level; nest this node in a bitmap node and add the key there
+                return new BitmapNode(bitFor(this.hash, shift), new Object[] {null, this})
+                        .plus(shift, hash, key, value, isByIdentity, isAdded);
+            }
+            final int i = indexOf(key, isByIdentity);
+            if (i >= 0) {
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                final Object[] newArray = array.clone();
+                newArray[i + 1] = value;
+                return new CollisionNode(hash, newArray);
+            }
+            final Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            isAdded[0] = true;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        Node minus(int shift, int hash, Object key, boolean isByIdentity) {
+            final int i = indexOf(key, isByIdentity);
+            if (i < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            final Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        Node mapValues(Function<Object, Object> function) {
+            final Object[] newArray = new Object[array.length];
+            for (int i = 0; i < array.length; i += 2) {
+                newArray[i] = array[i];
+                newArray[i + 1] = requireValue(function.apply(array[i + 1]));
+            }
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+
+        private int indexOf(Object key, boolean isByIdentity) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (isSameKey(key, array[i], isByIdentity)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static Object requireValue(Object value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        return value;
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    /**
+     * Returns a node holding the two given entries, whose keys are different.
+     */
+    private static Node nodeOf(int shift, Object key1, Object value1, int hash2, Object key2, Object value2,
+                               boolean isByIdentity) {
+        final int hash1 = hashOf(key1, isByIdentity);
+        if (hash1 == hash2) {
+            return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+        }
+        final boolean[] isAdded = new boolean[1];
+        return BitmapNode.EMPTY
+                .plus(shift, hash1, key1, value1, isByIdentity, isAdded)
+                .plus(shift, hash2, key2, value2, isByIdentity, isAdded);
+    }
+
+    private static int hashOf(Object key, boolean isByIdentity) {
+        final int hash = isByIdentity ? System.identityHashCode(key) : key.hashCode();
+        return hash ^ (hash >>> 16); // spread the high bits to the levels nearest the root
+    }
+}
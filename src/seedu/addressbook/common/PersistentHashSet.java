@@ -0,0 +1,77 @@
+package seedu.addressbook.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An immutable hash set whose updates return a new set sharing all unchanged structure with the old one.
+ * Adding, removing and checking an element take effectively constant time.
+ *
+ * @see PersistentHashMap
+ */
+public final class PersistentHashSet<E> {
+
+    private static final PersistentHashSet<?> EMPTY = new PersistentHashSet<>(PersistentHashMap.empty());
+
+    private final PersistentHashMap<E, E> elements;
+
+    private PersistentHashSet(PersistentHashMap<E, E> elements) {
+        this.elements = elements;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentHashSet<E> empty() {
+        return (PersistentHashSet<E>) EMPTY;
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    public boolean isEmpty() {
+        return elements.isEmpty();
+    }
+
+    public boolean contains(Object element) {
+        return elements.containsKey(element);
+    }
+
+    /**
+     * Returns a set with the given element added, or this set itself if it already contains the element.
+     */
+    public PersistentHashSet<E> plus(E element) {
+        return contains(element) ? this : new PersistentHashSet<>(elements.plus(element, element));
+    }
+
+    /**
+     * Returns a set with the given element removed, or this set itself if it does not contain the element.
+     */
+    public PersistentHashSet<E> minus(Object element) {
+        final PersistentHashMap<E, E> remaining = elements.minus(element);
+        return remaining == elements ? this : new PersistentHashSet<>(remaining);
+    }
+
+    /**
+     * Returns the union of this set and the given one. Takes time proportional to the size of the smaller set,
+     * whose elements are added to the larger one.
+     */
+    public PersistentHashSet<E> union(PersistentHashSet<E> other) {
+        final PersistentHashSet<E> larger = size() >= other.size() ? this : other;
+        final PersistentHashSet<E> smaller = larger == this ? other : this;
+        final List<E> toAdd = new ArrayList<>(smaller.size());
+        smaller.forEach(toAdd::add);
+        PersistentHashMap<E, E> union = larger.elements;
+        for (E element : toAdd) {
+            union = union.plus(element, element);
+        }
+        return union == larger.elements ? larger : new PersistentHashSet<>(union);
+    }
+
+    /**
+     * Performs the given action for every element, in no particular order.
+     */
+    public void forEach(Consumer<? super E> action) {
+        elements.forEach((element, same) -> action.accept(element));
+    }
+}
@@ -0,0 +1,316 @@
+package seedu.addressbook.common;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * An immutable map from {@code long} keys to values, kept in key order, whose updates return a new map sharing
+ * all unchanged structure with the old one (a persistent balanced binary tree that knows the size of each subtree).
+ *
+ * Looking up, adding and removing a key, and finding the value at a given position in key order, take time
+ * logarithmic in the size of the map, and copy only the nodes on the path to the key. Iterating gives the values
+ * in key order. Null values are not allowed.
+ */
+public final class PersistentRankedMap<V> implements Iterable<V> {
+
+    private static final PersistentRankedMap<?> EMPTY = new PersistentRankedMap<>(null);
+
+    private final Node root;
+
+    private PersistentRankedMap(Node root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentRankedMap<V> empty() {
+        return (PersistentRankedMap<V>) EMPTY;
+    }
+
+    /**
+     * Returns the map of the given values, each under the key given by {@code keyOf}.
+     * The keys must increase along the list. Takes time linear in the number of values,
+     * as the tree is built balanced in one go.
+     */
+    public static <V> PersistentRankedMap<V> ofValues(List<? extends V> values, ToLongFunction<? super V> keyOf) {
+        return new PersistentRankedMap<>(build(values, keyOf, 0, values.size()));
+    }
+
+    public int size() {
+        return sizeOf(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the value of the given key, or null if the map does not contain the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        Node node = root;
+        while (node != null) {
+            if (key < node.key) {
+                node = node.left;
+            } else if (key > node.key) {
+                node = node.right;
+            } else {
+                return (V) node.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value at the given position in key order.
+     *
+     * @throws IndexOutOfBoundsException if the position is not less than the size of the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node node = root;
+        int remaining = index;
+        while (true) {
+            final int leftSize = sizeOf(node.left);
+            if (remaining < leftSize) {
+                node = node.left;
+            } else if (remaining > leftSize) {
+                remaining -= leftSize + 1;
+                node = node.right;
+            } else {
+                return (V) node.value;
+            }
+        }
+    }
+
+    /**
+     * Returns the position in key order of the given key, i.e. the number of smaller keys in the map,
+     * or -1 if the map does not contain the key.
+     */
+    public int indexOfKey(long key) {
+        Node node = root;
+        int smaller = 0;
+        while (node != null) {
+            if (key < node.key) {
+                node = node.left;
+            } else if (key > node.key) {
+                smaller += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                return smaller + sizeOf(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position in key order of the first value satisfying the condition, or the size of the map if
+     * none does. The condition must hold for every value after one it holds for, e.g. "is greater than x" when the
+     * values increase with their keys, so that the position is found in logarithmic time like a binary search.
+     */
+    @SuppressWarnings("unchecked")
+    public int indexOfFirst(Predicate<? super V> condition) {
+        Node node = root;
+        int before = 0;
+        int first = size();
+        while (node != null) {
+            if (condition.test((V) node.value)) {
+                first = before + sizeOf(node.left);
+                node = node.left;
+            } else {
+                before += sizeOf(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Returns the largest key in the map, or 0 if the map is empty.
+     */
+    public long lastKey() {
+        Node node = root;
+        if (node == null) {
+            return 0;
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.key;
+    }
+
+    /**
+     * Returns a map with the given key mapped to the given value, and otherwise the same as this one.
+     */
+    public PersistentRankedMap<V> plus(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        final Node newRoot = plus(root, key, value);
+        return newRoot == root ? this : new PersistentRankedMap<>(newRoot);
+    }
+
+    /**
+     * Returns a map without the given key, or this map itself if it does not contain the key.
+     */
+    public PersistentRankedMap<V> minus(long key) {
+        final Node newRoot = minus(root, key);
+        return newRoot == root ? this : new PersistentRankedMap<>(newRoot);
+    }
+
+    /**
+     * Returns the values in key order. The iterator does not support removal.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            private final Deque<Node> path = new ArrayDeque<>();
+
+            {
+                pushLeftmost(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                final Node node = path.pop();
+                pushLeftmost(node.right);
+                return (V) node.value;
+            }
+
+            private void pushLeftmost(Node node) {
+                for (Node each = node; each != null; each = each.left) {
+                    path.push(each);
+                }
+            }
+        };
+    }
+
+    /**
+     * A node of the tree. Nodes are never changed; an update copies the nodes on its path.
+     */
+    private static final class Node {
+        final long key;
+        final Object value;
+        final Node left;
+        final Node right;
+        final int height;
+        final int size;
+
+        Node(long key, Object value, Node left, Node right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(heightOf(left), heightOf(right)) + 1;
+            this.size = sizeOf(left) + sizeOf(right) + 1;
+        }
+    }
+
+    private static int heightOf(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <V> Node build(List<? extends V> values, ToLongFunction<? super V> keyOf, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        final int middle = (from + to) >>> 1;
+        final V value = values.get(middle);
+        return new Node(keyOf.applyAsLong(value), value,
+                build(values, keyOf, from, middle), build(values, keyOf, middle + 1, to));
+    }
+
+    private static Node plus(Node node, long key, Object value) {
+        if (node == null) {
+            return new Node(key, value, null, null);
+        }
+        if (key < node.key) {
+            return balanced(node.key, node.value, plus(node.left, key, value), node.right);
+        }
+        if (key > node.key) {
+            return balanced(node.key, node.value, node.left, plus(node.right, key, value));
+        }
+        return value == node.value ? node : new Node(key, value, node.left, node.right);
+    }
+
+    private static Node minus(Node node, long key) {
+        if (node == null) {
+            return null;
+        }
+        if (key < node.key) {
+            final Node left = minus(node.left, key);
+            return left == node.left ? node : balanced(node.key, node.value, left, node.right);
+        }
+        if (key > node.key) {
+            final Node right = minus(node.right, key);
+            return right == node.right ? node : balanced(node.key, node.value, node.left, right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balanced(successor.key, successor.value, node.left, minusFirst(node.right));
+    }
+
+    private static Node minusFirst(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balanced(node.key, node.value, minusFirst(node.left), node.right);
+    }
+
+    /**
+     * Returns a node with the given contents, rotated so that the heights of its subtrees differ by at most one.
+     * The heights of the given subtrees may differ by at most two.
+     */
+    private static Node balanced(long key, Object value, Node left, Node right) {
+        final int leftHeight = heightOf(left);
+        final int rightHeight = heightOf(right);
+        if (leftHeight > rightHeight + 1) {
+            if (heightOf(left.left) >= heightOf(left.right)) {
+                return new Node(left.key, left.value, left.left, new Node(key, value, left.right, right));
+            }
+            final Node pivot = left.right;
+            return new Node(pivot.key, pivot.value,
+                    new Node(left.key, left.value, left.left, pivot.left),
+                    new Node(key, value, pivot.right, right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            if (heightOf(right.right) >= heightOf(right.left)) {
+                return new Node(right.key, right.value, new Node(key, value, left, right.left), right.right);
+            }
+            final Node pivot = right.left;
+            return new Node(pivot.key, pivot.value,
+                    new Node(key, value, left, pivot.left),
+                    new Node(right.key, right.value, pivot.right, right.right));
+        }
+        return new Node(key, value, left, right);
+    }
+}
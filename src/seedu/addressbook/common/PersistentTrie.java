@@ -0,0 +1,130 @@
+package seedu.addressbook.common;
+
+import java.util.function.Consumer;
+
+/**
+ * An immutable set of strings whose updates return a new set sharing all unchanged structure with the old one
+ * (a persistent prefix tree, with the children of each node in a {@link PersistentHashMap}).
+ *
+ * Adding, removing and checking a string take time proportional to its length, and copy only the nodes on its
+ * path. Finding the strings that start with a prefix takes time proportional to the length of the prefix and the
+ * total length of the strings found, however many other strings the set holds.
+ */
+public final class PersistentTrie {
+
+    private static final PersistentTrie EMPTY = new PersistentTrie(Node.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static PersistentTrie empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(String string) {
+        final Node node = nodeOf(string);
+        return node != null && node.isString;
+    }
+
+    /**
+     * Returns a set with the given string added, or this set itself if it already contains the string.
+     */
+    public PersistentTrie plus(String string) {
+        return contains(string) ? this : new PersistentTrie(plus(root, string, 0), size + 1);
+    }
+
+    /**
+     * Returns a set with the given string removed, or this set itself if it does not contain the string.
+     */
+    public PersistentTrie minus(String string) {
+        if (!contains(string)) {
+            return this;
+        }
+        final Node newRoot = minus(root, string, 0);
+        return new PersistentTrie(newRoot == null ? Node.EMPTY : newRoot, size - 1);
+    }
+
+    /**
+     * Performs the given action for every string in the set that starts with the given prefix,
+     * including the prefix itself, in no particular order.
+     */
+    public void forEachWithPrefix(String prefix, Consumer<? super String> action) {
+        final Node node = nodeOf(prefix);
+        if (node != null) {
+            forEachBelow(node, new StringBuilder(prefix), action);
+        }
+    }
+
+    /**
+     * A node of the tree, standing for the string spelt by the path to it. Nodes are never changed;
+     * an update copies the nodes on its path.
+     */
+    private static final class Node {
+        static final Node EMPTY = new Node(false, PersistentHashMap.empty());
+
+        /** Whether the string this node stands for is in the set, rather than only a prefix of strings in it. */
+        final boolean isString;
+        final PersistentHashMap<Character, Node> children;
+
+        Node(boolean isString, PersistentHashMap<Character, Node> children) {
+            this.isString = isString;
+            this.children = children;
+        }
+    }
+
+    private Node nodeOf(String string) {
+        Node node = root;
+        for (int i = 0; i < string.length() && node != null; i++) {
+            node = node.children.get(string.charAt(i));
+        }
+        return node;
+    }
+
+    private static Node plus(Node node, String string, int from) {
+        if (from == string.length()) {
+            return new Node(true, node.children);
+        }
+        final char next = string.charAt(from);
+        final Node child = node.children.get(next);
+        return new Node(node.isString,
+                node.children.plus(next, plus(child == null ? Node.EMPTY : child, string, from + 1)));
+    }
+
+    /**
+     * Returns the node without the given string, which it must contain, or null if nothing is left of the node.
+     */
+    private static Node minus(Node node, String string, int from) {
+        if (from == string.length()) {
+            return node.children.isEmpty() ? null : new Node(false, node.children);
+        }
+        final char next = string.charAt(from);
+        final Node child = minus(node.children.get(next), string, from + 1);
+        final PersistentHashMap<Character, Node> children =
+                child == null ? node.children.minus(next) : node.children.plus(next, child);
+        return !node.isString && children.isEmpty() ? null : new Node(node.isString, children);
+    }
+
+    private static void forEachBelow(Node node, StringBuilder path, Consumer<? super String> action) {
+        if (node.isString) {
+            action.accept(path.toString());
+        }
+        node.children.forEach((next, child) -> {
+            path.append(next.charValue());
+            forEachBelow(child, path, action);
+            path.setLength(path.length() - 1);
+        });
+    }
+}
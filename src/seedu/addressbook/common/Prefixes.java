@@ -17,6 +17,8 @@ public class Prefixes {
     public static final String ADDRESS = "a/";
     public static final String ADDTAG = "ta/";
     public static final String REMOVETAG = "tr/";
+    public static final String LIMIT = "limit/";
+    public static final String CHECKPOINT = "checkpoint/";
     
     public static final List<String> DEFAULT_PREFIXES = Arrays.asList(NAME, PHONE, EMAIL, ADDRESS);
     public static final List<String> TAG_PREFIXES = Arrays.asList(ADDTAG, REMOVETAG);
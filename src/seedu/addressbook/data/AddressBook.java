@@ -5,6 +5,7 @@ import seedu.addressbook.data.person.*;
 import seedu.addressbook.data.person.UniquePersonList.*;
 import seedu.addressbook.data.tag.ReadOnlyTag;
 import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.TagRegistry;
 import seedu.addressbook.data.tag.UniqueTagList;
 import seedu.addressbook.data.tag.UniqueTagList.*;
 
@@ -16,11 +17,33 @@ import java.util.*;
  * Guarantees:
  *  - Every tag found in every person will also be found in the tag list.
  *  - The tags in each person point to tag objects in the master list. (== equality)
+ *  - Once the indexes are built, every person is filed in the search index under the terms of its current
+ *    non-private details, and in the tag index under each of its tags.
+ *
+ * The indexes are built on first use, so that address books that are only loaded and saved never pay for them.
+ *
+ * The persons and indexes are held in persistent structures, which each change replaces with an updated
+ * version sharing most of the old one, in time logarithmic in the number of persons. Persons in the address
+ * book are never changed in place either. Taking a {@link #snapshot()} therefore only copies references.
  */
 public class AddressBook {
 
+    /**
+     * Receives every change made to an address book, right after the change is made.
+     */
+    public interface ChangeListener {
+        void onChange(AddressBookChange change);
+    }
+
     private final UniquePersonList allPersons;
     private final UniqueTagList allTags; // can contain tags not attached to any person
+    private final InvertedIndex searchIndex;
+    private final TagIndex tagIndex;
+    private final List<ChangeListener> listeners = new ArrayList<>();
+    private long modificationCount;
+
+    /** True once the search and tag indexes hold every person; see {@link #ensureIndexed()}. */
+    private volatile boolean isIndexed;
 
     public static AddressBook empty() {
         return new AddressBook();
@@ -32,6 +55,8 @@ public class AddressBook {
     public AddressBook() {
         allPersons = new UniquePersonList();
         allTags = new UniqueTagList();
+        searchIndex = new InvertedIndex();
+        tagIndex = new TagIndex();
     }
 
     /**
@@ -44,32 +69,49 @@ public class AddressBook {
     public AddressBook(UniquePersonList persons, UniqueTagList tags) {
         this.allPersons = new UniquePersonList(persons);
         this.allTags = new UniqueTagList(tags);
+        this.searchIndex = new InvertedIndex();
+        this.tagIndex = new TagIndex();
         for (Person p : allPersons) {
             syncTagsWithMasterList(p);
         }
     }
 
+    /**
+     * Constructs a copy of the source that later changes to either do not affect.
+     * The persons and indexes share the source's persistent structures; only the tag list is copied.
+     */
+    private AddressBook(AddressBook source) {
+        // read first: the source's indexes may be built by a search on another thread meanwhile
+        final boolean isSourceIndexed = source.isIndexed;
+        allPersons = new UniquePersonList(source.allPersons);
+        allTags = new UniqueTagList(source.allTags);
+        searchIndex = new InvertedIndex(source.searchIndex);
+        tagIndex = new TagIndex(source.tagIndex);
+        isIndexed = isSourceIndexed;
+        modificationCount = source.modificationCount;
+    }
+
+    /**
+     * Returns a copy of this address book as it is now, which later changes to this address book do not affect.
+     * The copy can be read on another thread, e.g. to save it in the background, while this one keeps changing.
+     * Its modification count is that of this address book, and it has no change listeners.
+     * Takes time proportional to the number of tags only, as the persons and indexes are shared.
+     */
+    public AddressBook snapshot() {
+        return new AddressBook(this);
+    }
+
     /**
      * Ensures that every tag in this person:
      *  - exists in the master list {@link #allTags}
      *  - points to a Tag object in the master list
+     *
+     * Both the person and the master list hold tags through the {@link TagRegistry}, which already makes
+     * equal tags the same object, so only missing tags have to be added; this takes time proportional
+     * to the number of tags on the person.
      */
     private void syncTagsWithMasterList(Person person) {
-        final UniqueTagList personTags = person.getTags();
-        allTags.mergeFrom(personTags);
-
-        // Create map with values = tag object references in the master list
-        final Map<Tag, Tag> masterTagObjects = new HashMap<>();
-        for (Tag tag : allTags) {
-            masterTagObjects.put(tag, tag);
-        }
-
-        // Rebuild the list of person tags using references from the master list
-        final Set<Tag> commonTagReferences = new HashSet<>();
-        for (Tag tag : personTags) {
-            commonTagReferences.add(masterTagObjects.get(tag));
-        }
-        person.setTags(new UniqueTagList(commonTagReferences));
+        allTags.mergeFrom(person.getTagIds());
     }
 
     /**
@@ -82,6 +124,39 @@ public class AddressBook {
     public void addPerson(Person toAdd) throws DuplicatePersonException {
         syncTagsWithMasterList(toAdd);
         allPersons.add(toAdd);
+        index(toAdd);
+        recordChange(new AddressBookChange.PersonAdded(toAdd));
+    }
+
+    /**
+     * Inserts a person into the address book at the given position in display order, counting from 0.
+     * Also updates {@link #allTags} with any new tags found in the person.
+     *
+     * @throws DuplicatePersonException if an equivalent person already exists.
+     * @throws IndexOutOfBoundsException if the position is negative or greater than the number of persons.
+     */
+    public void addPerson(Person toAdd, int position) throws DuplicatePersonException {
+        syncTagsWithMasterList(toAdd);
+        allPersons.add(toAdd, position);
+        index(toAdd);
+        recordChange(new AddressBookChange.PersonAdded(toAdd, position));
+    }
+
+    /**
+     * Adds the persons to the address book, skipping those equivalent to a person already in it or to one before
+     * them in {@code toAdd}. Also updates {@link #allTags} with any new tags found in the added persons.
+     * Faster than adding the persons one by one; see {@link UniquePersonList#addAll(Collection)}.
+     *
+     * @return the persons added, in the given order.
+     */
+    public List<Person> addPersons(Collection<Person> toAdd) {
+        final List<Person> added = allPersons.addAll(toAdd);
+        for (Person person : added) {
+            syncTagsWithMasterList(person);
+            index(person);
+            recordChange(new AddressBookChange.PersonAdded(person));
+        }
+        return added;
     }
 
     /**
@@ -91,6 +166,7 @@ public class AddressBook {
      */
     public void addTag(Tag toAdd) throws DuplicateTagException {
         allTags.add(toAdd);
+        recordChange(new AddressBookChange.TagAdded(toAdd));
     }
     
     /**
@@ -104,8 +180,28 @@ public class AddressBook {
     public void renameTag(ReadOnlyTag oldTag, String newTagName)
             throws IllegalValueException, TagNotFoundException {
         Tag tagToUpdate = new Tag(newTagName);
-        allPersons.renameTag(oldTag, tagToUpdate);
+        final Tag toRename = new Tag(oldTag);
+        ensureIndexed();
+        // merging into an existing tag cannot be undone by renaming back, so keep the version before it
+        final AddressBook previousVersion = allTags.contains(tagToUpdate) ? snapshot() : null;
         allTags.update(oldTag, tagToUpdate);
+        // only the persons with the tag are visited; their tags are not part of their identity or search terms,
+        // so they keep their keys and are replaced by renamed copies rather than changed, to keep snapshots intact
+        for (PersonKey key : tagIndex.personsWith(toRename)) {
+            final Person person = allPersons.find(key);
+            if (person == null) {
+                continue;
+            }
+            final Person renamed = new Person(person);
+            renamed.setTags(person.getTagIds().replace(toRename, tagToUpdate));
+            try {
+                allPersons.replace(person, renamed);
+            } catch (PersonNotFoundException | DuplicatePersonException e) {
+                throw new AssertionError("A renamed person keeps its identity", e);
+            }
+        }
+        tagIndex.rename(toRename, tagToUpdate);
+        recordChange(new AddressBookChange.TagRenamed(oldTag, tagToUpdate, previousVersion));
     }
 
 
@@ -125,13 +221,37 @@ public class AddressBook {
     
     /**
      * Edits the equivalent person from the address book.
+     * Also updates {@link #allTags} with any tags added to the person.
      *
      * @throws PersonNotFoundException if no such Person could be found.
      * @throws IllegalValueException if argument(s) in argsToEdit is/are invalid.
      * @throws TagNotFoundException  if tag to remove in argsToEdit is not found.
      */
     public ReadOnlyPerson editPerson(ReadOnlyPerson toEdit, String[] argsToEdit) throws PersonNotFoundException, IllegalValueException, TagNotFoundException {
-        return allPersons.edit(toEdit, argsToEdit);
+        final Person oldPerson = allPersons.get(toEdit);
+        final Person editedPerson = allPersons.edit(toEdit, argsToEdit);
+        syncTagsWithMasterList(editedPerson);
+        unindex(oldPerson);
+        index(editedPerson);
+        recordChange(new AddressBookChange.PersonReplaced(oldPerson, editedPerson));
+        return editedPerson;
+    }
+
+    /**
+     * Replaces the equivalent person in the address book with the given person, keeping its position.
+     * Also updates {@link #allTags} with any new tags found in the replacement.
+     *
+     * @throws PersonNotFoundException if no such Person could be found.
+     * @throws DuplicatePersonException if the replacement is equivalent to another person in the address book.
+     */
+    public void replacePerson(ReadOnlyPerson target, Person replacement)
+            throws PersonNotFoundException, DuplicatePersonException {
+        final Person oldPerson = allPersons.get(target);
+        syncTagsWithMasterList(replacement);
+        allPersons.replace(target, replacement);
+        unindex(oldPerson);
+        index(replacement);
+        recordChange(new AddressBookChange.PersonReplaced(oldPerson, replacement));
     }
 
     /**
@@ -140,7 +260,11 @@ public class AddressBook {
      * @throws PersonNotFoundException if no such Person could be found.
      */
     public void removePerson(ReadOnlyPerson toRemove) throws PersonNotFoundException {
+        final Person removed = allPersons.get(toRemove);
+        final int position = allPersons.indexOf(removed);
         allPersons.remove(toRemove);
+        unindex(removed);
+        recordChange(new AddressBookChange.PersonRemoved(removed, position));
     }
     
     /**
@@ -150,28 +274,226 @@ public class AddressBook {
      */
     public void removeTag(Tag toRemove) throws TagNotFoundException {
         allTags.remove(toRemove);
+        recordChange(new AddressBookChange.TagRemoved(toRemove));
     }
 
     /**
      * Clears all persons and tags from the address book.
      */
     public void clear() {
+        final AddressBook previousVersion = snapshot();
         allPersons.clear();
         allTags.clear();
+        searchIndex.clear();
+        tagIndex.clear();
+        recordChange(new AddressBookChange.Cleared(previousVersion));
+    }
+
+    /**
+     * Sorts all persons in the address book in the given order.
+     *
+     * @param keepSorted whether persons added or edited later are placed in the order too,
+     *        so that the address book stays sorted without sorting it again
+     */
+    public void sort(SortOrder order, boolean keepSorted) {
+        final AddressBook previousVersion = snapshot();
+        allPersons.sort(order, keepSorted);
+        recordChange(new AddressBookChange.Sorted(order, keepSorted, previousVersion));
+    }
+
+    /**
+     * Returns a rough estimate of the memory this version of the address book holds on to that the other
+     * version, e.g. a later one, does not share with it.
+     * @see UniquePersonList#estimatedSizeNotSharedWith(UniquePersonList, long, long)
+     */
+    long estimatedSizeNotSharedWith(AddressBook other, long personBytes, long entryBytes) {
+        return allPersons.estimatedSizeNotSharedWith(other.allPersons, personBytes, entryBytes);
+    }
+
+    /**
+     * Returns true if the persons are kept sorted in the {@link #getSortOrder() sort order}.
+     */
+    public boolean isKeptSorted() {
+        return allPersons.isKeptSorted();
+    }
+
+    /**
+     * Returns the order the persons were last sorted in.
+     */
+    public SortOrder getSortOrder() {
+        return allPersons.getSortOrder();
+    }
+
+    /**
+     * Sets all persons and tags of the address book back to those of the given version of it, such as a
+     * {@link #snapshot()}. Takes time proportional to the number of tags only, as the persons and indexes are
+     * shared with the version; later changes to either do not affect the other.
+     */
+    public void restore(AddressBook version) {
+        final AddressBook previousVersion = snapshot();
+        final boolean isVersionIndexed = version.isIndexed;
+        allPersons.setPersons(version.allPersons);
+        allTags.setTags(version.allTags);
+        searchIndex.setFrom(version.searchIndex);
+        tagIndex.setFrom(version.tagIndex);
+        isIndexed = isVersionIndexed;
+        recordChange(new AddressBookChange.Restored(version.snapshot(), previousVersion));
+    }
+
+    /**
+     * Registers a listener to be told about every later change to this address book.
+     */
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops telling the given listener about changes to this address book.
+     */
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the number of changes made to this address book since it was created.
+     * Every method that modifies the address book increases it, so comparing two readings
+     * tells whether anything changed in between.
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    private void recordChange(AddressBookChange change) {
+        modificationCount++;
+        for (ChangeListener listener : listeners) {
+            listener.onChange(change);
+        }
+    }
+
+    /**
+     * Builds the search and tag indexes if they are not built yet. From then on, changes keep them up to date.
+     *
+     * Searches may run on several threads at once (see {@link seedu.addressbook.logic.Logic}), so the indexes are
+     * built by the first of them while the others wait, and published to all by setting {@link #isIndexed}.
+     */
+    private void ensureIndexed() {
+        if (isIndexed) {
+            return;
+        }
+        synchronized (this) {
+            if (isIndexed) {
+                return;
+            }
+            for (Person person : allPersons) {
+                searchIndex.add(person);
+                tagIndex.add(person);
+            }
+            isIndexed = true;
+        }
+    }
+
+    private void index(Person person) {
+        if (!isIndexed) {
+            return;
+        }
+        searchIndex.add(person);
+        tagIndex.add(person);
+    }
+
+    private void unindex(Person person) {
+        if (!isIndexed) {
+            return;
+        }
+        searchIndex.remove(person);
+        tagIndex.remove(person);
+    }
+
+    /**
+     * Returns the persons whose non-private contact details contain any of the keywords, in list order.
+     * A keyword in square brackets, e.g. [friends], also matches persons with that tag.
+     * Keyword matching is case-insensitive and on whole words only.
+     */
+    public List<ReadOnlyPerson> findPersons(Set<String> keywords) {
+        ensureIndexed();
+        final Set<PersonKey> matches = searchIndex.findAny(keywords);
+        final List<Tag> matchingTags = tagsNamedIn(keywords);
+        if (!matchingTags.isEmpty()) {
+            matches.addAll(tagIndex.personsWithAny(matchingTags));
+        }
+        return allPersons.inListOrder(matches);
+    }
+
+    /**
+     * Returns at most {@code limit} of the persons {@link #findPersons(Set)} finds, most relevant first.
+     *
+     * Persons are scored with Okapi BM25 (see {@link InvertedIndex}): each keyword a person matches adds to its
+     * score, the more the fewer persons match it and the shorter the person's contact details are. A tag
+     * keyword counts as a term that the persons with the tag share.
+     */
+    public List<ReadOnlyPerson> findMostRelevantPersons(Set<String> keywords, int limit) {
+        ensureIndexed();
+        final Map<PersonKey, Double> scores = new HashMap<>();
+        searchIndex.addTermScores(keywords, scores);
+        for (Tag tag : tagsNamedIn(keywords)) {
+            searchIndex.addMatchScores(tagIndex.personsWith(tag), scores);
+        }
+        return allPersons.mostRelevant(scores, limit);
+    }
+
+    /**
+     * Returns the tags in the master list that are named, case-insensitively, by a keyword in square brackets,
+     * or whose names start with the prefix in a keyword such as "[fri*]".
+     */
+    private List<Tag> tagsNamedIn(Set<String> keywords) {
+        final Set<String> tagKeywords = new HashSet<>();
+        final List<String> tagPrefixes = new ArrayList<>();
+        for (String keyword : keywords) {
+            if (keyword.length() > 2 && keyword.startsWith("[") && keyword.endsWith("]")) {
+                final String name = keyword.substring(1, keyword.length() - 1).toUpperCase();
+                if (InvertedIndex.isPrefixKeyword(name)) {
+                    tagPrefixes.add(name.substring(0, name.length() - InvertedIndex.PREFIX_WILDCARD.length()));
+                } else {
+                    tagKeywords.add(keyword.toUpperCase());
+                }
+            }
+        }
+        final List<Tag> matchingTags = new ArrayList<>();
+        if (tagKeywords.isEmpty() && tagPrefixes.isEmpty()) {
+            return matchingTags;
+        }
+        for (Tag tag : allTags) {
+            if (tagKeywords.contains(tag.toString().toUpperCase()) || startsWithAny(tag.tagName, tagPrefixes)) {
+                matchingTags.add(tag);
+            }
+        }
+        return matchingTags;
+    }
+
+    private static boolean startsWithAny(String name, List<String> upperCasePrefixes) {
+        final String upperCaseName = name.toUpperCase();
+        for (String prefix : upperCasePrefixes) {
+            if (upperCaseName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Sorts all persons in the address book.
+     * Returns the number of persons with the given tag.
      */
-    public void sort() {
-        allPersons.sort();
+    public int countPersonsWithTag(Tag tag) {
+        ensureIndexed();
+        return tagIndex.countPersonsWith(tag);
     }
 
     /**
-     * Defensively copied UniquePersonList of all persons in the address book at the time of the call.
+     * Unmodifiable list of all persons in the address book at the time of the call, in display order.
+     * Later changes to the address book do not change the list. Nothing is copied, as the list shares
+     * the current version of the persistent person list.
      */
-    public UniquePersonList getAllPersons() {
-        return new UniquePersonList(allPersons);
+    public List<ReadOnlyPerson> getAllPersons() {
+        return allPersons.snapshotView();
     }
 
     /**
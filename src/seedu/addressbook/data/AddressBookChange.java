@@ -0,0 +1,412 @@
+package seedu.addressbook.data;
+
+import seedu.addressbook.data.exception.IllegalValueException;
+import seedu.addressbook.data.person.Person;
+import seedu.addressbook.data.person.ReadOnlyPerson;
+import seedu.addressbook.data.person.SortOrder;
+import seedu.addressbook.data.person.UniquePersonList.PersonNotFoundException;
+import seedu.addressbook.data.tag.ReadOnlyTag;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.UniqueTagList.TagNotFoundException;
+
+/**
+ * Represents a single successful modification of an {@link AddressBook}.
+ * Applying the change to an address book in the state the original was in before the change
+ * brings it to the state the original was in after the change.
+ *
+ * Changes made by an address book itself carry enough of the state before the change for their
+ * {@link #inverse()} to bring the address book back to that state. Changes that replace much of the
+ * address book, such as clearing it, keep that state as an {@link AddressBook#snapshot() snapshot},
+ * which shares its structure with the address book and is therefore cheap to take.
+ */
+public abstract class AddressBookChange {
+
+    /** Position of a person that is added at the end, or whose position is not known. */
+    public static final int UNKNOWN_POSITION = -1;
+
+    /** Rough number of bytes a change holds on to apart from any persons. */
+    protected static final long CHANGE_BYTES = 64;
+
+    /** Rough number of bytes a person holds on to, with its details and its entries in the person list. */
+    protected static final long PERSON_BYTES = 512;
+
+    /** Rough number of bytes the entries of a person in the person list hold on to, apart from the person. */
+    protected static final long ENTRY_BYTES = 128;
+
+    /**
+     * Signals that the change cannot be applied to the given address book because its state does not match.
+     */
+    public static class ChangeNotApplicableException extends Exception {
+        public ChangeNotApplicableException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Performs this change on the given address book.
+     *
+     * @throws ChangeNotApplicableException if the address book is not in a state this change can be applied to.
+     */
+    public abstract void applyTo(AddressBook addressBook) throws ChangeNotApplicableException;
+
+    /**
+     * Returns the change that undoes this one: applied to an address book in the state after this change,
+     * it brings the address book back to the state before this change.
+     *
+     * @throws UnsupportedOperationException if this change does not carry the state needed to undo it,
+     *         e.g. because it was read back from a journal.
+     */
+    public abstract AddressBookChange inverse();
+
+    /**
+     * Returns a rough estimate of the memory this change holds on to, in bytes, apart from what it shares with
+     * the given address book, which is the one changed, just after the change.
+     */
+    public long estimatedSize(AddressBook changed) {
+        return CHANGE_BYTES;
+    }
+
+    /**
+     * A person was added to the end of the person list, or inserted at a given position in it.
+     */
+    public static class PersonAdded extends AddressBookChange {
+        public final ReadOnlyPerson added;
+
+        /** Position in display order the person was inserted at, or {@link #UNKNOWN_POSITION} if at the end. */
+        public final int position;
+
+        public PersonAdded(ReadOnlyPerson added) {
+            this(added, UNKNOWN_POSITION);
+        }
+
+        public PersonAdded(ReadOnlyPerson added, int position) {
+            this.added = added;
+            this.position = position;
+        }
+
+        @Override
+        public void applyTo(AddressBook addressBook) throws ChangeNotApplicableException {
+            try {
+                if (position == UNKNOWN_POSITION) {
+                    addressBook.addPerson(new Person(added));
+                } else {
+                    addressBook.addPerson(new Person(added), position);
+                }
+            } catch (IllegalValueException ive) {
+                throw new ChangeNotApplicableException("Person already exists: " + added);
+            } catch (IndexOutOfBoundsException ioobe) {
+                throw new ChangeNotApplicableException("No position " + position + " for person: " + added);
+            }
+        }
+
+        @Override
+        public AddressBookChange inverse() {
+            return new PersonRemoved(added);
+        }
+
+        @Override
+        public long estimatedSize(AddressBook changed) {
+            return CHANGE_BYTES + PERSON_BYTES;
+        }
+    }
+
+    /**
+     * A person was removed from the person list.
+     */
+    public static class PersonRemoved extends AddressBookChange {
+        public final ReadOnlyPerson removed;
+
+        /** Position in display order the person had, or {@link #UNKNOWN_POSITION} if not known. */
+        public final int position;
+
+        public PersonRemoved(ReadOnlyPerson removed) {
+            this(removed, UNKNOWN_POSITION);
+        }
+
+        public PersonRemoved(ReadOnlyPerson removed, int position) {
+            this.removed = removed;
+            this.position = position;
+        }
+
+        @Override
+        public void applyTo(AddressBook addressBook) throws ChangeNotApplicableException {
+            try {
+                addressBook.removePerson(removed);
+            } catch (PersonNotFoundException pnfe) {
+                throw new ChangeNotApplicableException("Person not found: " + removed);
+            }
+        }
+
+        /**
+         * Returns the change that adds the person back at its old position, or at the end if that is not known.
+         */
+        @Override
+        public AddressBookChange inverse() {
+            return new PersonAdded(removed, position);
+        }
+
+        @Override
+        public long estimatedSize(AddressBook changed) {
+            return CHANGE_BYTES + PERSON_BYTES;
+        }
+    }
+
+    /**
+     * A person in the person list was replaced by another, keeping its position.
+     */
+    public static class PersonReplaced extends AddressBookChange {
+        public final ReadOnlyPerson oldPerson;
+        public final ReadOnlyPerson newPerson;
+
+        public PersonReplaced(ReadOnlyPerson oldPerson, ReadOnlyPerson newPerson) {
+            this.oldPerson = oldPerson;
+            this.newPerson = newPerson;
+        }
+
+        @Override
+        public void applyTo(AddressBook addressBook) throws ChangeNotApplicableException {
+            try {
+                addressBook.replacePerson(oldPerson, new Person(newPerson));
+            } catch (PersonNotFoundException pnfe) {
+                throw new ChangeNotApplicableException("Person not found: " + oldPerson);
+            } catch (IllegalValueException ive) {
+                throw new ChangeNotApplicableException("Person already exists: " + newPerson);
+            }
+        }
+
+        @Override
+        public AddressBookChange inverse() {
+            return new PersonReplaced(newPerson, oldPerson);
+        }
+
+        @Override
+        public long estimatedSize(AddressBook changed) {
+            return CHANGE_BYTES + 2 * PERSON_BYTES;
+        }
+    }
+
+    /**
+     * A tag was added to the tag list.
+     */
+    public static class TagAdded extends AddressBookChange {
+        public final Tag added;
+
+        public TagAdded(Tag added) {
+            this.added = added;
+        }
+
+        @Override
+        public void applyTo(AddressBook addressBook) throws ChangeNotApplicableException {
+            try {
+                addressBook.addTag(added);
+            } catch (IllegalValueException ive) {
+                throw new ChangeNotApplicableException("Tag already exists: " + added);
+            }
+        }
+
+        @Override
+        public AddressBookChange inverse() {
+            return new TagRemoved(added);
+        }
+    }
+
+    /**
+     * A tag was removed from the tag list.
+     */
+    public static class TagRemoved extends AddressBookChange {
+        public final Tag removed;
+
+        public TagRemoved(Tag removed) {
+            this.removed = removed;
+        }
+
+        @Override
+        public void applyTo(AddressBook addressBook) throws ChangeNotApplicableException {
+            try {
+                addressBook.removeTag(removed);
+            } catch (TagNotFoundException tnfe) {
+                throw new ChangeNotApplicableException("Tag not found: " + removed);
+            }
+        }
+
+        /**
+         * Returns the change that adds the tag back, at the end of the tag list.
+         */
+        @Override
+        public AddressBookChange inverse() {
+            return new TagAdded(removed);
+        }
+    }
+
+    /**
+     * A tag was renamed in the tag list and in every person that had it.
+     */
+    public static class TagRenamed extends AddressBookChange {
+        public final ReadOnlyTag oldTag;
+        public final Tag newTag;
+
+        /**
+         * The address book before the change if the new tag already existed, as renaming back cannot tell apart
+         * the persons that had either tag then; null otherwise.
+         */
+        private final AddressBook previousVersion;
+
+        public TagRenamed(ReadOnlyTag oldTag, Tag newTag) {
+            this(oldTag, newTag, null);
+        }
+
+        /**
+         * @param previousVersion the address book before the change, needed to undo it if the new tag already
+         *        existed; null if the new tag did not exist
+         */
+        public TagRenamed(ReadOnlyTag oldTag, Tag newTag, AddressBook previousVersion) {
+            this.oldTag = oldTag;
+            this.newTag = newTag;
+            this.previousVersion = previousVersion;
+        }
+
+        @Override
+        public void applyTo(AddressBook addressBook) throws ChangeNotApplicableException {
+            try {
+                addressBook.renameTag(oldTag, newTag.tagName);
+            } catch (TagNotFoundException tnfe) {
+                throw new ChangeNotApplicableException("Tag not found: " + oldTag.getAsText());
+            } catch (IllegalValueException ive) {
+                throw new ChangeNotApplicableException("Invalid tag name: " + newTag.tagName);
+            }
+        }
+
+        @Override
+        public AddressBookChange inverse() {
+            if (previousVersion != null) {
+                return new Restored(previousVersion, null);
+            }
+            try {
+                return new TagRenamed(newTag, new Tag(oldTag));
+            } catch (IllegalValueException ive) {
+                throw new AssertionError("A renamed tag has a valid name", ive);
+            }
+        }
+
+        @Override
+        public long estimatedSize(AddressBook changed) {
+            return CHANGE_BYTES + retainedSize(previousVersion, changed);
+        }
+    }
+
+    /**
+     * All persons and tags were removed.
+     */
+    public static class Cleared extends AddressBookChange {
+
+        /** The address book before the change; null if not known. */
+        private final AddressBook previousVersion;
+
+        public Cleared() {
+            this(null);
+        }
+
+        public Cleared(AddressBook previousVersion) {
+            this.previousVersion = previousVersion;
+        }
+
+        @Override
+        public void applyTo(AddressBook addressBook) {
+            addressBook.clear();
+        }
+
+        @Override
+        public AddressBookChange inverse() {
+            return new Restored(requireKnown(previousVersion), null);
+        }
+
+        @Override
+        public long estimatedSize(AddressBook changed) {
+            return CHANGE_BYTES + retainedSize(previousVersion, changed);
+        }
+    }
+
+    /**
+     * The person list was sorted, and possibly set to be kept sorted.
+     */
+    public static class Sorted extends AddressBookChange {
+
+        public final SortOrder order;
+        public final boolean keepSorted;
+
+        /** The address book before the change; null if not known. */
+        private final AddressBook previousVersion;
+
+        public Sorted(SortOrder order, boolean keepSorted) {
+            this(order, keepSorted, null);
+        }
+
+        public Sorted(SortOrder order, boolean keepSorted, AddressBook previousVersion) {
+            this.order = order;
+            this.keepSorted = keepSorted;
+            this.previousVersion = previousVersion;
+        }
+
+        @Override
+        public void applyTo(AddressBook addressBook) {
+            addressBook.sort(order, keepSorted);
+        }
+
+        @Override
+        public AddressBookChange inverse() {
+            return new Restored(requireKnown(previousVersion), null);
+        }
+
+        @Override
+        public long estimatedSize(AddressBook changed) {
+            return CHANGE_BYTES + retainedSize(previousVersion, changed);
+        }
+    }
+
+    /**
+     * The whole address book was set back to an earlier version of it.
+     * Such a change cannot be written to a journal; storage has to save the whole address book instead.
+     */
+    public static class Restored extends AddressBookChange {
+        public final AddressBook version;
+
+        /** The address book before the change; null if not known. */
+        private final AddressBook previousVersion;
+
+        public Restored(AddressBook version, AddressBook previousVersion) {
+            this.version = version;
+            this.previousVersion = previousVersion;
+        }
+
+        @Override
+        public void applyTo(AddressBook addressBook) {
+            addressBook.restore(version);
+        }
+
+        @Override
+        public AddressBookChange inverse() {
+            return new Restored(requireKnown(previousVersion), version);
+        }
+
+        @Override
+        public long estimatedSize(AddressBook changed) {
+            return CHANGE_BYTES + retainedSize(previousVersion, changed);
+        }
+    }
+
+    /**
+     * Returns a rough estimate of the memory an earlier version of an address book holds on to apart from what
+     * it shares with the changed address book: after a sort, say, it only holds entries of its own, while after
+     * clearing, it is the only one holding its persons.
+     */
+    private static long retainedSize(AddressBook version, AddressBook changed) {
+        return version == null ? 0 : version.estimatedSizeNotSharedWith(changed, PERSON_BYTES, ENTRY_BYTES);
+    }
+
+    private static AddressBook requireKnown(AddressBook previousVersion) {
+        if (previousVersion == null) {
+            throw new UnsupportedOperationException("The state before the change is not known");
+        }
+        return previousVersion;
+    }
+}
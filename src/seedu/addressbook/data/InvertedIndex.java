@@ -0,0 +1,243 @@
+package seedu.addressbook.data;
+
+import seedu.addressbook.common.PersistentHashMap;
+import seedu.addressbook.common.PersistentHashSet;
+import seedu.addressbook.common.PersistentTrie;
+import seedu.addressbook.data.person.PersonKey;
+import seedu.addressbook.data.person.ReadOnlyPerson;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Maps each search term to the persons whose contact details contain it, by their {@link PersonKey}s.
+ * Terms are the whitespace separated words of a person's non-private details, upper-cased,
+ * so that private details can never be found through a search.
+ * Tags are not terms; they are looked up through the {@link TagIndex} instead.
+ *
+ * A keyword ending in {@value #PREFIX_WILDCARD}, e.g. "ali*", matches every term starting with the rest of it.
+ * Such terms are found in a prefix tree of all terms, so a search takes time proportional to the matching terms
+ * instead of scanning every term.
+ *
+ * The index also knows how many terms each person has, to score how relevant a person is to a search
+ * with Okapi BM25: a match on a rare term counts for more than one on a common term, and a match counts
+ * for more in short contact details than in long ones.
+ *
+ * The postings are held in persistent maps, so a copy of the index takes constant time and later
+ * changes to either do not affect the other.
+ */
+public class InvertedIndex {
+
+    /** BM25 parameter bounding how much repeated terms count; as terms are not repeated, only scales scores. */
+    private static final double TERM_FREQUENCY_SATURATION = 1.2;
+
+    /** BM25 parameter setting how much matches in longer contact details are discounted, from 0 to 1. */
+    private static final double LENGTH_NORMALIZATION = 0.75;
+
+    /** Ends a keyword that matches every term starting with the rest of it. */
+    public static final String PREFIX_WILDCARD = "*";
+
+    private PersistentHashMap<String, PersistentHashSet<PersonKey>> postings = PersistentHashMap.empty();
+
+    /** Every term some person is filed under; the keys of {@link #postings}, by prefix. */
+    private PersistentTrie terms = PersistentTrie.empty();
+
+    /** Maps every indexed person to the number of terms it is filed under. */
+    private PersistentHashMap<PersonKey, Integer> termCounts = PersistentHashMap.empty();
+
+    /** Sum of {@link #termCounts}. */
+    private long totalTermCount;
+
+    /**
+     * Creates an empty index.
+     */
+    public InvertedIndex() {
+    }
+
+    /**
+     * Creates a copy of the given index, sharing its structure.
+     */
+    public InvertedIndex(InvertedIndex source) {
+        setFrom(source);
+    }
+
+    /**
+     * Files the person under every term in its non-private details.
+     */
+    public void add(ReadOnlyPerson person) {
+        final PersonKey key = new PersonKey(person);
+        final Set<String> personTerms = termsOf(person);
+        for (String term : personTerms) {
+            PersistentHashSet<PersonKey> posting = postings.get(term);
+            if (posting == null) {
+                posting = PersistentHashSet.empty();
+                terms = terms.plus(term);
+            }
+            postings = postings.plus(term, posting.plus(key));
+        }
+        final Integer previousCount = termCounts.get(key);
+        totalTermCount += personTerms.size() - (previousCount == null ? 0 : previousCount);
+        termCounts = termCounts.plus(key, personTerms.size());
+    }
+
+    /**
+     * Removes the person from every term it was filed under.
+     * The person must be unchanged since it was added.
+     */
+    public void remove(ReadOnlyPerson person) {
+        final PersonKey key = new PersonKey(person);
+        for (String term : termsOf(person)) {
+            final PersistentHashSet<PersonKey> posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            final PersistentHashSet<PersonKey> remaining = posting.minus(key);
+            if (remaining.isEmpty()) {
+                postings = postings.minus(term);
+                terms = terms.minus(term);
+            } else {
+                postings = postings.plus(term, remaining);
+            }
+        }
+        final Integer count = termCounts.get(key);
+        if (count != null) {
+            totalTermCount -= count;
+            termCounts = termCounts.minus(key);
+        }
+    }
+
+    /**
+     * Replaces the contents of this index with those of the given index, sharing its structure.
+     */
+    public void setFrom(InvertedIndex source) {
+        postings = source.postings;
+        terms = source.terms;
+        termCounts = source.termCounts;
+        totalTermCount = source.totalTermCount;
+    }
+
+    /**
+     * Removes all persons from the index.
+     */
+    public void clear() {
+        postings = PersistentHashMap.empty();
+        terms = PersistentTrie.empty();
+        termCounts = PersistentHashMap.empty();
+        totalTermCount = 0;
+    }
+
+    /**
+     * Returns the keys of the persons filed under any of the given keywords, in no particular order.
+     * Keyword matching is case-insensitive and on whole words only, except that a prefix keyword
+     * (see {@link #isPrefixKeyword(String)}) matches every word starting with its prefix.
+     */
+    public Set<PersonKey> findAny(Collection<String> keywords) {
+        final Set<PersonKey> matches = new HashSet<>();
+        for (String keyword : keywords) {
+            forEachPostingMatching(keyword, posting -> posting.forEach(matches::add));
+        }
+        return matches;
+    }
+
+    /**
+     * Returns true if the keyword matches every term starting with it, less the {@link #PREFIX_WILDCARD}.
+     */
+    public static boolean isPrefixKeyword(String keyword) {
+        return keyword.length() > PREFIX_WILDCARD.length() && keyword.endsWith(PREFIX_WILDCARD);
+    }
+
+    /**
+     * Performs the given action for the posting of every term the keyword matches.
+     */
+    private void forEachPostingMatching(String keyword, Consumer<PersistentHashSet<PersonKey>> action) {
+        final String term = keyword.toUpperCase();
+        if (isPrefixKeyword(term)) {
+            terms.forEachWithPrefix(term.substring(0, term.length() - PREFIX_WILDCARD.length()),
+                    matchingTerm -> action.accept(postings.get(matchingTerm)));
+            return;
+        }
+        final PersistentHashSet<PersonKey> posting = postings.get(term);
+        if (posting != null) {
+            action.accept(posting);
+        }
+    }
+
+    /**
+     * Adds, to the score of every person filed under any of the given keywords, the relevance of each keyword
+     * it is filed under. Keyword matching is as by {@link #findAny(Collection)}; a prefix keyword counts as
+     * one term, that every person filed under any word it matches is filed under.
+     */
+    public void addTermScores(Collection<String> keywords, Map<PersonKey, Double> scores) {
+        final Set<String> distinctKeywords = new HashSet<>();
+        for (String keyword : keywords) {
+            distinctKeywords.add(keyword.toUpperCase());
+        }
+        for (String keyword : distinctKeywords) {
+            if (isPrefixKeyword(keyword)) {
+                addMatchScores(findAny(Collections.singleton(keyword)), scores);
+                continue;
+            }
+            final PersistentHashSet<PersonKey> posting = postings.get(keyword);
+            if (posting != null) {
+                final double idf = inverseDocumentFrequency(posting.size());
+                posting.forEach(key -> scores.merge(key, relevance(idf, key), Double::sum));
+            }
+        }
+    }
+
+    /**
+     * Adds, to the score of each of the given persons, the relevance of something they alone share,
+     * such as a tag, as if it were a term they are filed under.
+     */
+    public void addMatchScores(Collection<PersonKey> matches, Map<PersonKey, Double> scores) {
+        final double idf = inverseDocumentFrequency(matches.size());
+        for (PersonKey key : matches) {
+            scores.merge(key, relevance(idf, key), Double::sum);
+        }
+    }
+
+    /**
+     * Returns how much a term that the given number of persons are filed under says about a person:
+     * the fewer, the more.
+     */
+    private double inverseDocumentFrequency(int matchCount) {
+        return Math.log(1 + (termCounts.size() - matchCount + 0.5) / (matchCount + 0.5));
+    }
+
+    /**
+     * Returns the BM25 weight of a match of a term of the given inverse document frequency on the given person.
+     */
+    private double relevance(double idf, PersonKey key) {
+        final Integer termCount = termCounts.get(key);
+        final double averageTermCount = (double) totalTermCount / Math.max(1, termCounts.size());
+        final double relativeLength = termCount == null ? 1 : termCount / averageTermCount;
+        return idf * (TERM_FREQUENCY_SATURATION + 1)
+                / (1 + TERM_FREQUENCY_SATURATION * (1 - LENGTH_NORMALIZATION + LENGTH_NORMALIZATION * relativeLength));
+    }
+
+    /**
+     * Consolidates all the non-private data of a person into a set of upper-cased terms.
+     */
+    private static Set<String> termsOf(ReadOnlyPerson person) {
+        final Set<String> terms = new HashSet<>();
+        addTerms(terms, person.getName().fullName);
+        if (!person.getPhone().isPrivate()) {
+            addTerms(terms, person.getPhone().value);
+        }
+        if (!person.getEmail().isPrivate()) {
+            addTerms(terms, person.getEmail().value);
+        }
+        if (!person.getAddress().isPrivate()) {
+            addTerms(terms, person.getAddress().value);
+        }
+        return terms;
+    }
+
+    private static void addTerms(Set<String> terms, String text) {
+        for (String word : text.split("\\s+")) {
+            if (!word.isEmpty()) {
+                terms.add(word.toUpperCase());
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package seedu.addressbook.data;
+
+import seedu.addressbook.common.PersistentHashMap;
+import seedu.addressbook.common.PersistentHashSet;
+import seedu.addressbook.data.person.PersonKey;
+import seedu.addressbook.data.person.ReadOnlyPerson;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.TagIdSet;
+import seedu.addressbook.data.tag.TagRegistry;
+
+import java.util.*;
+
+/**
+ * Maps each tag to the set of persons that have it, by their {@link PersonKey}s.
+ *
+ * Finding, counting or renaming the persons with a tag therefore only touches the set of that tag; a rename
+ * moves the whole set to the new tag. The sets are held in persistent maps, so a copy of the index takes
+ * constant time and later changes to either do not affect the other.
+ */
+public class TagIndex {
+
+    /** Keys of the persons with each tag, by the tag's registry id; tags no person has are left out. */
+    private PersistentHashMap<Integer, PersistentHashSet<PersonKey>> keysByTagId = PersistentHashMap.empty();
+
+    /**
+     * Creates an empty index.
+     */
+    public TagIndex() {
+    }
+
+    /**
+     * Creates a copy of the given index, sharing its structure.
+     */
+    public TagIndex(TagIndex source) {
+        keysByTagId = source.keysByTagId;
+    }
+
+    /**
+     * Files the person under each of its tags.
+     */
+    public void add(ReadOnlyPerson person) {
+        final PersonKey key = new PersonKey(person);
+        final TagIdSet tags = person.getTagIds();
+        for (int i = 0; i < tags.size(); i++) {
+            keysByTagId = keysByTagId.plus(tags.idAt(i), keysWithTagId(tags.idAt(i)).plus(key));
+        }
+    }
+
+    /**
+     * Removes the person from each of its tags. The person must be unchanged since it was added.
+     */
+    public void remove(ReadOnlyPerson person) {
+        final PersonKey key = new PersonKey(person);
+        final TagIdSet tags = person.getTagIds();
+        for (int i = 0; i < tags.size(); i++) {
+            final PersistentHashSet<PersonKey> remaining = keysWithTagId(tags.idAt(i)).minus(key);
+            keysByTagId = remaining.isEmpty()
+                    ? keysByTagId.minus(tags.idAt(i))
+                    : keysByTagId.plus(tags.idAt(i), remaining);
+        }
+    }
+
+    /**
+     * Replaces the contents of this index with those of the given index, sharing its structure.
+     */
+    public void setFrom(TagIndex source) {
+        keysByTagId = source.keysByTagId;
+    }
+
+    /**
+     * Removes all persons from the index.
+     */
+    public void clear() {
+        keysByTagId = PersistentHashMap.empty();
+    }
+
+    /**
+     * Moves every person filed under the old tag to the new tag.
+     * The caller is responsible for renaming the tag in the persons themselves.
+     */
+    public void rename(Tag oldTag, Tag newTag) {
+        final int oldId = TagRegistry.findId(oldTag);
+        final PersistentHashSet<PersonKey> moved = oldId < 0 ? null : keysByTagId.get(oldId);
+        if (moved == null) {
+            return;
+        }
+        keysByTagId = keysByTagId.minus(oldId);
+        final int newId = TagRegistry.idOf(newTag);
+        keysByTagId = keysByTagId.plus(newId, keysWithTagId(newId).union(moved));
+    }
+
+    /**
+     * Returns the keys of the persons with the given tag, in no particular order.
+     */
+    public List<PersonKey> personsWith(Tag tag) {
+        return new ArrayList<>(personsWithAny(Collections.singletonList(tag)));
+    }
+
+    /**
+     * Returns the keys of the persons with at least one of the given tags, in no particular order.
+     */
+    public Set<PersonKey> personsWithAny(Collection<Tag> tags) {
+        final Set<PersonKey> union = new HashSet<>();
+        for (Tag tag : tags) {
+            final int id = TagRegistry.findId(tag);
+            if (id >= 0) {
+                keysWithTagId(id).forEach(union::add);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Returns the number of persons with the given tag.
+     */
+    public int countPersonsWith(Tag tag) {
+        final int id = TagRegistry.findId(tag);
+        return id < 0 ? 0 : keysWithTagId(id).size();
+    }
+
+    private PersistentHashSet<PersonKey> keysWithTagId(int tagId) {
+        final PersistentHashSet<PersonKey> keys = keysByTagId.get(tagId);
+        return keys == null ? PersistentHashSet.empty() : keys;
+    }
+}
@@ -0,0 +1,241 @@
+package seedu.addressbook.data;
+
+import seedu.addressbook.data.AddressBookChange.ChangeNotApplicableException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Remembers the changes made to an address book, so that they can be undone and redone.
+ *
+ * The changes are grouped by the command that made them. Only the changes are kept, not copies of the
+ * address book, so undoing or redoing a command takes time proportional to what the command changed.
+ * The history is bounded by an estimate of the memory its changes hold on to, rather than by a number
+ * of commands: the oldest commands are forgotten first once the budget is exceeded. The most recent command
+ * is kept even if it alone exceeds the budget, so that it can always be undone.
+ *
+ * Several clients, e.g. sessions of a logic, may share the history. Each step remembers the client whose command
+ * made it, and only that client can undo or redo it: as the steps can only be undone in order, a client cannot
+ * undo its own step while another client's later step is not undone, and is told so rather than undoing the
+ * other client's change. Steps of changes made by no client can be undone by any.
+ */
+public class UndoHistory implements AddressBook.ChangeListener {
+
+    /** Default estimate of the memory, in bytes, the history may hold on to. */
+    public static final long DEFAULT_MEMORY_BUDGET = 32L * 1024 * 1024;
+
+    /**
+     * The changes made by one command, in the order they were made.
+     */
+    private static class Step {
+        final List<AddressBookChange> changes = new ArrayList<>();
+        long estimatedSize;
+        /** The client whose command made the step; null if none did. */
+        Object client;
+
+        void add(AddressBookChange change, long changeSize) {
+            changes.add(change);
+            estimatedSize += changeSize;
+        }
+    }
+
+    private final AddressBook addressBook;
+    private final long memoryBudget;
+
+    /** Steps that can be undone, the most recent first. */
+    private final Deque<Step> undoSteps = new ArrayDeque<>();
+
+    /** Steps that can be redone, the most recently undone first. */
+    private final Deque<Step> redoSteps = new ArrayDeque<>();
+
+    /** Estimated memory held on to by all steps in both stacks. */
+    private long estimatedSize;
+
+    /** Number of steps forgotten so far to keep within the memory budget. */
+    private long forgottenStepCount;
+
+    /** Changes made since the last call to {@link #endStep()}. */
+    private Step current = new Step();
+
+    /** Step receiving the changes made while undoing or redoing, which are the inverse steps; null otherwise. */
+    private Step replaying;
+
+    /**
+     * Creates an empty history of the given address book, and starts recording its changes.
+     */
+    public UndoHistory(AddressBook addressBook, long memoryBudget) {
+        this.addressBook = addressBook;
+        this.memoryBudget = memoryBudget;
+        addressBook.addChangeListener(this);
+    }
+
+    /**
+     * Stops recording the changes of the address book.
+     */
+    public void close() {
+        addressBook.removeChangeListener(this);
+    }
+
+    @Override
+    public void onChange(AddressBookChange change) {
+        final Step step = replaying != null ? replaying : current;
+        step.add(change, change.estimatedSize(addressBook));
+    }
+
+    /**
+     * Ends the step of the changes made since the previous call by no client, e.g. changes made outside of
+     * commands, like {@link #endStep(Object)}.
+     */
+    public void endStep() {
+        endStep(null);
+    }
+
+    /**
+     * Ends the step of the changes made since the previous call, e.g. by one command of the given client, so that
+     * they are undone together. A step that made changes can no longer be redone after; steps without changes
+     * are not kept.
+     *
+     * @param client the client the changes were made for, which alone can undo them; null if none
+     */
+    public void endStep(Object client) {
+        if (current.changes.isEmpty()) {
+            return;
+        }
+        for (Step step : redoSteps) {
+            estimatedSize -= step.estimatedSize;
+        }
+        redoSteps.clear();
+        current.client = client;
+        push(undoSteps, current);
+        current = new Step();
+    }
+
+    /**
+     * Returns true if there is a step to undo, whichever client made it.
+     */
+    public boolean canUndo() {
+        return !undoSteps.isEmpty();
+    }
+
+    /**
+     * Returns true if the given client can undo the most recent step, as it made that step or no client did.
+     */
+    public boolean canUndo(Object client) {
+        return isOwnedBy(undoSteps.peek(), client);
+    }
+
+    /**
+     * Returns true if there is a step to redo, whichever client made it.
+     */
+    public boolean canRedo() {
+        return !redoSteps.isEmpty();
+    }
+
+    /**
+     * Returns true if the given client can redo the most recently undone step, as it made that step or no
+     * client did.
+     */
+    public boolean canRedo(Object client) {
+        return isOwnedBy(redoSteps.peek(), client);
+    }
+
+    private static boolean isOwnedBy(Step step, Object client) {
+        return step != null && (step.client == null || step.client == client);
+    }
+
+    /**
+     * Returns the number of steps forgotten so far to keep the history within its memory budget,
+     * so that callers can tell whether a step they ended made older steps be forgotten.
+     */
+    public long getForgottenStepCount() {
+        return forgottenStepCount;
+    }
+
+    /**
+     * Undoes the most recent step that is not undone yet, for the given client.
+     *
+     * @throws IllegalStateException if there is nothing the client can undo.
+     * @throws ChangeNotApplicableException if the address book was changed in a way the history did not record.
+     *         The history is then cleared.
+     */
+    public void undo(Object client) throws ChangeNotApplicableException {
+        endStep(client);
+        if (!canUndo(client)) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        replay(undoSteps, redoSteps);
+    }
+
+    /**
+     * Redoes the most recently undone step, for the given client.
+     *
+     * @throws IllegalStateException if there is nothing the client can redo.
+     * @throws ChangeNotApplicableException if the address book was changed in a way the history did not record.
+     *         The history is then cleared.
+     */
+    public void redo(Object client) throws ChangeNotApplicableException {
+        endStep(client);
+        if (!canRedo(client)) {
+            throw new IllegalStateException("Nothing to redo");
+        }
+        replay(redoSteps, undoSteps);
+    }
+
+    /**
+     * Applies the inverses of the changes of the top step of {@code from}, latest first, and pushes the changes
+     * this makes, which form the inverse step, onto {@code to}.
+     */
+    private void replay(Deque<Step> from, Deque<Step> to) throws ChangeNotApplicableException {
+        final Step step = from.pop();
+        estimatedSize -= step.estimatedSize;
+        final Step inverse = new Step();
+        inverse.client = step.client; // the client that made a step also undoes and redoes it
+        replaying = inverse;
+        try {
+            for (int i = step.changes.size() - 1; i >= 0; i--) {
+                step.changes.get(i).inverse().applyTo(addressBook);
+            }
+        } catch (ChangeNotApplicableException | RuntimeException e) {
+            clear(); // the address book is left part way through the step, which no other step starts from
+            throw e;
+        } finally {
+            replaying = null;
+        }
+        push(to, inverse);
+    }
+
+    /**
+     * Forgets all steps.
+     */
+    public void clear() {
+        undoSteps.clear();
+        redoSteps.clear();
+        estimatedSize = 0;
+    }
+
+    /**
+     * Pushes the step onto the stack, then forgets the oldest other steps until the history fits its memory
+     * budget or only the pushed step is left.
+     */
+    private void push(Deque<Step> stack, Step step) {
+        stack.push(step);
+        estimatedSize += step.estimatedSize;
+        while (estimatedSize > memoryBudget && (forgetOldest(undoSteps, step) || forgetOldest(redoSteps, step))) {
+            forgottenStepCount++;
+        }
+    }
+
+    /**
+     * Forgets the oldest step of the stack unless it is the given step to keep.
+     * Returns true if a step was forgotten.
+     */
+    private boolean forgetOldest(Deque<Step> stack, Step kept) {
+        if (stack.isEmpty() || stack.peekLast() == kept) {
+            return false;
+        }
+        estimatedSize -= stack.removeLast().estimatedSize;
+        return true;
+    }
+}
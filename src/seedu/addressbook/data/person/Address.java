@@ -2,6 +2,7 @@ package seedu.addressbook.data.person;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import seedu.addressbook.data.exception.IllegalValueException;
 
@@ -14,6 +15,7 @@ public class Address {
     public static final String EXAMPLE = "123, some street";
     public static final String MESSAGE_ADDRESS_CONSTRAINTS = "Person addresses can be in any format";
     public static final String ADDRESS_VALIDATION_REGEX = ".+";
+    private static final Pattern ADDRESS_VALIDATION_PATTERN = Pattern.compile(ADDRESS_VALIDATION_REGEX);
 
     public final String value;
     private boolean isPrivate;
@@ -35,7 +37,7 @@ public class Address {
      * Returns true if a given string is a valid person email.
      */
     public static boolean isValidAddress(String test) {
-        return test.matches(ADDRESS_VALIDATION_REGEX);
+        return ADDRESS_VALIDATION_PATTERN.matcher(test).matches();
     }
 
     @Override
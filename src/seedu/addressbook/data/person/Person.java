@@ -1,5 +1,6 @@
 package seedu.addressbook.data.person;
 
+import seedu.addressbook.data.tag.TagIdSet;
 import seedu.addressbook.data.tag.UniqueTagList;
 
 import java.util.Objects;
@@ -15,7 +16,7 @@ public class Person implements ReadOnlyPerson {
     private Email email;
     private Address address;
 
-    private final UniqueTagList tags;
+    private TagIdSet tags;
     /**
      * Assumption: Every field must be present and not null.
      */
@@ -24,14 +25,18 @@ public class Person implements ReadOnlyPerson {
         this.phone = phone;
         this.email = email;
         this.address = address;
-        this.tags = new UniqueTagList(tags); // protect internal tags from changes in the arg list
+        this.tags = TagIdSet.of(tags); // protect internal tags from changes in the arg list
     }
 
     /**
      * Copy constructor.
      */
     public Person(ReadOnlyPerson source) {
-        this(source.getName(), source.getPhone(), source.getEmail(), source.getAddress(), source.getTags());
+        this.name = source.getName();
+        this.phone = source.getPhone();
+        this.email = source.getEmail();
+        this.address = source.getAddress();
+        this.tags = source.getTagIds(); // immutable, so it can be shared
     }
 
     @Override
@@ -56,7 +61,12 @@ public class Person implements ReadOnlyPerson {
 
     @Override
     public UniqueTagList getTags() {
-        return new UniqueTagList(tags);
+        return tags.toTagList();
+    }
+
+    @Override
+    public TagIdSet getTagIds() {
+        return tags;
     }
 
     public void setName(Name newName) {
@@ -79,7 +89,14 @@ public class Person implements ReadOnlyPerson {
      * Replaces this person's tags with the tags in the argument tag list.
      */
     public void setTags(UniqueTagList replacement) {
-        tags.setTags(replacement);
+        tags = TagIdSet.of(replacement);
+    }
+
+    /**
+     * Replaces this person's tags with the tags in the argument tag set.
+     */
+    public void setTags(TagIdSet replacement) {
+        tags = replacement;
     }
 
     @Override
@@ -0,0 +1,46 @@
+package seedu.addressbook.data.person;
+
+import java.util.Objects;
+
+/**
+ * Identity of a person as defined by {@link ReadOnlyPerson#isSameStateAs(ReadOnlyPerson)}.
+ * The field values are captured when the key is created, so a key keeps naming the same person even if a
+ * person object it was made from is later changed through its setters. Tags are not part of the identity,
+ * so renaming a tag does not change the keys of the persons with it.
+ */
+public final class PersonKey {
+    private final Name name;
+    private final Phone phone;
+    private final Email email;
+    private final Address address;
+    private final int hash;
+
+    public PersonKey(ReadOnlyPerson person) {
+        this.name = person.getName();
+        this.phone = person.getPhone();
+        this.email = person.getEmail();
+        this.address = person.getAddress();
+        this.hash = Objects.hash(name, phone, email, address);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof PersonKey)) {
+            return false;
+        }
+        final PersonKey key = (PersonKey) other;
+        return hash == key.hash
+                && name.equals(key.name)
+                && phone.equals(key.phone)
+                && email.equals(key.email)
+                && address.equals(key.address);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
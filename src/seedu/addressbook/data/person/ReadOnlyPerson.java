@@ -1,6 +1,7 @@
 package seedu.addressbook.data.person;
 
 import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.TagIdSet;
 import seedu.addressbook.data.tag.UniqueTagList;
 
 /**
@@ -20,6 +21,12 @@ public interface ReadOnlyPerson {
      */
     UniqueTagList getTags();
 
+    /**
+     * The person's tags as an immutable set of tag ids; unlike {@link #getTags()}, this does not copy.
+     * Iterating over it gives the tags themselves.
+     */
+    TagIdSet getTagIds();
+
     /**
      * Returns true if the values inside this object is same as those of the other (Note: interfaces cannot override .equals)
      */
@@ -55,7 +62,7 @@ public interface ReadOnlyPerson {
         }
         builder.append(getAddress())
                 .append(" Tags: ");
-        for (Tag tag : getTags()) {
+        for (Tag tag : getTagIds()) {
             builder.append(tag);
         }
         return builder.toString();
@@ -77,7 +84,7 @@ public interface ReadOnlyPerson {
             builder.append(" Address: ").append(getAddress());
         }
         builder.append(" Tags: ");
-        for (Tag tag : getTags()) {
+        for (Tag tag : getTagIds()) {
             builder.append(tag);
         }
         return builder.toString();
@@ -0,0 +1,208 @@
+package seedu.addressbook.data.person;
+
+import seedu.addressbook.data.exception.IllegalValueException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents an order to sort persons in: one or more fields, each ascending or descending.
+ * Guarantees: immutable; is valid as declared in {@link #MESSAGE_SORT_ORDER_CONSTRAINTS}
+ *
+ * Persons are compared by their sort keys (see {@link #keyOf(ReadOnlyPerson)}), which are computed once per person,
+ * so that sorting compares plain strings instead of folding the case of the fields on every comparison.
+ */
+public class SortOrder {
+
+    public static final String EXAMPLE = "address desc name";
+    public static final String MESSAGE_SORT_ORDER_CONSTRAINTS = "Persons can be sorted by name, phone, email, "
+            + "address and tags (the number of tags), each at most once and optionally followed by asc or desc";
+
+    public static final String ASCENDING = "asc";
+    public static final String DESCENDING = "desc";
+
+    /** Case-insensitive name order. */
+    public static final SortOrder BY_NAME = new SortOrder(Collections.singletonList(new SortKey(Field.NAME, false)));
+
+    /**
+     * A field persons can be sorted by.
+     */
+    private enum Field {
+        NAME("name"),
+        PHONE("phone"),
+        EMAIL("email"),
+        ADDRESS("address"),
+        TAGS("tags");
+
+        final String word;
+
+        Field(String word) {
+            this.word = word;
+        }
+
+        static Field of(String word) {
+            for (Field field : values()) {
+                if (field.word.equals(word)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A field and the direction to sort it in.
+     */
+    private static class SortKey {
+        final Field field;
+        final boolean isDescending;
+
+        SortKey(Field field, boolean isDescending) {
+            this.field = field;
+            this.isDescending = isDescending;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SortKey
+                    && field == ((SortKey) other).field
+                    && isDescending == ((SortKey) other).isDescending;
+        }
+
+        @Override
+        public int hashCode() {
+            return field.hashCode() * 2 + (isDescending ? 1 : 0);
+        }
+    }
+
+    /** Ends a text field in a sort key, so that a value sorts before the longer values it is a prefix of. */
+    private static final char END_OF_TEXT = '\u0000';
+
+    /** Stands for a private value in a sort key; it sorts after every other value, in either direction. */
+    private static final char PRIVATE_VALUE = Character.MAX_VALUE;
+
+    private final List<SortKey> sortKeys;
+
+    /**
+     * Validates the given order, e.g. "address desc name": field names, each optionally followed by
+     * {@value #ASCENDING} or {@value #DESCENDING}, separated by whitespace.
+     *
+     * @throws IllegalValueException if the given order string is invalid.
+     */
+    public SortOrder(String order) throws IllegalValueException {
+        final String[] words = order.trim().split("\\s+");
+        final List<SortKey> keys = new ArrayList<>();
+        final Set<Field> seen = EnumSet.noneOf(Field.class);
+        for (int i = 0; i < words.length; i++) {
+            final Field field = Field.of(words[i]);
+            if (field == null || !seen.add(field)) {
+                throw new IllegalValueException(MESSAGE_SORT_ORDER_CONSTRAINTS);
+            }
+            boolean isDescending = false;
+            if (i + 1 < words.length && (words[i + 1].equals(ASCENDING) || words[i + 1].equals(DESCENDING))) {
+                isDescending = words[++i].equals(DESCENDING);
+            }
+            keys.add(new SortKey(field, isDescending));
+        }
+        this.sortKeys = Collections.unmodifiableList(keys);
+    }
+
+    private SortOrder(List<SortKey> sortKeys) {
+        this.sortKeys = sortKeys;
+    }
+
+    /**
+     * Returns the sort key of the given person: comparing the keys of two persons with
+     * {@link String#compareTo(String)} compares the persons in this order.
+     *
+     * Text fields are compared ignoring case, as by {@link String#compareToIgnoreCase(String)}.
+     * Private phones, emails and addresses are not revealed by the order: they sort after all others.
+     */
+    public String keyOf(ReadOnlyPerson person) {
+        final StringBuilder key = new StringBuilder();
+        for (SortKey sortKey : sortKeys) {
+            switch (sortKey.field) {
+            case NAME:
+                appendText(key, person.getName().fullName, sortKey.isDescending);
+                break;
+            case PHONE:
+                appendPrivatable(key, person.getPhone().value, person.getPhone().isPrivate(), sortKey.isDescending);
+                break;
+            case EMAIL:
+                appendPrivatable(key, person.getEmail().value, person.getEmail().isPrivate(), sortKey.isDescending);
+                break;
+            case ADDRESS:
+                appendPrivatable(key, person.getAddress().value, person.getAddress().isPrivate(),
+                        sortKey.isDescending);
+                break;
+            case TAGS:
+                appendCount(key, person.getTagIds().size(), sortKey.isDescending);
+                break;
+            }
+        }
+        return key.toString();
+    }
+
+    private static void appendPrivatable(StringBuilder key, String value, boolean isPrivate, boolean isDescending) {
+        if (isPrivate) {
+            key.append(PRIVATE_VALUE);
+        } else {
+            appendText(key, value, isDescending);
+        }
+    }
+
+    /**
+     * Appends the value folded the same way as by {@link String#compareToIgnoreCase(String)}; if descending,
+     * every character is inverted so that the order of the keys is reversed.
+     */
+    private static void appendText(StringBuilder key, String value, boolean isDescending) {
+        for (int i = 0; i < value.length(); i++) {
+            final char folded = Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+            key.append(isDescending ? invert(folded) : folded);
+        }
+        key.append(isDescending ? invert(END_OF_TEXT) : END_OF_TEXT);
+    }
+
+    /**
+     * Appends the count as two characters, so that counts compare by value.
+     */
+    private static void appendCount(StringBuilder key, int count, boolean isDescending) {
+        final char high = (char) (count >>> 16);
+        final char low = (char) count;
+        key.append(isDescending ? invert(high) : high).append(isDescending ? invert(low) : low);
+    }
+
+    private static char invert(char c) {
+        return (char) (Character.MAX_VALUE - c);
+    }
+
+    /**
+     * Returns the order in the form accepted by {@link #SortOrder(String)}, e.g. "address desc name".
+     */
+    @Override
+    public String toString() {
+        final List<String> words = new ArrayList<>();
+        for (SortKey sortKey : sortKeys) {
+            words.add(sortKey.field.word);
+            if (sortKey.isDescending) {
+                words.add(DESCENDING);
+            }
+        }
+        return String.join(" ", words);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this // short circuit if same object
+                || (other instanceof SortOrder // instanceof handles nulls
+                && this.sortKeys.equals(((SortOrder) other).sortKeys)); // state check
+    }
+
+    @Override
+    public int hashCode() {
+        return sortKeys.hashCode();
+    }
+}
@@ -1,23 +1,27 @@
 package seedu.addressbook.data.person;
 
-import seedu.addressbook.common.Utils;
+import seedu.addressbook.common.PersistentHashMap;
+import seedu.addressbook.common.PersistentRankedMap;
 import seedu.addressbook.common.Prefixes;
 import seedu.addressbook.data.exception.DuplicateDataException;
 import seedu.addressbook.data.exception.IllegalValueException;
 import seedu.addressbook.data.tag.Tag;
 import seedu.addressbook.data.tag.UniqueTagList;
 import seedu.addressbook.data.tag.UniqueTagList.TagNotFoundException;
-import seedu.addressbook.data.tag.ReadOnlyTag;
-
-import static seedu.addressbook.ui.Gui.DISPLAYED_INDEX_OFFSET;
 
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * A list of persons. Does not allow null elements or duplicates.
+ * Persons are indexed by their identity fields, so membership checks, additions and removals
+ * take (effectively) logarithmic time while the list keeps its display order.
+ * Copies of the list share its structure, so copying takes constant time.
+ *
+ * The list can be kept sorted, in which case added and edited persons are placed at their position in the
+ * {@link SortOrder}, found in logarithmic time, rather than at the end or where they were.
  *
- * @see Person#equals(Object)
- * @see Utils#elementsAreUnique(Collection)
+ * @see ReadOnlyPerson#isSameStateAs(ReadOnlyPerson)
  */
 public class UniquePersonList implements Iterable<Person> {
     /**
@@ -35,22 +39,75 @@ public class UniquePersonList implements Iterable<Person> {
      */
     public static class PersonNotFoundException extends Exception {}
 
-    private final List<Person> internalList = new ArrayList<>();
+    /**
+     * Gap between the ranks of neighbouring persons when ranks are handed out afresh, so that persons can be
+     * inserted between them without renumbering the rest.
+     */
+    private static final long RANK_STRIDE = 1L << 32;
+
+    /**
+     * A person in the list, with the key it is filed under, the key it is sorted by if the list is kept sorted
+     * (null otherwise) and its position. Ranks increase along the list, so comparing them compares display
+     * positions. Entries are never changed, so that they can be shared between versions of the list;
+     * changing a person's entry replaces it.
+     */
+    private static final class Entry {
+        private final Person person;
+        private final PersonKey key;
+        private final String sortKey;
+        private final long rank;
+
+        Entry(Person person, PersonKey key, String sortKey, long rank) {
+            this.person = person;
+            this.key = key;
+            this.sortKey = sortKey;
+            this.rank = rank;
+        }
+
+        Entry(Person person, PersonKey key, long rank) {
+            this(person, key, null, rank);
+        }
+
+        Entry withRank(long newRank) {
+            return new Entry(person, key, sortKey, newRank);
+        }
+
+        Entry withSortKey(String newSortKey) {
+            return new Entry(person, key, newSortKey, rank);
+        }
+    }
+
+    /*
+     * The state of the list is held in persistent maps, which are never changed but replaced by updated
+     * versions that share most of their structure. Copying the list therefore only copies these references.
+     */
+
+    /** Maps the identity of every person in the list to its entry. */
+    private PersistentHashMap<PersonKey, Entry> index = PersistentHashMap.empty();
+
+    /** Maps every stored person object to its entry, to find persons changed after they were added. */
+    private PersistentHashMap<Person, Entry> entriesByReference = PersistentHashMap.emptyByIdentity();
+
+    /** Maps the rank of every entry to the entry, so iterating it gives the persons in display order. */
+    private PersistentRankedMap<Entry> order = PersistentRankedMap.empty();
+
+    /** Whether added and edited persons are placed in {@link #sortOrder}; if so, the list is in that order. */
+    private boolean isKeptSorted;
+
+    /** The order the list was last sorted in. */
+    private SortOrder sortOrder = SortOrder.BY_NAME;
 
     /**
      * Constructs empty person list.
      */
-    public UniquePersonList() {}
+    public UniquePersonList() {
+    }
 
     /**
      * Constructs a person list with the given persons.
      */
     public UniquePersonList(Person... persons) throws DuplicatePersonException {
-        final List<Person> initialTags = Arrays.asList(persons);
-        if (!Utils.elementsAreUnique(initialTags)) {
-            throw new DuplicatePersonException();
-        }
-        internalList.addAll(initialTags);
+        this(Arrays.asList(persons));
     }
 
     /**
@@ -59,17 +116,30 @@ public class UniquePersonList implements Iterable<Person> {
      * @throws DuplicatePersonException if the {@code persons} contains duplicate persons
      */
     public UniquePersonList(Collection<Person> persons) throws DuplicatePersonException {
-        if (!Utils.elementsAreUnique(persons)) {
-            throw new DuplicatePersonException();
+        final List<Entry> entries = new ArrayList<>(persons.size());
+        for (Person person : persons) {
+            final PersonKey key = new PersonKey(person);
+            if (index.containsKey(key)) {
+                throw new DuplicatePersonException();
+            }
+            final Entry entry = new Entry(person, key, (entries.size() + 1) * RANK_STRIDE);
+            index = index.plus(key, entry);
+            entriesByReference = entriesByReference.plus(person, entry);
+            entries.add(entry);
         }
-        internalList.addAll(persons);
+        order = PersistentRankedMap.ofValues(entries, entry -> entry.rank);
     }
 
     /**
-     * Constructs a shallow copy of the list.
+     * Constructs a shallow copy of the list. Takes constant time, as the copy shares the structure of the
+     * source; later changes to either replace parts of that structure instead of changing it.
      */
     public UniquePersonList(UniquePersonList source) {
-        internalList.addAll(source.internalList);
+        index = source.index;
+        entriesByReference = source.entriesByReference;
+        order = source.order;
+        isKeptSorted = source.isKeptSorted;
+        sortOrder = source.sortOrder;
     }
 
     /**
@@ -78,15 +148,162 @@ public class UniquePersonList implements Iterable<Person> {
      * Any changes to the internal list/elements are immediately visible in the returned list.
      */
     public List<ReadOnlyPerson> immutableListView() {
-        return Collections.unmodifiableList(internalList);
+        return new AbstractList<ReadOnlyPerson>() {
+            @Override
+            public ReadOnlyPerson get(int i) {
+                return order.valueAt(i).person;
+            }
+
+            @Override
+            public int size() {
+                return order.size();
+            }
+
+            @Override
+            public Iterator<ReadOnlyPerson> iterator() {
+                return personsOf(order);
+            }
+        };
+    }
+
+    /**
+     * Unmodifiable java List of the persons in this list at the time of the call, cast as {@link ReadOnlyPerson}s.
+     * Unlike {@link #immutableListView()}, later changes to this list are not visible in it.
+     * Takes constant time, as the list shares the current version of this list's structure.
+     */
+    public List<ReadOnlyPerson> snapshotView() {
+        final PersistentRankedMap<Entry> version = order;
+        return new AbstractList<ReadOnlyPerson>() {
+            @Override
+            public ReadOnlyPerson get(int i) {
+                return version.valueAt(i).person;
+            }
+
+            @Override
+            public int size() {
+                return version.size();
+            }
+
+            @Override
+            public Iterator<ReadOnlyPerson> iterator() {
+                return personsOf(version);
+            }
+        };
     }
 
+    /**
+     * Returns the number of persons in the list.
+     */
+    public int size() {
+        return index.size();
+    }
 
     /**
      * Checks if the list contains an equivalent person as the given argument.
      */
     public boolean contains(ReadOnlyPerson toCheck) {
-        return internalList.contains(toCheck);
+        return findEntry(toCheck) != null;
+    }
+
+    /**
+     * Returns the person in the list that is equivalent to the given argument.
+     *
+     * @throws PersonNotFoundException if no such person could be found in the list.
+     */
+    public Person get(ReadOnlyPerson toGet) throws PersonNotFoundException {
+        final Entry entry = findEntry(toGet);
+        if (entry == null) {
+            throw new PersonNotFoundException();
+        }
+        return entry.person;
+    }
+
+    /**
+     * Returns the position of the equivalent person in display order, counting from 0.
+     *
+     * @throws PersonNotFoundException if no such person could be found in the list.
+     */
+    public int indexOf(ReadOnlyPerson toFind) throws PersonNotFoundException {
+        final Entry entry = findEntry(toFind);
+        if (entry == null) {
+            throw new PersonNotFoundException();
+        }
+        return order.indexOfKey(entry.rank);
+    }
+
+    /**
+     * Returns the person in the list filed under the given key, or null if there is none.
+     */
+    public Person find(PersonKey key) {
+        final Entry entry = index.get(key);
+        return entry == null ? null : entry.person;
+    }
+
+    /**
+     * Returns the persons of this list filed under the given keys, in display order.
+     *
+     * Keys of persons that are no longer held by this list are left out.
+     */
+    public List<ReadOnlyPerson> inListOrder(Collection<PersonKey> keys) {
+        final Entry[] entries = new Entry[keys.size()];
+        int i = 0;
+        for (PersonKey key : keys) {
+            final Entry entry = index.get(key);
+            if (entry != null) {
+                entries[i++] = entry;
+            }
+        }
+        Arrays.sort(entries, 0, i, Comparator.comparingLong(entry -> entry.rank));
+        final List<ReadOnlyPerson> ordered = new ArrayList<>(i);
+        for (int j = 0; j < i; j++) {
+            ordered.add(entries[j].person);
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns at most {@code limit} persons of this list filed under the given keys: those with the highest scores,
+     * highest first, and of persons with equal scores those earlier in display order.
+     *
+     * Only the best persons seen so far are kept, in a heap of at most {@code limit} persons, so this takes time
+     * linear in the number of keys and only the persons returned are gathered into the result.
+     * Keys of persons that are no longer held by this list are left out.
+     */
+    public List<ReadOnlyPerson> mostRelevant(Map<PersonKey, Double> scores, int limit) {
+        final Comparator<ScoredEntry> worstFirst = Comparator.<ScoredEntry>comparingDouble(scored -> scored.score)
+                .thenComparing(Comparator.<ScoredEntry>comparingLong(scored -> scored.entry.rank).reversed());
+        final PriorityQueue<ScoredEntry> best = new PriorityQueue<>(Math.max(1, limit), worstFirst);
+        for (Map.Entry<PersonKey, Double> score : scores.entrySet()) {
+            if (best.size() == limit && score.getValue() < best.peek().score) {
+                continue;
+            }
+            final Entry entry = index.get(score.getKey());
+            if (entry == null) {
+                continue;
+            }
+            best.add(new ScoredEntry(entry, score.getValue()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        final ReadOnlyPerson[] ranked = new ReadOnlyPerson[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll().entry.person;
+        }
+        return Arrays.asList(ranked);
+    }
+
+    /**
+     * An entry of the list with the score it was given by a search.
+     */
+    private static final class ScoredEntry {
+        private final Entry entry;
+        private final double score;
+
+        private ScoredEntry(Entry entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
     }
 
     /**
@@ -95,22 +312,99 @@ public class UniquePersonList implements Iterable<Person> {
      * @throws DuplicatePersonException if the person to add is a duplicate of an existing person in the list.
      */
     public void add(Person toAdd) throws DuplicatePersonException {
+        final PersonKey key = new PersonKey(toAdd);
+        if (contains(toAdd)) {
+            throw new DuplicatePersonException();
+        }
+        if (isKeptSorted) {
+            final String sortKey = sortKeyOf(toAdd);
+            insert(toAdd, key, sortKey, sortedPosition(sortKey));
+            return;
+        }
+        put(new Entry(toAdd, key, order.lastKey() + RANK_STRIDE));
+    }
+
+    /**
+     * Inserts a person into the list at the given position in display order, counting from 0.
+     * If the list is kept sorted, the person is placed at its position in the sort order instead.
+     *
+     * @throws DuplicatePersonException if the person to add is a duplicate of an existing person in the list.
+     * @throws IndexOutOfBoundsException if the position is negative or greater than the size of the list.
+     */
+    public void add(Person toAdd, int position) throws DuplicatePersonException {
+        if (position < 0 || position > order.size()) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", Size: " + order.size());
+        }
+        final PersonKey key = new PersonKey(toAdd);
         if (contains(toAdd)) {
             throw new DuplicatePersonException();
         }
-        internalList.add(toAdd);
+        final String sortKey = sortKeyOf(toAdd);
+        insert(toAdd, key, sortKey, isKeptSorted ? sortedPosition(sortKey) : position);
+    }
+
+    /**
+     * Adds the persons to the end of the list in the given order, or each at its position in the sort order if
+     * the list is kept sorted. Persons equivalent to one already in the list, or to one before them in
+     * {@code toAdd}, are skipped.
+     *
+     * Unless the list is kept sorted, the display order is rebuilt in one go, in linear time, when more persons
+     * are added than the list holds, instead of filing them one by one.
+     *
+     * @return the persons added, in the given order.
+     */
+    public List<Person> addAll(Collection<Person> toAdd) {
+        final List<Person> added = new ArrayList<>(toAdd.size());
+        if (isKeptSorted) {
+            for (Person person : toAdd) {
+                if (!contains(person)) {
+                    final String sortKey = sortKeyOf(person);
+                    insert(person, new PersonKey(person), sortKey, sortedPosition(sortKey));
+                    added.add(person);
+                }
+            }
+            return added;
+        }
+        final List<Entry> newEntries = new ArrayList<>(toAdd.size());
+        long rank = order.lastKey();
+        for (Person person : toAdd) {
+            if (contains(person)) {
+                continue;
+            }
+            rank += RANK_STRIDE;
+            final Entry entry = new Entry(person, new PersonKey(person), rank);
+            index = index.plus(entry.key, entry);
+            entriesByReference = entriesByReference.plus(person, entry);
+            newEntries.add(entry);
+            added.add(person);
+        }
+        if (newEntries.size() > order.size()) {
+            final List<Entry> entries = new ArrayList<>(order.size() + newEntries.size());
+            for (Entry entry : order) {
+                entries.add(entry);
+            }
+            entries.addAll(newEntries);
+            order = PersistentRankedMap.ofValues(entries, entry -> entry.rank);
+        } else {
+            for (Entry entry : newEntries) {
+                order = order.plus(entry.rank, entry);
+            }
+        }
+        return added;
     }
 
     /**
      * Edits the equivalent person from the list.
      * 
      * @throws PersonNotFoundException if no such Person could be found.
+     * @throws DuplicatePersonException if the edited person is a duplicate of another person in the list.
      * @throws IllegalValueException if argument(s) in argsToEdit is/are invalid.
      * @throws TagNotFoundException  if tag to remove in argsToEdit is not found.
      */
-    public ReadOnlyPerson edit(ReadOnlyPerson toEdit, String[] argsToEdit) throws PersonNotFoundException, 
+    public Person edit(ReadOnlyPerson toEdit, String[] argsToEdit) throws PersonNotFoundException, 
     IllegalValueException, TagNotFoundException {
-        if (!contains(toEdit)) {
+        final Entry entry = findEntryToChange(toEdit);
+        if (entry == null) {
             throw new PersonNotFoundException();
         }
         Person personToEdit = new Person(toEdit);
@@ -150,80 +444,364 @@ public class UniquePersonList implements Iterable<Person> {
                 break;
             }
         }
-        internalList.set(Integer.parseInt(argsToEdit[0]) - DISPLAYED_INDEX_OFFSET, personToEdit);
+        storeChecked(entry, personToEdit);
         return personToEdit;
     }
 
+    /**
+     * Replaces the equivalent person in the list with the given person, keeping its position
+     * unless the list is kept sorted and the replacement sorts elsewhere.
+     *
+     * @throws PersonNotFoundException if no such person could be found in the list.
+     * @throws DuplicatePersonException if the replacement is a duplicate of another person in the list.
+     */
+    public void replace(ReadOnlyPerson target, Person replacement)
+            throws PersonNotFoundException, DuplicatePersonException {
+        final Entry entry = findEntryToChange(target);
+        if (entry == null) {
+            throw new PersonNotFoundException();
+        }
+        storeChecked(entry, replacement);
+    }
+
     /**
      * Removes the equivalent person from the list.
      *
      * @throws PersonNotFoundException if no such person could be found in the list.
      */
     public void remove(ReadOnlyPerson toRemove) throws PersonNotFoundException {
-        final boolean personFoundAndDeleted = internalList.remove(toRemove);
-        if (!personFoundAndDeleted) {
+        final Entry entry = findEntryToChange(toRemove);
+        if (entry == null) {
             throw new PersonNotFoundException();
         }
-    }  
+        index = index.minus(entry.key);
+        entriesByReference = entriesByReference.minus(entry.person);
+        order = order.minus(entry.rank);
+    }
+
+    /**
+     * Replaces the persons in this list with those in the given list, sharing its structure.
+     */
+    public void setPersons(UniquePersonList replacement) {
+        index = replacement.index;
+        entriesByReference = replacement.entriesByReference;
+        order = replacement.order;
+        isKeptSorted = replacement.isKeptSorted;
+        sortOrder = replacement.sortOrder;
+    }
 
     /**
      * Clears all persons in list.
      */
     public void clear() {
-        internalList.clear();
+        index = PersistentHashMap.empty();
+        entriesByReference = PersistentHashMap.emptyByIdentity();
+        order = PersistentRankedMap.empty();
     }
 
     /**
-     * Sorts all persons in list.
+     * Sorts all persons in list in the given order; persons that compare equal keep their order.
+     * The sort key of every person is computed once, so the sort compares plain strings.
+     * Takes constant time if the list is already kept sorted in that order.
+     *
+     * @param keepSorted whether persons added or edited later are placed in the order too
      */
-    public void sort() {
-        Collections.sort(internalList, new Comparator<Person>() {
-            @Override
-            public int compare(Person person1, Person person2) {
-                return person1.getName().toString().compareToIgnoreCase(person2.getName().toString());
+    public void sort(SortOrder newOrder, boolean keepSorted) {
+        if (!isKeptSorted || !newOrder.equals(sortOrder)) {
+            final Entry[] entries = new Entry[order.size()];
+            int i = 0;
+            for (Entry entry : order) {
+                entries[i++] = entry.withSortKey(newOrder.keyOf(entry.person));
             }
-        });
+            Arrays.sort(entries, Comparator.comparing(entry -> entry.sortKey));
+            isKeptSorted = keepSorted; // so that the reranked entries only keep their sort keys if needed
+            rerank(entries);
+        }
+        sortOrder = newOrder;
+        isKeptSorted = keepSorted;
     }
-    
+
     /**
-     * Rename all persons who had the old tag with the new tag
-     * 
-     * @param oldTag tag to be replaced with new tag name
-     * @param tagToUpdate new tag name
-     * @throws IllegalValueException if the given tag name string is invalid.
-     * @throws TagNotFoundException if there is no matching tags.
+     * Returns true if added and edited persons are placed in the {@link #getSortOrder() sort order}.
+     */
+    public boolean isKeptSorted() {
+        return isKeptSorted;
+    }
+
+    /**
+     * Returns the order the list was last sorted in, or name order if it never was.
+     */
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    /**
+     * Returns a rough estimate of the memory this version of the list holds on to that the other version does not
+     * share with it: the given number of bytes for every person the other version does not hold, and for every
+     * entry it holds the person under differently, e.g. at another position after a sort.
+     */
+    public long estimatedSizeNotSharedWith(UniquePersonList other, long personBytes, long entryBytes) {
+        if (order == other.order) {
+            return 0;
+        }
+        long size = 0;
+        for (Entry entry : order) {
+            final Entry otherEntry = other.entriesByReference.get(entry.person);
+            if (otherEntry == null) {
+                size += personBytes + entryBytes;
+            } else if (otherEntry != entry) {
+                size += entryBytes;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the key of the person in the order the list is kept in, or null if it is not kept sorted.
+     */
+    private String sortKeyOf(ReadOnlyPerson person) {
+        return isKeptSorted ? sortOrder.keyOf(person) : null;
+    }
+
+    /**
+     * Returns the position for a person of the given sort key in a list kept sorted, after any equal persons.
+     */
+    private int sortedPosition(String sortKey) {
+        return order.indexOfFirst(entry -> entry.sortKey.compareTo(sortKey) > 0);
+    }
+
+    /**
+     * Files a new entry for the person at the given position in display order.
+     */
+    private void insert(Person person, PersonKey key, String sortKey, int position) {
+        if (rankBetween(position) < 0) {
+            spreadRanksAround(position);
+        }
+        put(new Entry(person, key, sortKey, rankBetween(position)));
+    }
+
+    /**
+     * Returns a free rank between the persons at {@code position - 1} and {@code position},
+     * or -1 if their ranks are adjacent.
+     */
+    private long rankBetween(int position) {
+        final long before = position == 0 ? 0 : order.valueAt(position - 1).rank;
+        final long after = position == order.size() ? before + 2 * RANK_STRIDE : order.valueAt(position).rank;
+        return after - before < 2 ? -1 : before + (after - before) / 2;
+    }
+
+    /**
+     * Hands out new ranks to the persons around the given position, so that there is a free rank before it.
+     * Only the smallest neighbourhood whose ranks can be spread out with room to spare is reranked, so that
+     * repeated inserts at one place touch few other persons; all persons are reranked only if there is no such
+     * neighbourhood.
      */
-    public void renameTag(ReadOnlyTag oldTag, Tag tagToUpdate)
-            throws IllegalValueException, TagNotFoundException {
-        Tag newTag = new Tag(tagToUpdate);
+    private void spreadRanksAround(int position) {
+        final int size = order.size();
+        for (int width = 1; ; width *= 2) {
+            final int from = Math.max(0, position - width);
+            final int to = Math.min(size, position + width);
+            final int count = to - from + 1; // including the person to insert
+            final long before = from == 0 ? 0 : order.valueAt(from - 1).rank;
+            final long after = to == size ? before + (count + 1) * RANK_STRIDE : order.valueAt(to).rank;
+            final long spacing = (after - before) / (count + 1);
+            if (spacing > count) {
+                final List<Entry> neighbours = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    neighbours.add(order.valueAt(i));
+                }
+                for (Entry neighbour : neighbours) {
+                    order = order.minus(neighbour.rank);
+                }
+                for (int i = from; i < to; i++) {
+                    final int slot = i < position ? i - from + 1 : i - from + 2; // skip the slot of the insert
+                    put(neighbours.get(i - from).withRank(before + slot * spacing));
+                }
+                return;
+            }
+            if (from == 0 && to == size) {
+                final Entry[] entries = new Entry[size];
+                int i = 0;
+                for (Entry entry : order) {
+                    entries[i++] = entry;
+                }
+                rerank(entries);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hands out ranks afresh to the persons of the list, in the order of the given entries, which must be those
+     * of the list (their sort keys aside) in any order. Sort keys are only kept if the list is kept sorted.
+     *
+     * The persons stay under the same keys, so the maps from keys are copied as they are with the reranked
+     * entries in place, which takes linear time, rather than rebuilt, which would hash every key again.
+     */
+    private void rerank(Entry[] inOrder) {
+        final long[] oldRanks = new long[inOrder.length]; // in increasing order, as the entries are in the list
+        int i = 0;
+        for (Entry entry : order) {
+            oldRanks[i++] = entry.rank;
+        }
+        final Entry[] rerankedByOldPosition = new Entry[inOrder.length];
+        final Entry[] reranked = new Entry[inOrder.length];
+        for (i = 0; i < inOrder.length; i++) {
+            final Entry entry = inOrder[i];
+            reranked[i] = new Entry(entry.person, entry.key, isKeptSorted ? entry.sortKey : null,
+                    (i + 1) * RANK_STRIDE);
+            rerankedByOldPosition[Arrays.binarySearch(oldRanks, entry.rank)] = reranked[i];
+        }
+        final Function<Entry, Entry> toReranked =
+                entry -> rerankedByOldPosition[Arrays.binarySearch(oldRanks, entry.rank)];
+        index = index.mapValues(toReranked);
+        entriesByReference = entriesByReference.mapValues(toReranked);
+        order = PersistentRankedMap.ofValues(Arrays.asList(reranked), entry -> entry.rank);
+    }
+
+    /**
+     * Files the entry in every map, replacing any entry of the same rank, key or person object.
+     */
+    private void put(Entry entry) {
+        index = index.plus(entry.key, entry);
+        entriesByReference = entriesByReference.plus(entry.person, entry);
+        order = order.plus(entry.rank, entry);
+    }
+
+    /**
+     * Puts the person into the position of the given entry unless that would duplicate the person of another entry.
+     *
+     * @throws DuplicatePersonException if another entry holds a person equivalent to {@code person}.
+     */
+    private void storeChecked(Entry entry, Person person) throws DuplicatePersonException {
+        final PersonKey key = new PersonKey(person);
+        final Entry existing = index.get(key);
+        if (existing != null && existing.rank != entry.rank) {
+            throw new DuplicatePersonException();
+        }
+        if (!key.equals(entry.key)) {
+            index = index.minus(entry.key);
+        }
+        entriesByReference = entriesByReference.minus(entry.person);
+        refiled(entry, person, key);
+    }
+
+    /**
+     * Files the person, whose state may differ from that of the person of the given entry, in place of that entry.
+     * If the list is kept sorted and the person sorts elsewhere now, it is moved to its position in the order.
+     * The entry must already be unfiled from the index and by reference, if its key or person changed.
+     * Returns the entry the person is now filed under.
+     */
+    private Entry refiled(Entry entry, Person person, PersonKey key) {
+        final String sortKey = sortKeyOf(person);
+        if (isKeptSorted && !sortKey.equals(entry.sortKey)) { // the person sorts elsewhere now
+            order = order.minus(entry.rank);
+            insert(person, key, sortKey, sortedPosition(sortKey));
+            return index.get(key);
+        }
+        final Entry stored = new Entry(person, key, sortKey, entry.rank);
+        put(stored);
+        return stored;
+    }
 
-        for (int i = 0; i < internalList.size(); i++) {
-            Person personToEdit = new Person(internalList.get(i));
-            UniqueTagList tags = personToEdit.getTags();
-            if (tags.contains(new Tag(oldTag))) {
-                tags.update(oldTag, tagToUpdate);
-                personToEdit.setTags(tags);
-                internalList.set(i, personToEdit);
+    /**
+     * Returns the entry holding a person equivalent to {@code toFind}, or null if there is none.
+     * Only reads the list, so that lookups can run on several threads at once, e.g. for read-only commands:
+     * a stored person whose fields were changed through its setters is found by reference, but left filed
+     * under its old key until {@link #findEntryToChange(ReadOnlyPerson)} refiles it.
+     */
+    private Entry findEntry(ReadOnlyPerson toFind) {
+        final Entry entry = index.get(new PersonKey(toFind));
+        if (entry != null && entry.person.isSameStateAs(toFind)) {
+            return entry;
+        }
+        return entriesByReference.get(toFind);
+    }
+
+    /**
+     * Returns the entry holding a person equivalent to {@code toFind}, or null if there is none, for a change
+     * to the list. A stored person whose fields were changed through its setters is refiled under its new key.
+     */
+    private Entry findEntryToChange(ReadOnlyPerson toFind) {
+        final Entry entry = index.get(new PersonKey(toFind));
+        if (entry != null) {
+            if (entry.person.isSameStateAs(toFind)) {
+                return entry;
             }
+            refile(entry);
         }
+        final Entry changed = entriesByReference.get(toFind);
+        return changed == null ? null : refile(changed);
+    }
+
+    /**
+     * Files the entry under the current state of its person, unless another entry already holds that state.
+     * Returns the entry now in the list for that person.
+     */
+    private Entry refile(Entry entry) {
+        final PersonKey currentKey = new PersonKey(entry.person);
+        if (index.containsKey(currentKey)) {
+            return entry;
+        }
+        index = index.minus(entry.key);
+        return refiled(entry, entry.person, currentKey);
+    }
+
+    /**
+     * Returns an iterator over the persons of the given version of this list, in display order.
+     */
+    private static <T> Iterator<T> personsOf(PersistentRankedMap<Entry> version) {
+        final Iterator<Entry> entries = version.iterator();
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                return (T) entries.next().person;
+            }
+        };
     }
 
     @Override
     public Iterator<Person> iterator() {
-        return internalList.iterator();
+        return personsOf(order);
     }
 
     @Override
     public boolean equals(Object other) {
-        return other == this // short circuit if same object
-                || (other instanceof UniquePersonList // instanceof handles nulls
-                        && this.internalList.equals(
-                                ((UniquePersonList) other).internalList));
+        if (other == this) { // short circuit if same object
+            return true;
+        }
+        if (!(other instanceof UniquePersonList)) { // instanceof handles nulls
+            return false;
+        }
+        final PersistentRankedMap<Entry> otherOrder = ((UniquePersonList) other).order;
+        if (order == otherOrder) {
+            return true;
+        }
+        if (order.size() != otherOrder.size()) {
+            return false;
+        }
+        final Iterator<Entry> otherEntries = otherOrder.iterator();
+        for (Entry entry : order) {
+            if (!entry.person.equals(otherEntries.next().person)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return internalList.hashCode();
+        int hash = 1;
+        for (Entry entry : order) {
+            hash = 31 * hash + entry.person.hashCode();
+        }
+        return hash;
     }
 
 }
@@ -0,0 +1,138 @@
+package seedu.addressbook.data.tag;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable, ordered set of tags, stored compactly as their {@link TagRegistry} ids.
+ * Reading it does not allocate, so it can be shared freely and used on hot paths.
+ * Iterating over it gives the canonical tags, as a read-only view without copying.
+ */
+public final class TagIdSet implements Iterable<Tag> {
+
+    public static final TagIdSet EMPTY = new TagIdSet(new int[0]);
+
+    private final int[] ids;
+
+    private TagIdSet(int[] ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Returns the set of the given tags, in the same order.
+     */
+    public static TagIdSet of(UniqueTagList tags) {
+        int[] ids = new int[4];
+        int count = 0;
+        for (Tag tag : tags) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = TagRegistry.idOf(tag);
+        }
+        return count == 0 ? EMPTY : new TagIdSet(Arrays.copyOf(ids, count));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * Returns the registry id of the tag at the given position.
+     */
+    public int idAt(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Returns the canonical tag at the given position.
+     */
+    public Tag tagAt(int index) {
+        return TagRegistry.tagOf(ids[index]);
+    }
+
+    @Override
+    public Iterator<Tag> iterator() {
+        return new Iterator<Tag>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < ids.length;
+            }
+
+            @Override
+            public Tag next() {
+                if (next >= ids.length) {
+                    throw new NoSuchElementException();
+                }
+                return TagRegistry.tagOf(ids[next++]);
+            }
+        };
+    }
+
+    public boolean containsId(int id) {
+        for (int each : ids) {
+            if (each == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the set contains a tag with the same name as the given tag.
+     */
+    public boolean contains(Tag tag) {
+        final int id = TagRegistry.findId(tag);
+        return id >= 0 && containsId(id);
+    }
+
+    /**
+     * Returns a copy of this set with the old tag replaced by the new one, keeping its position.
+     * If the set already contains the new tag, the old tag is dropped instead.
+     */
+    public TagIdSet replace(Tag oldTag, Tag newTag) {
+        final int oldId = TagRegistry.findId(oldTag);
+        final int newId = TagRegistry.idOf(newTag);
+        final boolean hasNewTag = containsId(newId);
+        final int[] replaced = new int[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            if (id != oldId) {
+                replaced[count++] = id;
+            } else if (!hasNewTag) {
+                replaced[count++] = newId;
+            }
+        }
+        return new TagIdSet(Arrays.copyOf(replaced, count));
+    }
+
+    /**
+     * Returns the tags in this set as a new, modifiable tag list.
+     */
+    public UniqueTagList toTagList() {
+        final UniqueTagList tags = new UniqueTagList();
+        for (int id : ids) {
+            tags.addUnique(TagRegistry.tagOf(id));
+        }
+        return tags;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this // short circuit if same object
+                || (other instanceof TagIdSet // instanceof handles nulls
+                && Arrays.equals(this.ids, ((TagIdSet) other).ids));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ids);
+    }
+}
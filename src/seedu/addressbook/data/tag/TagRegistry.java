@@ -0,0 +1,78 @@
+package seedu.addressbook.data.tag;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry that interns tags.
+ * Each distinct tag name is stored as one canonical {@link Tag} object and given a small integer id,
+ * starting from 0, that stays the same for the rest of the process.
+ *
+ * Tags are never removed from the registry, since the number of distinct tag names is small.
+ * Looking up a registered tag does not lock or allocate; safe for use from multiple threads.
+ */
+public final class TagRegistry {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+
+    /** Canonical tags indexed by id. Grown and filled only while holding the class lock. */
+    private static volatile Tag[] tagsById = new Tag[INITIAL_CAPACITY];
+    private static int registeredCount;
+
+    private TagRegistry() {}
+
+    /**
+     * Returns the id of the given tag, registering the tag if no tag with its name was registered yet.
+     */
+    public static int idOf(Tag tag) {
+        final Integer id = idsByName.get(tag.tagName);
+        return id != null ? id : register(tag);
+    }
+
+    /**
+     * Returns the id of the given tag, or -1 if no tag with its name is registered.
+     */
+    public static int findId(Tag tag) {
+        final Integer id = idsByName.get(tag.tagName);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Returns the canonical tag with the given id.
+     *
+     * @throws ArrayIndexOutOfBoundsException if no tag has the given id.
+     */
+    public static Tag tagOf(int id) {
+        final Tag tag = tagsById[id];
+        if (tag == null) {
+            throw new ArrayIndexOutOfBoundsException(id);
+        }
+        return tag;
+    }
+
+    /**
+     * Returns the canonical tag with the same name as the given tag.
+     */
+    public static Tag intern(Tag tag) {
+        return tagOf(idOf(tag));
+    }
+
+    private static synchronized int register(Tag tag) {
+        final Integer existing = idsByName.get(tag.tagName);
+        if (existing != null) {
+            return existing;
+        }
+        final int id = registeredCount;
+        if (id == tagsById.length) {
+            tagsById = Arrays.copyOf(tagsById, id * 2);
+        }
+        tagsById[id] = tag;
+        registeredCount++;
+        // publishing the id last makes the tag visible to every thread that can see the id
+        idsByName.put(tag.tagName, id);
+        return id;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.*;
 
 /**
  * A list of tags. Does not allow nulls or duplicates.
+ * Tags are stored as their canonical {@link TagRegistry} objects, so equal tags in different lists are the same object.
  *
  * @see Tag#equals(Object)
  * @see Utils#elementsAreUnique(Collection)
@@ -29,6 +30,8 @@ public class UniqueTagList implements Iterable<Tag> {
     public static class TagNotFoundException extends Exception {}
 
     private final List<Tag> internalList = new ArrayList<>();
+    /** Registry ids of the tags in {@link #internalList}, for constant-time membership checks. */
+    private final BitSet ids = new BitSet();
 
     /**
      * Constructs an empty TagList.
@@ -43,7 +46,9 @@ public class UniqueTagList implements Iterable<Tag> {
         if (!Utils.elementsAreUnique(initialTags)) {
             throw new DuplicateTagException();
         }
-        internalList.addAll(initialTags);
+        for (Tag tag : initialTags) {
+            addUnique(tag);
+        }
     }
 
     /**
@@ -53,14 +58,18 @@ public class UniqueTagList implements Iterable<Tag> {
         if (!Utils.elementsAreUnique(tags)) {
             throw new DuplicateTagException();
         }
-        internalList.addAll(tags);
+        for (Tag tag : tags) {
+            addUnique(tag);
+        }
     }
 
     /**
      * Constructs a tag list with the given tags.
      */
     public UniqueTagList(Set<Tag> tags) {
-        internalList.addAll(tags);
+        for (Tag tag : tags) {
+            addUnique(tag);
+        }
     }
 
     /**
@@ -68,6 +77,7 @@ public class UniqueTagList implements Iterable<Tag> {
      */
     public UniqueTagList(UniqueTagList source) {
         internalList.addAll(source.internalList);
+        ids.or(source.ids);
     }
     
     /**
@@ -90,7 +100,8 @@ public class UniqueTagList implements Iterable<Tag> {
      * Checks if the list contains an equivalent Tag as the given argument.
      */
     public boolean contains(Tag toCheck) {
-        return internalList.contains(toCheck);
+        final int id = TagRegistry.findId(toCheck);
+        return id >= 0 && ids.get(id);
     }
 
     /**
@@ -102,7 +113,7 @@ public class UniqueTagList implements Iterable<Tag> {
         if (contains(toAdd)) {
             throw new DuplicateTagException();
         }
-        internalList.add(toAdd);
+        addUnique(toAdd);
     }
 
     /**
@@ -111,20 +122,34 @@ public class UniqueTagList implements Iterable<Tag> {
      * @throws DuplicateTagException if the argument tag list contains tag(s) that already exist in this list.
      */
     public void addAll(UniqueTagList tags) throws DuplicateTagException {
-        if (!Collections.disjoint(this.internalList, tags.internalList)) {
+        if (this.ids.intersects(tags.ids)) {
             throw new DuplicateTagException();
         }
         this.internalList.addAll(tags.internalList);
+        this.ids.or(tags.ids);
     }
 
     /**
      * Adds every tag from the argument list that does not yet exist in this list.
      */
     public void mergeFrom(UniqueTagList tags) {
-        final Set<Tag> alreadyInside = this.toSet();
         for (Tag tag : tags) {
-            if (!alreadyInside.contains(tag)) {
-                internalList.add(tag);
+            if (!contains(tag)) {
+                addUnique(tag);
+            }
+        }
+    }
+
+    /**
+     * Adds every tag from the argument set that does not yet exist in this list.
+     * Takes time proportional to the size of the argument set only.
+     */
+    public void mergeFrom(TagIdSet tags) {
+        for (int i = 0; i < tags.size(); i++) {
+            final int id = tags.idAt(i);
+            if (!ids.get(id)) {
+                internalList.add(TagRegistry.tagOf(id));
+                ids.set(id);
             }
         }
     }
@@ -139,6 +164,7 @@ public class UniqueTagList implements Iterable<Tag> {
         if (!TagFoundAndDeleted) {
             throw new TagNotFoundException();
         }
+        ids.clear(TagRegistry.idOf(toRemove));
     }
     
     /**
@@ -149,11 +175,19 @@ public class UniqueTagList implements Iterable<Tag> {
      */
     public void update(ReadOnlyTag oldTag, Tag tagToUpdate)
             throws TagNotFoundException, IllegalValueException {
-        int selectedIndex = internalList.indexOf(new Tag(oldTag));
+        final Tag toReplace = new Tag(oldTag);
+        int selectedIndex = internalList.indexOf(toReplace);
         if (selectedIndex == -1) {
             throw new TagNotFoundException();
         }
-        internalList.set(selectedIndex, tagToUpdate);
+        final Tag replacement = TagRegistry.intern(tagToUpdate);
+        ids.clear(TagRegistry.idOf(toReplace));
+        if (ids.get(TagRegistry.idOf(replacement))) {
+            internalList.remove(selectedIndex);
+        } else {
+            internalList.set(selectedIndex, replacement);
+            ids.set(TagRegistry.idOf(replacement));
+        }
     }
 
     /**
@@ -161,6 +195,7 @@ public class UniqueTagList implements Iterable<Tag> {
      */
     public void clear() {
         internalList.clear();
+        ids.clear();
     }
 
     /**
@@ -169,6 +204,17 @@ public class UniqueTagList implements Iterable<Tag> {
     public void setTags(UniqueTagList replacement) {
         this.internalList.clear();
         this.internalList.addAll(replacement.internalList);
+        this.ids.clear();
+        this.ids.or(replacement.ids);
+    }
+
+    /**
+     * Appends the canonical copy of the tag. Caller must ensure the tag is not already in the list.
+     */
+    void addUnique(Tag toAdd) {
+        final int id = TagRegistry.idOf(toAdd);
+        internalList.add(TagRegistry.tagOf(id));
+        ids.set(id);
     }
 
     @Override
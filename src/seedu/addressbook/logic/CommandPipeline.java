@@ -0,0 +1,168 @@
+package seedu.addressbook.logic;
+
+import seedu.addressbook.commands.Command;
+import seedu.addressbook.commands.CommandResult;
+import seedu.addressbook.parser.Parser;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs user commands through a {@link Logic} on a worker thread, one at a time in the order they are submitted,
+ * so that the thread submitting them, e.g. the GUI's, is never held up by a slow command.
+ *
+ * Each command's result is also rendered on the worker, e.g. formatted for display, and then handed to a
+ * {@link Callback} through the given executor, e.g. {@code Platform::runLater} to run it on the GUI thread.
+ *
+ * Submitted commands can be cancelled until they are known to change the address book. A read-only command
+ * can be cancelled even while it runs: its result is then discarded and not recorded as the last shown lists.
+ * A command that may change the address book is completed once started, so that its changes are never half made.
+ */
+public class CommandPipeline {
+
+    /**
+     * Receives the outcome of a submitted command; exactly one method is called per command.
+     */
+    public interface Callback<T> {
+        void onCompleted(CommandResult result, T rendered);
+
+        void onCancelled();
+
+        void onFailed(Exception e);
+    }
+
+    /* States of a submitted command. */
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int COMMITTED = 2;
+    private static final int CANCELLED = 3;
+
+    private final Logic logic;
+    private final Executor callbackExecutor;
+    private final ExecutorService worker;
+
+    /** The commands submitted and not yet finished, oldest first. */
+    private final Queue<Submission<?>> unfinished = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a pipeline running commands through the given logic, with its worker thread ready.
+     *
+     * @param callbackExecutor runs the callbacks of submitted commands
+     */
+    public CommandPipeline(Logic logic, Executor callbackExecutor) {
+        this.logic = logic;
+        this.callbackExecutor = callbackExecutor;
+        this.worker = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task, "command-worker");
+            // the application flushes before exiting; the worker must not keep the JVM alive otherwise
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the user command to be parsed and executed after all commands submitted before it.
+     *
+     * @param render applied to the result on the worker thread, before the callback is called
+     */
+    public <T> void submit(String userCommandText, Function<CommandResult, T> render, Callback<T> callback) {
+        final Submission<T> submission = new Submission<>(userCommandText, render, callback);
+        unfinished.add(submission);
+        worker.execute(submission);
+    }
+
+    /**
+     * Cancels every submitted command that is not finished and can still be cancelled (see the class comment).
+     * Their callbacks are told straight away, even if a cancelled read-only command is still running.
+     */
+    public void cancelAll() {
+        for (Submission<?> submission : unfinished) {
+            submission.cancel();
+        }
+    }
+
+    /**
+     * Stops the worker thread once the commands already submitted are finished.
+     */
+    public void close() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A submitted command, moving from {@link #QUEUED} to {@link #RUNNING} to either {@link #COMMITTED} or
+     * {@link #CANCELLED}. Whichever of the worker and {@link #cancelAll()} changes the state first decides
+     * which callback method is called.
+     */
+    private class Submission<T> implements Runnable {
+        private final String userCommandText;
+        private final Function<CommandResult, T> render;
+        private final Callback<T> callback;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        /** Written and read by the worker thread only. */
+        private T rendered;
+
+        Submission(String userCommandText, Function<CommandResult, T> render, Callback<T> callback) {
+            this.userCommandText = userCommandText;
+            this.render = render;
+            this.callback = callback;
+        }
+
+        void cancel() {
+            if (state.compareAndSet(QUEUED, CANCELLED) || state.compareAndSet(RUNNING, CANCELLED)) {
+                callbackExecutor.execute(callback::onCancelled);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (state.compareAndSet(QUEUED, RUNNING)) {
+                    execute();
+                }
+            } finally {
+                unfinished.remove(this);
+            }
+        }
+
+        private void execute() {
+            try {
+                final Command command = new Parser().parseCommand(userCommandText);
+                if (!command.isReadOnly() && !state.compareAndSet(RUNNING, COMMITTED)) {
+                    return;
+                }
+                final CommandResult result = logic.execute(command, this::renderUnlessCancelled);
+                if (result == null) {
+                    return;
+                }
+                if (!command.isReadOnly()) {
+                    rendered = render.apply(result);
+                }
+                final T renderedResult = rendered;
+                callbackExecutor.execute(() -> callback.onCompleted(result, renderedResult));
+            } catch (Exception e) {
+                if (state.get() == COMMITTED || state.compareAndSet(RUNNING, COMMITTED)) {
+                    callbackExecutor.execute(() -> callback.onFailed(e));
+                }
+            }
+        }
+
+        /**
+         * Renders the result of a read-only command and keeps it, unless the command is cancelled by then.
+         */
+        private boolean renderUnlessCancelled(CommandResult result) {
+            if (state.get() == CANCELLED) {
+                return false;
+            }
+            rendered = render.apply(result);
+            return state.compareAndSet(RUNNING, COMMITTED);
+        }
+    }
+}
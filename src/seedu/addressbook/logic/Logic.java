@@ -2,18 +2,27 @@ package seedu.addressbook.logic;
 
 import seedu.addressbook.commands.Command;
 import seedu.addressbook.commands.CommandResult;
+import seedu.addressbook.common.Messages;
 import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.data.UndoHistory;
 import seedu.addressbook.data.person.ReadOnlyPerson;
 import seedu.addressbook.data.tag.ReadOnlyTag;
 import seedu.addressbook.parser.Parser;
 import seedu.addressbook.storage.StorageFile;
+import seedu.addressbook.storage.WriteBehindSaver;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 
 /**
  * Represents the main Logic of the AddressBook.
+ *
+ * Commands can be executed on several threads at once, each for its own {@link Session}: read-only commands run
+ * in parallel with each other, while a command that may change the address book runs alone. The methods without
+ * a session parameter use a default session, e.g. for the GUI.
  */
 public class Logic {
 
@@ -21,18 +30,72 @@ public class Logic {
     private StorageFile storage;
     private AddressBook addressBook;
 
-    /** The list of person shown to the user most recently. */
-    private List<? extends ReadOnlyPerson> lastShownPersonList = Collections.emptyList();
-    
-    /** The list of tag shown to the user most recently. */
-    private List<? extends ReadOnlyTag> lastShownTagList = Collections.emptyList();
+    /**
+     * The latest version of the address book, published after every command that changed it.
+     * Readers on other threads can read it without locking while the next command runs.
+     */
+    private final AtomicReference<AddressBook> currentVersion = new AtomicReference<>();
+
+    /** The modification count of the address book when it was last saved to storage. */
+    private long savedModificationCount;
+
+    /** The changes made to the address book by earlier commands, for undo and redo. */
+    private UndoHistory undoHistory;
+
+    /** Estimate of the memory, in bytes, the undo history may hold on to. */
+    private final long undoMemoryBudget;
+
+    /** Saves the address book in the background; null if it is saved before each command returns. */
+    private WriteBehindSaver writeBehindSaver;
+
+    /**
+     * Held shared by read-only commands, and exclusively by anything that changes the address book or the fields
+     * above, such as commands that may change the address book and saving.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** The session of callers that do not give one. */
+    private final Session defaultSession = new Session();
 
     public Logic() throws Exception{
+        undoMemoryBudget = UndoHistory.DEFAULT_MEMORY_BUDGET;
         setStorage(initializeStorage());
         setAddressBook(storage.load());
     }
 
+    /**
+     * Creates the logic for the address book kept in the given storage file.
+     *
+     * @throws StorageFile.StorageOperationException if the address book could not be loaded.
+     */
+    public Logic(StorageFile storageFile) throws Exception {
+        undoMemoryBudget = UndoHistory.DEFAULT_MEMORY_BUDGET;
+        setStorage(storageFile);
+        setAddressBook(storage.load());
+    }
+
+    /**
+     * Creates the logic for the address book kept in the given storage file, saving changes in the background.
+     * A change is saved at most the given number of milliseconds after it is made, together with any other
+     * changes made meanwhile.
+     *
+     * @throws StorageFile.StorageOperationException if the address book could not be loaded.
+     */
+    public Logic(StorageFile storageFile, long maxStalenessMillis) throws Exception {
+        this(storageFile);
+        writeBehindSaver = new WriteBehindSaver(storage, maxStalenessMillis);
+    }
+
     Logic(StorageFile storageFile, AddressBook addressBook){
+        this(storageFile, addressBook, UndoHistory.DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Creates the logic for the given address book, whose undo history may hold on to an estimated
+     * {@code undoMemoryBudget} bytes.
+     */
+    Logic(StorageFile storageFile, AddressBook addressBook, long undoMemoryBudget){
+        this.undoMemoryBudget = undoMemoryBudget;
         setStorage(storageFile);
         setAddressBook(addressBook);
     }
@@ -41,8 +104,22 @@ public class Logic {
         this.storage = storage;
     }
 
+    /**
+     * Sets the address book to operate on. It is assumed to be in sync with the storage.
+     */
     void setAddressBook(AddressBook addressBook){
-        this.addressBook = addressBook;
+        lock.writeLock().lock();
+        try {
+            this.addressBook = addressBook;
+            this.savedModificationCount = addressBook.getModificationCount();
+            currentVersion.set(addressBook.snapshot());
+            if (undoHistory != null) {
+                undoHistory.close();
+            }
+            undoHistory = new UndoHistory(addressBook, undoMemoryBudget);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -58,61 +135,198 @@ public class Logic {
     }
 
     /**
-     * Unmodifiable view of the current last shown person list.
+     * Returns the version of the address book as of the last command that completed. The version never changes,
+     * so it can be read on any thread, e.g. to search or render it, while later commands change the address book.
+     * It must not be modified.
+     */
+    public AddressBook getCurrentVersion() {
+        return currentVersion.get();
+    }
+
+    /**
+     * Unmodifiable view of the current last shown person list of the default session.
      */
     public List<ReadOnlyPerson> getLastShownPersonList() {
-        return Collections.unmodifiableList(lastShownPersonList);
+        return defaultSession.getLastShownPersonList();
     }
     
     /**
-     * Unmodifiable view of the current last shown tag list.
+     * Unmodifiable view of the current last shown tag list of the default session.
      */
     public List<ReadOnlyTag> getLastShownTagList() {
-        return Collections.unmodifiableList(lastShownTagList);
+        return defaultSession.getLastShownTagList();
     }
 
     protected void setLastShownPersonList(List<? extends ReadOnlyPerson> newList) {
-        lastShownPersonList = newList;
+        defaultSession.setLastShownPersonList(newList);
     }
     
     protected void setLastShownTagList(List<? extends ReadOnlyTag> newList) {
-        lastShownTagList = newList;
+        defaultSession.setLastShownTagList(newList);
     }
 
     /**
-     * Parses the user command, executes it, and returns the result.
+     * Parses the user command, executes it in the default session, and returns the result.
      * @throws Exception if there was any problem during command execution.
      */
     public CommandResult execute(String userCommandText) throws Exception {
-        Command command = new Parser().parseCommand(userCommandText);
-        CommandResult result = execute(command);
-        recordResult(result);
-        return result;
+        return execute(userCommandText, defaultSession);
+    }
+
+    /**
+     * Parses the user command, executes it in the given session, and returns the result.
+     * Indexes in the command refer to the lists last shown in that session.
+     * @throws Exception if there was any problem during command execution.
+     */
+    public CommandResult execute(String userCommandText, Session session) throws Exception {
+        return execute(new Parser().parseCommand(userCommandText), session, result -> true);
     }
 
     /**
-     * Executes the command, updates storage, and returns the result.
+     * Executes the parsed command like {@link #execute(String)}, except that the result of a read-only command
+     * is only recorded as the last shown lists if {@code keepResult} accepts it; otherwise null is returned, as if
+     * the command had never run. A command that may change the address book is always completed and its result
+     * always recorded, so {@code keepResult} is not asked.
      *
-     * @param command user command
-     * @return result of the command
      * @throws Exception if there was any problem during command execution.
      */
-    private CommandResult execute(Command command) throws Exception {
-        command.setData(addressBook, lastShownPersonList, lastShownTagList);
-        CommandResult result = command.execute();
-        storage.save(addressBook);
+    public CommandResult execute(Command command, Predicate<CommandResult> keepResult) throws Exception {
+        return execute(command, defaultSession, keepResult);
+    }
+
+    /**
+     * Executes the parsed command in the given session like {@link #execute(Command, Predicate)}.
+     *
+     * @throws Exception if there was any problem during command execution.
+     */
+    public CommandResult execute(Command command, Session session, Predicate<CommandResult> keepResult)
+            throws Exception {
+        final CommandResult result = command.isReadOnly()
+                ? executeReadOnly(command, session)
+                : executeChange(command, session);
+        if (command.requiresFlush()) {
+            flush();
+        }
+        if (command.isReadOnly() && !keepResult.test(result)) {
+            return null;
+        }
+        session.recordResult(result);
+        return result;
+    }
+
+    /**
+     * Executes a read-only command, possibly in parallel with other read-only commands, and returns the result.
+     * Changes made to the address book outside of commands since the last save are then saved too.
+     */
+    private CommandResult executeReadOnly(Command command, Session session) throws Exception {
+        final CommandResult result;
+        final boolean hasUnsavedChanges;
+        lock.readLock().lock();
+        try {
+            command.setData(addressBook, session.getLastShownPersonList(), session.getLastShownTagList());
+            result = command.execute();
+            hasUnsavedChanges = addressBook.getModificationCount() != savedModificationCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (hasUnsavedChanges) {
+            lock.writeLock().lock();
+            try {
+                publishIfModified();
+                saveIfModified();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
         return result;
     }
 
-    /** Updates the {@link #lastShownList} if the result contains a list of Persons or a list of Tags. */
-    private void recordResult(CommandResult result) {
-        final Optional<List<? extends ReadOnlyPerson>> personList = result.getRelevantPersons();
-        final Optional<List<? extends ReadOnlyTag>> tagList = result.getRelevantTags();
-        if (personList.isPresent()) {
-            lastShownPersonList = personList.get();
+    /**
+     * Executes a command that may change the address book, on its own, updates storage if the address book
+     * was modified, and returns the result.
+     */
+    private CommandResult executeChange(Command command, Session session) throws Exception {
+        lock.writeLock().lock();
+        try {
+            command.setData(addressBook, session.getLastShownPersonList(), session.getLastShownTagList());
+            command.setUndoHistory(undoHistory, session);
+            command.setCheckpoint(this::saveCheckpoint);
+            undoHistory.endStep(); // changes made outside of commands are undone on their own
+            final long forgottenStepCount = undoHistory.getForgottenStepCount();
+            final CommandResult result;
+            try {
+                result = command.execute();
+            } finally {
+                undoHistory.endStep(session);
+            }
+            publishIfModified();
+            saveIfModified();
+            if (undoHistory.getForgottenStepCount() > forgottenStepCount) {
+                return new CommandResult(result.feedbackToUser + "\n" + Messages.MESSAGE_UNDO_HISTORY_FORGOTTEN,
+                        result.getRelevantPersons().orElse(null), result.getRelevantTags().orElse(null));
+            }
+            return result;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns once every change made so far is saved to storage.
+     * Changes are saved before each command returns unless they are saved in the background.
+     *
+     * @throws StorageFile.StorageOperationException if the address book could not be saved.
+     */
+    public void flush() throws StorageFile.StorageOperationException {
+        lock.writeLock().lock();
+        try {
+            saveIfModified();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (writeBehindSaver != null) {
+            writeBehindSaver.flush();
+        }
+    }
+
+    /**
+     * Saves the changes made so far by the running command, like after a command, but while it runs.
+     * Must only be called by the command, which holds the write lock.
+     */
+    private void saveCheckpoint() throws StorageFile.StorageOperationException {
+        publishIfModified();
+        saveIfModified();
+    }
+
+    /**
+     * Publishes the address book as the current version if it was modified since the current version was taken.
+     */
+    private void publishIfModified() {
+        if (addressBook.getModificationCount() != currentVersion.get().getModificationCount()) {
+            currentVersion.set(addressBook.snapshot());
+        }
+    }
+
+    /**
+     * Saves the address book to storage if it was modified since it was last saved.
+     * When saving in the background, the current version is handed to the writer instead.
+     *
+     * @throws StorageFile.StorageOperationException if the address book (or an earlier snapshot of it)
+     *         could not be saved.
+     */
+    private void saveIfModified() throws StorageFile.StorageOperationException {
+        final long modificationCount = addressBook.getModificationCount();
+        if (modificationCount == savedModificationCount) {
+            return;
         }
-        if (tagList.isPresent()) {
-            lastShownTagList = tagList.get();
+        if (writeBehindSaver == null) {
+            storage.save(addressBook);
+            savedModificationCount = modificationCount;
+        } else {
+            // the version is taken over even if an earlier failure is reported
+            publishIfModified();
+            savedModificationCount = modificationCount;
+            writeBehindSaver.submit(currentVersion.get());
         }
     }
 }
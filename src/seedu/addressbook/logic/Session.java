@@ -0,0 +1,59 @@
+package seedu.addressbook.logic;
+
+import seedu.addressbook.commands.CommandResult;
+import seedu.addressbook.data.person.ReadOnlyPerson;
+import seedu.addressbook.data.tag.ReadOnlyTag;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The state of one client of a {@link Logic}: the lists shown to it most recently, which index-based commands
+ * such as {@code delete 3} refer to. Clients sharing a logic, e.g. the GUI and connections to a command server,
+ * each have their own session, so that one client's listings do not change what another's indexes refer to.
+ *
+ * A session is meant to be used by one client at a time, but its lists can be read on any thread.
+ */
+public class Session {
+
+    /** The list of person shown to the client most recently. */
+    private volatile List<? extends ReadOnlyPerson> lastShownPersonList = Collections.emptyList();
+
+    /** The list of tag shown to the client most recently. */
+    private volatile List<? extends ReadOnlyTag> lastShownTagList = Collections.emptyList();
+
+    /**
+     * Unmodifiable view of the current last shown person list.
+     */
+    public List<ReadOnlyPerson> getLastShownPersonList() {
+        return Collections.unmodifiableList(lastShownPersonList);
+    }
+
+    /**
+     * Unmodifiable view of the current last shown tag list.
+     */
+    public List<ReadOnlyTag> getLastShownTagList() {
+        return Collections.unmodifiableList(lastShownTagList);
+    }
+
+    void setLastShownPersonList(List<? extends ReadOnlyPerson> newList) {
+        lastShownPersonList = newList;
+    }
+
+    void setLastShownTagList(List<? extends ReadOnlyTag> newList) {
+        lastShownTagList = newList;
+    }
+
+    /** Updates the last shown lists if the result contains a list of Persons or a list of Tags. */
+    void recordResult(CommandResult result) {
+        final Optional<List<? extends ReadOnlyPerson>> personList = result.getRelevantPersons();
+        final Optional<List<? extends ReadOnlyTag>> tagList = result.getRelevantTags();
+        if (personList.isPresent()) {
+            lastShownPersonList = personList.get();
+        }
+        if (tagList.isPresent()) {
+            lastShownTagList = tagList.get();
+        }
+    }
+}
@@ -0,0 +1,719 @@
+package seedu.addressbook.parser;
+
+import seedu.addressbook.data.exception.IllegalValueException;
+import seedu.addressbook.data.person.Address;
+import seedu.addressbook.data.person.Email;
+import seedu.addressbook.data.person.Name;
+import seedu.addressbook.data.person.Person;
+import seedu.addressbook.data.person.Phone;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.UniqueTagList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Parses files of contacts exported from other programs into persons, for importing them into the address book.
+ * Two formats are understood, told apart by the file extension:
+ *  - CSV ({@code .csv}): a first line naming the columns, then one person per record, which is a line unless
+ *    a quoted value spans several. The columns are name, phone, email, address and, optionally, tags separated
+ *    by spaces; other columns are ignored. Values containing commas, quotes or line breaks are quoted, with
+ *    quotes inside doubled, as spreadsheets write them; line breaks inside values become spaces.
+ *  - vCard ({@code .vcf} or {@code .vcard}): one card per person, from its FN (or N), first TEL, first EMAIL
+ *    and first ADR property, and its CATEGORIES as tags.
+ *
+ * Every detail is checked by the validation of its class, e.g. {@link Name} or {@link Tag}; phone numbers may
+ * also contain spaces, dashes, dots and brackets, and start with the plus sign of an international number, such
+ * as {@code +65 9123 4567}, all of which are dropped, keeping the country code. Details are imported as
+ * non-private.
+ *
+ * The file is read through a buffered channel a block at a time, so it may be larger than memory. Each block is
+ * cut after its last complete record and parsed into persons on a fork-join pool while the next blocks are
+ * read, and the parsed chunks are handed back in file order. A record that fails validation does not stop the
+ * others from being parsed: every failure is reported with the line its record starts at.
+ */
+public class ContactFileParser {
+
+    /** Default number of bytes read from the file at a time, and so the size of most chunks. */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    public static final String MESSAGE_UNKNOWN_FORMAT = "Only .csv, .vcf and .vcard files can be imported";
+    public static final String MESSAGE_MISSING_COLUMN = "The first line of a CSV file must name its columns, "
+            + "including %1$s";
+    public static final String MESSAGE_INVALID_RECORD = "Line %1$d: %2$s";
+    public static final String MESSAGE_UNCLOSED_QUOTE = "A quoted value is not closed";
+    public static final String MESSAGE_MISSING_PROPERTY = "The card has no %1$s";
+    public static final String MESSAGE_UNCLOSED_CARD = "The card is not ended by END:VCARD";
+
+    public static final String COLUMN_NAME = "name";
+    public static final String COLUMN_PHONE = "phone";
+    public static final String COLUMN_EMAIL = "email";
+    public static final String COLUMN_ADDRESS = "address";
+    public static final String COLUMN_TAGS = "tags";
+
+    /** A line break inside a value, with the spaces around it. */
+    private static final Pattern LINE_BREAK = Pattern.compile("\\s*\\r?\\n\\s*");
+
+    /** Characters that may separate the digits of a phone number, or start an international one. */
+    private static final Pattern PHONE_SEPARATORS = Pattern.compile("^\\s*\\+|[\\s\\-.()]");
+
+    /** Marks the start of some UTF-8 files, e.g. those written by spreadsheets; not part of the content. */
+    private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    /**
+     * The formats of contact files.
+     */
+    public enum Format {
+        CSV, VCARD;
+
+        /**
+         * Returns the format of the file at the given path, told by its extension.
+         *
+         * @throws IllegalValueException if the extension is not that of a known format.
+         */
+        public static Format of(String filePath) throws IllegalValueException {
+            final String lowerCasePath = filePath.toLowerCase(Locale.ROOT);
+            if (lowerCasePath.endsWith(".csv")) {
+                return CSV;
+            }
+            if (lowerCasePath.endsWith(".vcf") || lowerCasePath.endsWith(".vcard")) {
+                return VCARD;
+            }
+            throw new IllegalValueException(MESSAGE_UNKNOWN_FORMAT);
+        }
+    }
+
+    /**
+     * The records of part of a file: the persons that passed validation, in file order, and a description of
+     * each record that did not.
+     */
+    public static class Chunk {
+        public final List<Person> persons;
+        public final List<String> problems;
+
+        Chunk(List<Person> persons, List<String> problems) {
+            this.persons = Collections.unmodifiableList(persons);
+            this.problems = Collections.unmodifiableList(problems);
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int blockSize;
+
+    public ContactFileParser() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE);
+    }
+
+    public ContactFileParser(ForkJoinPool pool, int blockSize) {
+        this.pool = pool;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Parses the file, handing each chunk of it to the handler once parsed, in file order, on this thread.
+     *
+     * @throws IllegalValueException if the file is not of a known format, or a CSV file does not name the
+     *         required columns.
+     * @throws IOException if the file could not be read.
+     */
+    public void parse(Path file, Consumer<Chunk> handler) throws IllegalValueException, IOException {
+        final Format format = Format.of(file.toString());
+        // a few blocks parsed ahead keep the pool busy while the handler works, without holding the whole file
+        final int maxPendingChunks = 2 * pool.getParallelism();
+        final Deque<ForkJoinTask<Chunk>> pendingChunks = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(blockSize);
+            RecordFormat recordFormat = format == Format.VCARD ? new VCardFormat() : null;
+            int lineNumber = 1; // of the first line in the buffer
+            boolean isAtFileStart = true;
+            boolean isAtEnd = false;
+            while (!isAtEnd) {
+                isAtEnd = !fill(channel, buffer);
+                final byte[] bytes = buffer.array();
+                final int length = buffer.position();
+                int start = isAtFileStart && startsWithByteOrderMark(bytes, length) ? BYTE_ORDER_MARK.length : 0;
+                if (recordFormat == null) { // the first line of a CSV file names the columns
+                    int headerEnd = endOfLine(bytes, start, length);
+                    if (headerEnd < 0 && !isAtEnd) {
+                        buffer = grown(buffer);
+                        continue;
+                    }
+                    headerEnd = headerEnd < 0 ? length : headerEnd;
+                    recordFormat = new CsvFormat(decode(bytes, start, headerEnd));
+                    start = headerEnd;
+                    lineNumber++;
+                }
+                final int end = isAtEnd ? length : Math.max(start, recordFormat.endOfLastRecord(bytes, length));
+                if (end > start) {
+                    pendingChunks.add(pool.submit(new ChunkParse(recordFormat, lineNumber,
+                            Arrays.copyOfRange(bytes, start, end))));
+                    lineNumber += countLines(bytes, start, end);
+                }
+                System.arraycopy(bytes, end, bytes, 0, length - end);
+                buffer.position(length - end);
+                isAtFileStart = false;
+                if (!buffer.hasRemaining()) { // no record ends in the buffer
+                    buffer = grown(buffer);
+                }
+                while (pendingChunks.size() >= maxPendingChunks) {
+                    handler.accept(pendingChunks.remove().join());
+                }
+            }
+        } finally {
+            // let chunks already parsed be handled even if reading failed part way
+            while (!pendingChunks.isEmpty()) {
+                handler.accept(pendingChunks.remove().join());
+            }
+        }
+    }
+
+    private static boolean startsWithByteOrderMark(byte[] bytes, int length) {
+        return length >= BYTE_ORDER_MARK.length
+                && Arrays.equals(Arrays.copyOf(bytes, BYTE_ORDER_MARK.length), BYTE_ORDER_MARK);
+    }
+
+    /**
+     * Reads from the channel until the buffer is full or the channel is at its end.
+     *
+     * @return false if the channel is at its end.
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a buffer of twice the size with the same content, for a record longer than the buffer.
+     */
+    private static ByteBuffer grown(ByteBuffer buffer) {
+        final ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    /**
+     * Returns the position after the first line break in {@code bytes[from, to)}, or -1 if there is none.
+     */
+    private static int endOfLine(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int countLines(byte[] bytes, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Decodes the bytes as UTF-8. Cutting at line breaks never splits a character, as no byte of a multi-byte
+     * character is a line break.
+     */
+    private static String decode(byte[] bytes, int from, int to) {
+        return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a person with non-private details from the given values, validating each of them.
+     *
+     * @throws IllegalValueException if any of the values is invalid.
+     */
+    private static Person toPerson(String name, String phone, String email, String address, List<String> tagNames)
+            throws IllegalValueException {
+        final Set<Tag> tags = new HashSet<>();
+        for (String tagName : tagNames) {
+            tags.add(new Tag(tagName));
+        }
+        return new Person(
+                new Name(name),
+                new Phone(PHONE_SEPARATORS.matcher(phone).replaceAll(""), false),
+                new Email(email, false),
+                new Address(address, false),
+                new UniqueTagList(tags));
+    }
+
+    /**
+     * A way of writing records in a file.
+     */
+    private interface RecordFormat {
+
+        /**
+         * Returns the position after the last complete record in {@code bytes[0, length)}, or -1 if there is none.
+         */
+        int endOfLastRecord(byte[] bytes, int length);
+
+        /**
+         * Parses the records in the text, which starts at the given line of the file.
+         */
+        Chunk parse(String text, int firstLineNumber);
+    }
+
+    /**
+     * Records of comma-separated values, one per line unless a quoted value holds line breaks.
+     */
+    private static class CsvFormat implements RecordFormat {
+        private final int nameColumn;
+        private final int phoneColumn;
+        private final int emailColumn;
+        private final int addressColumn;
+        private final int tagsColumn;
+
+        /**
+         * @param header the first line of the file, naming the columns
+         * @throws IllegalValueException if a required column is not named.
+         */
+        CsvFormat(String header) throws IllegalValueException {
+            final List<String> columns = new ArrayList<>();
+            for (String column : splitRecord(header)) {
+                columns.add(column.trim().toLowerCase(Locale.ROOT));
+            }
+            nameColumn = requiredColumn(columns, COLUMN_NAME);
+            phoneColumn = requiredColumn(columns, COLUMN_PHONE);
+            emailColumn = requiredColumn(columns, COLUMN_EMAIL);
+            addressColumn = requiredColumn(columns, COLUMN_ADDRESS);
+            tagsColumn = columns.indexOf(COLUMN_TAGS);
+        }
+
+        private static int requiredColumn(List<String> columns, String column) throws IllegalValueException {
+            final int index = columns.indexOf(column);
+            if (index < 0) {
+                throw new IllegalValueException(String.format(MESSAGE_MISSING_COLUMN, column));
+            }
+            return index;
+        }
+
+        /**
+         * {@inheritDoc} The bytes must start at the start of a record. Bytes of multi-byte characters are never
+         * quotes, commas or line breaks, so the bytes can be scanned without decoding them.
+         */
+        @Override
+        public int endOfLastRecord(byte[] bytes, int length) {
+            final CsvScanner scanner = new CsvScanner();
+            int end = -1;
+            for (int i = 0; i < length; i++) {
+                if (scanner.next(bytes[i] & 0xFF) == CsvToken.RECORD_END) {
+                    end = i + 1;
+                }
+            }
+            return end;
+        }
+
+        @Override
+        public Chunk parse(String text, int firstLineNumber) {
+            final List<Person> persons = new ArrayList<>();
+            final List<String> problems = new ArrayList<>();
+            final CsvScanner scanner = new CsvScanner();
+            int lineNumber = firstLineNumber;
+            int recordStart = 0;
+            int recordLineNumber = firstLineNumber;
+            for (int i = 0; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                if (c == '\n') { // also inside quoted values, so that records are reported at their first line
+                    lineNumber++;
+                }
+                if (scanner.next(c) == CsvToken.RECORD_END) {
+                    parseRecord(text.substring(recordStart, i), recordLineNumber, persons, problems);
+                    recordStart = i + 1;
+                    recordLineNumber = lineNumber;
+                }
+            }
+            parseRecord(text.substring(recordStart), recordLineNumber, persons, problems);
+            return new Chunk(persons, problems);
+        }
+
+        private void parseRecord(String record, int lineNumber, List<Person> persons, List<String> problems) {
+            if (record.trim().isEmpty()) {
+                return;
+            }
+            try {
+                persons.add(toPerson(splitRecord(record)));
+            } catch (IllegalValueException ive) {
+                problems.add(String.format(MESSAGE_INVALID_RECORD, lineNumber, ive.getMessage()));
+            }
+        }
+
+        private Person toPerson(List<String> values) throws IllegalValueException {
+            final String tags = valueAt(values, tagsColumn).trim();
+            return ContactFileParser.toPerson(valueAt(values, nameColumn), valueAt(values, phoneColumn),
+                    valueAt(values, emailColumn), valueAt(values, addressColumn),
+                    tags.isEmpty() ? Collections.emptyList() : Arrays.asList(tags.split("\\s+")));
+        }
+
+        private static String valueAt(List<String> values, int column) {
+            return column >= 0 && column < values.size() ? values.get(column) : "";
+        }
+
+        /**
+         * Splits a record into its comma-separated values, unquoting quoted values and replacing the line breaks
+         * in them with spaces.
+         *
+         * @throws IllegalValueException if a quoted value is not closed.
+         */
+        private static List<String> splitRecord(String record) throws IllegalValueException {
+            final List<String> values = new ArrayList<>();
+            final StringBuilder value = new StringBuilder();
+            final CsvScanner scanner = new CsvScanner();
+            final int length = record.endsWith("\r") ? record.length() - 1 : record.length();
+            for (int i = 0; i < length; i++) {
+                final char c = record.charAt(i);
+                switch (scanner.next(c)) {
+                case CONTENT:
+                    value.append(c);
+                    break;
+                case QUOTE_START:
+                    value.setLength(0); // spaces before the quote are not part of the value
+                    break;
+                case VALUE_END:
+                    values.add(withoutLineBreaks(value));
+                    value.setLength(0);
+                    break;
+                default:
+                    break;
+                }
+            }
+            if (scanner.isInQuotes()) {
+                throw new IllegalValueException(MESSAGE_UNCLOSED_QUOTE);
+            }
+            values.add(withoutLineBreaks(value));
+            return values;
+        }
+
+        private static String withoutLineBreaks(CharSequence value) {
+            final String text = value.toString();
+            return text.indexOf('\n') < 0 ? text : LINE_BREAK.matcher(text).replaceAll(" ");
+        }
+    }
+
+    /**
+     * What a character of CSV text is to the record it is in.
+     */
+    private enum CsvToken {
+        /** Part of a value, including a quote doubled inside a quoted value. */
+        CONTENT,
+        /** The quote opening a quoted value. */
+        QUOTE_START,
+        /** A quote closing a quoted value, or the first quote of a doubled one. */
+        QUOTE,
+        /** The comma ending a value. */
+        VALUE_END,
+        /** The line break ending a record. */
+        RECORD_END
+    }
+
+    /**
+     * Reads CSV text a character at a time from the start of a record, telling quotes around values apart from
+     * quotes inside them, and line breaks ending records apart from line breaks inside quoted values.
+     * A quote only opens a quoted value at the start of the value, possibly after spaces.
+     */
+    private static class CsvScanner {
+        private boolean isQuoted;
+        /** True if the previous character was a quote inside a quoted value, which closes it unless doubled. */
+        private boolean isAfterQuote;
+        private boolean isValueBlank = true;
+
+        CsvToken next(int c) {
+            if (isAfterQuote) {
+                isAfterQuote = false;
+                if (c == '"') {
+                    return CsvToken.CONTENT;
+                }
+                isQuoted = false;
+            } else if (isQuoted) {
+                if (c == '"') {
+                    isAfterQuote = true;
+                    return CsvToken.QUOTE;
+                }
+                return CsvToken.CONTENT;
+            }
+            switch (c) {
+            case '\n':
+                isValueBlank = true;
+                return CsvToken.RECORD_END;
+            case ',':
+                isValueBlank = true;
+                return CsvToken.VALUE_END;
+            case '"':
+                if (isValueBlank) {
+                    isQuoted = true;
+                    isValueBlank = false;
+                    return CsvToken.QUOTE_START;
+                }
+                return CsvToken.CONTENT;
+            default:
+                if (c > ' ') {
+                    isValueBlank = false;
+                }
+                return CsvToken.CONTENT;
+            }
+        }
+
+        /**
+         * Returns true if the text read so far ends inside a quoted value.
+         */
+        boolean isInQuotes() {
+            return isQuoted && !isAfterQuote;
+        }
+    }
+
+    /**
+     * Records of vCard properties, from a BEGIN:VCARD line to an END:VCARD line.
+     */
+    private static class VCardFormat implements RecordFormat {
+        private static final String BEGIN = "BEGIN:VCARD";
+        private static final String END = "END:VCARD";
+        private static final byte[] END_BYTES = END.getBytes(StandardCharsets.US_ASCII);
+
+        @Override
+        public int endOfLastRecord(byte[] bytes, int length) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (bytes[i] == '\n' && endsWithEnd(bytes, i)) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns true if the line ending at the given line break is an END:VCARD line.
+         */
+        private static boolean endsWithEnd(byte[] bytes, int lineBreak) {
+            int lineEnd = lineBreak;
+            while (lineEnd > 0 && (bytes[lineEnd - 1] == '\r' || bytes[lineEnd - 1] == ' ')) {
+                lineEnd--;
+            }
+            final int lineStart = lineEnd - END_BYTES.length;
+            if (lineStart < 0 || lineStart > 0 && bytes[lineStart - 1] != '\n') {
+                return false;
+            }
+            for (int i = 0; i < END_BYTES.length; i++) {
+                if (Character.toUpperCase(bytes[lineStart + i]) != END_BYTES[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Chunk parse(String text, int firstLineNumber) {
+            final List<Person> persons = new ArrayList<>();
+            final List<String> problems = new ArrayList<>();
+            Card card = null;
+            String property = null; // the current property, with its folded lines joined
+            int lineNumber = firstLineNumber - 1;
+            for (String line : text.split("\r?\n", -1)) {
+                lineNumber++;
+                if (property != null && (line.startsWith(" ") || line.startsWith("\t"))) {
+                    property += line.substring(1);
+                    continue;
+                }
+                if (card != null && property != null) {
+                    card.add(property);
+                }
+                property = null;
+                final String trimmed = line.trim();
+                if (trimmed.equalsIgnoreCase(BEGIN)) {
+                    if (card != null) {
+                        problems.add(String.format(MESSAGE_INVALID_RECORD, card.lineNumber, MESSAGE_UNCLOSED_CARD));
+                    }
+                    card = new Card(lineNumber);
+                } else if (trimmed.equalsIgnoreCase(END) && card != null) {
+                    try {
+                        persons.add(card.toPerson());
+                    } catch (IllegalValueException ive) {
+                        problems.add(String.format(MESSAGE_INVALID_RECORD, card.lineNumber, ive.getMessage()));
+                    }
+                    card = null;
+                } else if (card != null && !trimmed.isEmpty()) {
+                    property = line;
+                }
+            }
+            if (card != null) {
+                problems.add(String.format(MESSAGE_INVALID_RECORD, card.lineNumber, MESSAGE_UNCLOSED_CARD));
+            }
+            return new Chunk(persons, problems);
+        }
+    }
+
+    /**
+     * The properties of a vCard read so far.
+     */
+    private static class Card {
+        private final int lineNumber;
+        private String formattedName;
+        private String structuredName;
+        private String phone;
+        private String email;
+        private String address;
+        private final List<String> tagNames = new ArrayList<>();
+
+        /**
+         * @param lineNumber line of the file the card begins at
+         */
+        Card(int lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+
+        /**
+         * Takes in a property line, such as {@code TEL;TYPE=cell:9123 4567}.
+         */
+        void add(String property) {
+            final int colon = property.indexOf(':');
+            if (colon < 0) {
+                return;
+            }
+            String key = property.substring(0, colon);
+            final int parametersStart = key.indexOf(';');
+            if (parametersStart >= 0) {
+                key = key.substring(0, parametersStart);
+            }
+            key = key.substring(key.indexOf('.') + 1).trim().toUpperCase(Locale.ROOT); // drop any group
+            final String value = property.substring(colon + 1);
+            switch (key) {
+            case "FN":
+                formattedName = unescape(value);
+                break;
+            case "N":
+                structuredName = joinComponents(value, " ", 1, 0); // given name, then family name
+                break;
+            case "TEL":
+                phone = phone == null ? unescape(value) : phone;
+                break;
+            case "EMAIL":
+                email = email == null ? unescape(value) : email;
+                break;
+            case "ADR":
+                // post office box, extended address, street, locality, region, postal code, country
+                address = address == null ? joinComponents(value, ", ", 0, 1, 2, 3, 4, 5, 6) : address;
+                break;
+            case "CATEGORIES":
+                for (String category : splitUnescaped(value, ',')) {
+                    if (!category.trim().isEmpty()) {
+                        tagNames.add(category);
+                    }
+                }
+                break;
+            default:
+                break;
+            }
+        }
+
+        Person toPerson() throws IllegalValueException {
+            final String name = formattedName != null && !formattedName.trim().isEmpty()
+                    ? formattedName : structuredName;
+            return ContactFileParser.toPerson(required(name, "FN"), required(phone, "TEL"), required(email, "EMAIL"),
+                    required(address, "ADR"), tagNames);
+        }
+
+        private static String required(String value, String key) throws IllegalValueException {
+            if (value == null || value.trim().isEmpty()) {
+                throw new IllegalValueException(String.format(MESSAGE_MISSING_PROPERTY, key));
+            }
+            return value;
+        }
+
+        /**
+         * Joins the non-empty components, at the given positions, of a value of components separated by ';'.
+         */
+        private static String joinComponents(String value, String separator, int... positions) {
+            final List<String> components = splitUnescaped(value, ';');
+            final List<String> joined = new ArrayList<>();
+            for (int position : positions) {
+                if (position < components.size() && !components.get(position).trim().isEmpty()) {
+                    joined.add(components.get(position).trim());
+                }
+            }
+            return String.join(separator, joined);
+        }
+
+        /**
+         * Splits the value at every separator not escaped by a backslash, and unescapes the parts.
+         */
+        private static List<String> splitUnescaped(String value, char separator) {
+            final List<String> parts = new ArrayList<>();
+            int partStart = 0;
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == separator) {
+                    parts.add(unescape(value.substring(partStart, i)));
+                    partStart = i + 1;
+                }
+            }
+            parts.add(unescape(value.substring(partStart)));
+            return parts;
+        }
+
+        /**
+         * Replaces the escape sequences of a value with the characters they stand for; line breaks become spaces.
+         */
+        private static String unescape(String value) {
+            if (value.indexOf('\\') < 0) {
+                return value;
+            }
+            final StringBuilder unescaped = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\' && i + 1 < value.length()) {
+                    c = value.charAt(++i);
+                    if (c == 'n' || c == 'N') {
+                        c = ' ';
+                    }
+                }
+                unescaped.append(c);
+            }
+            return unescaped.toString();
+        }
+    }
+
+    /**
+     * Decodes and parses the records of one chunk of a file.
+     */
+    private static class ChunkParse extends RecursiveTask<Chunk> {
+        private final RecordFormat format;
+        private final int firstLineNumber;
+        private final byte[] bytes;
+
+        ChunkParse(RecordFormat format, int firstLineNumber, byte[] bytes) {
+            this.format = format;
+            this.firstLineNumber = firstLineNumber;
+            this.bytes = bytes;
+        }
+
+        @Override
+        protected Chunk compute() {
+            return format.parse(decode(bytes, 0, bytes.length), firstLineNumber);
+        }
+    }
+}
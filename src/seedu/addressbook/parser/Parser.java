@@ -3,6 +3,7 @@ package seedu.addressbook.parser;
 import seedu.addressbook.commands.*;
 import seedu.addressbook.common.Prefixes;
 import seedu.addressbook.data.exception.IllegalValueException;
+import seedu.addressbook.data.person.SortOrder;
 
 import java.util.*;
 import java.util.regex.Matcher;
@@ -80,7 +81,7 @@ public class Parser {
             return prepareFind(arguments);
 
         case SortCommand.COMMAND_WORD:
-            return new SortCommand();
+            return prepareSort(arguments);
 
         case ListCommand.COMMAND_WORD:
             return new ListCommand();
@@ -90,6 +91,9 @@ public class Parser {
 
         case ListTagCommand.COMMAND_WORD:
             return new ListTagCommand();
+
+        case CountTagCommand.COMMAND_WORD:
+            return new CountTagCommand();
 		
 		case RenameTagCommand.COMMAND_WORD:
             return prepareRenameTag(arguments);
@@ -97,6 +101,21 @@ public class Parser {
         case ViewAllCommand.COMMAND_WORD:
             return prepareViewAll(arguments);
 
+        case FlushCommand.COMMAND_WORD:
+            return new FlushCommand();
+
+        case RunCommand.COMMAND_WORD:
+            return prepareRun(arguments);
+
+        case ImportCommand.COMMAND_WORD:
+            return prepareImport(arguments);
+
+        case UndoCommand.COMMAND_WORD:
+            return new UndoCommand();
+
+        case RedoCommand.COMMAND_WORD:
+            return new RedoCommand();
+
         case ExitCommand.COMMAND_WORD:
             return new ExitCommand();
 
@@ -194,6 +213,29 @@ public class Parser {
         }
     }
     
+    /**
+     * Parses arguments in the context of the sort command.
+     *
+     * @param args full command args string
+     * @return the prepared command
+     */
+    private Command prepareSort(String args) {
+        String orderArgs = args.trim();
+        final boolean keepSorted = orderArgs.equals(SortCommand.KEEP_SORTED_WORD)
+                || orderArgs.endsWith(" " + SortCommand.KEEP_SORTED_WORD);
+        if (keepSorted) {
+            orderArgs = orderArgs.substring(0, orderArgs.length() - SortCommand.KEEP_SORTED_WORD.length()).trim();
+        }
+        if (orderArgs.isEmpty()) {
+            return new SortCommand(SortOrder.BY_NAME, keepSorted);
+        }
+        try {
+            return new SortCommand(new SortOrder(orderArgs), keepSorted);
+        } catch (IllegalValueException ive) {
+            return new IncorrectCommand(ive.getMessage());
+        }
+    }
+
     /**
      * Parses arguments in the context of the rename tag command.
      *
@@ -343,10 +385,65 @@ public class Parser {
                     FindCommand.MESSAGE_USAGE));
         }
 
-        // keywords delimited by whitespace
-        final String[] keywords = matcher.group("keywords").split("\\s+");
-        final Set<String> keywordSet = new HashSet<>(Arrays.asList(keywords));
-        return new FindCommand(keywordSet);
+        // keywords delimited by whitespace, optionally followed by a limit
+        final List<String> keywords = new ArrayList<>(Arrays.asList(matcher.group("keywords").split("\\s+")));
+        int limit = FindCommand.NO_LIMIT;
+        final String last = keywords.get(keywords.size() - 1);
+        if (last.startsWith(Prefixes.LIMIT)) {
+            try {
+                limit = Integer.parseInt(last.substring(Prefixes.LIMIT.length()));
+            } catch (NumberFormatException nfe) {
+                limit = FindCommand.NO_LIMIT;
+            }
+            keywords.remove(keywords.size() - 1);
+            if (limit <= 0 || keywords.isEmpty()) {
+                return new IncorrectCommand(String.format(MESSAGE_INVALID_COMMAND_FORMAT,
+                        FindCommand.MESSAGE_USAGE));
+            }
+        }
+        return new FindCommand(new HashSet<>(keywords), limit);
+    }
+
+    /**
+     * Parses arguments in the context of the run command.
+     *
+     * @param args full command args string
+     * @return the prepared command
+     */
+    private Command prepareRun(String args) {
+        String filePath = args.trim();
+        int checkpointInterval = RunCommand.NO_CHECKPOINTS;
+        final int lastSpace = filePath.lastIndexOf(' ');
+        final String last = filePath.substring(lastSpace + 1);
+        if (last.startsWith(Prefixes.CHECKPOINT)) {
+            try {
+                checkpointInterval = Integer.parseInt(last.substring(Prefixes.CHECKPOINT.length()));
+            } catch (NumberFormatException nfe) {
+                checkpointInterval = RunCommand.NO_CHECKPOINTS;
+            }
+            filePath = lastSpace < 0 ? "" : filePath.substring(0, lastSpace).trim();
+            if (checkpointInterval <= 0) {
+                filePath = "";
+            }
+        }
+        if (filePath.isEmpty()) {
+            return new IncorrectCommand(String.format(MESSAGE_INVALID_COMMAND_FORMAT, RunCommand.MESSAGE_USAGE));
+        }
+        return new RunCommand(filePath, checkpointInterval);
+    }
+
+    /**
+     * Parses arguments in the context of the import command.
+     *
+     * @param args full command args string
+     * @return the prepared command
+     */
+    private Command prepareImport(String args) {
+        final String filePath = args.trim();
+        if (filePath.isEmpty()) {
+            return new IncorrectCommand(String.format(MESSAGE_INVALID_COMMAND_FORMAT, ImportCommand.MESSAGE_USAGE));
+        }
+        return new ImportCommand(filePath);
     }
 
 
@@ -0,0 +1,222 @@
+package seedu.addressbook.storage;
+
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.data.exception.IllegalValueException;
+import seedu.addressbook.data.person.*;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.TagIdSet;
+import seedu.addressbook.data.tag.UniqueTagList;
+import seedu.addressbook.storage.StorageFile.StorageOperationException;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Stores address book data in a compact binary layout.
+ *
+ * Layout, in order:
+ *  - magic number and format version
+ *  - a byte of address book flags, followed by the sort order if the persons are kept sorted (since version 2)
+ *  - tag table: the master tag list, each name written once
+ *  - persons: a byte of privacy flags, then name, phone, email and address,
+ *    then the person's tags as positions in the tag table
+ *  - CRC32 of everything before it
+ *
+ * Counts, lengths and tag positions are unsigned variable-length integers.
+ * Strings are written as their UTF-8 byte length followed by the bytes.
+ */
+public class BinaryStorageFormat implements StorageFormat {
+
+    private static final int MAGIC = 0x41424B42; // "ABKB"
+    private static final short VERSION = 2;
+    private static final short VERSION_WITHOUT_FLAGS = 1;
+
+    private static final int KEPT_SORTED = 1;
+
+    private static final int PHONE_PRIVATE = 1;
+    private static final int EMAIL_PRIVATE = 1 << 1;
+    private static final int ADDRESS_PRIVATE = 1 << 2;
+
+    private static final int CHECKSUM_LENGTH = 4;
+
+    @Override
+    public void write(AddressBook addressBook, OutputStream out) throws IOException {
+        final CRC32 crc = new CRC32();
+        final DataOutputStream data = new DataOutputStream(new CheckedOutputStream(out, crc));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeByte(addressBook.isKeptSorted() ? KEPT_SORTED : 0);
+        if (addressBook.isKeptSorted()) {
+            writeString(data, addressBook.getSortOrder().toString());
+        }
+
+        final List<Tag> tags = new ArrayList<>();
+        final Map<Tag, Integer> tagPositions = new HashMap<>();
+        for (Tag tag : addressBook.getAllTags()) {
+            tagPositions.put(tag, tags.size());
+            tags.add(tag);
+        }
+        writeUnsigned(data, tags.size());
+        for (Tag tag : tags) {
+            writeString(data, tag.tagName);
+        }
+
+        final List<ReadOnlyPerson> persons = addressBook.getAllPersons();
+        writeUnsigned(data, persons.size());
+        for (ReadOnlyPerson person : persons) {
+            data.writeByte(privacyFlagsOf(person));
+            writeString(data, person.getName().fullName);
+            writeString(data, person.getPhone().value);
+            writeString(data, person.getEmail().value);
+            writeString(data, person.getAddress().value);
+            final TagIdSet personTags = person.getTagIds();
+            writeUnsigned(data, personTags.size());
+            for (int i = 0; i < personTags.size(); i++) {
+                // every tag of a person is in the master tag list
+                writeUnsigned(data, tagPositions.get(personTags.tagAt(i)));
+            }
+        }
+
+        data.flush();
+        data.writeInt((int) crc.getValue());
+        data.flush();
+    }
+
+    @Override
+    public AddressBook read(Path file) throws IOException, StorageOperationException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            verifyChecksum(buffer);
+            if (buffer.getInt() != MAGIC) {
+                throw new StorageOperationException("Error parsing file data format");
+            }
+            final short version = buffer.getShort();
+            if (version != VERSION && version != VERSION_WITHOUT_FLAGS) {
+                throw new StorageOperationException("Unsupported storage file version: " + version);
+            }
+            final int flags = version == VERSION_WITHOUT_FLAGS ? 0 : buffer.get();
+            final SortOrder keptSortedBy = (flags & KEPT_SORTED) != 0 ? new SortOrder(readString(buffer)) : null;
+
+            final Tag[] tags = new Tag[readUnsigned(buffer)];
+            for (int i = 0; i < tags.length; i++) {
+                tags[i] = new Tag(readString(buffer));
+            }
+
+            final int personCount = readUnsigned(buffer);
+            final List<Person> persons = new ArrayList<>(Math.min(personCount, buffer.remaining()));
+            for (int i = 0; i < personCount; i++) {
+                persons.add(readPerson(buffer, tags));
+            }
+            if (buffer.remaining() != CHECKSUM_LENGTH) {
+                throw new StorageOperationException("Error parsing file data format");
+            }
+
+            final UniqueTagList tagList = new UniqueTagList();
+            for (Tag tag : tags) {
+                tagList.add(tag);
+            }
+            final UniquePersonList personList = new UniquePersonList(persons);
+            if (keptSortedBy != null) {
+                personList.sort(keptSortedBy, true); // the persons were saved sorted, so this is quick
+            }
+            return new AddressBook(personList, tagList);
+
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new StorageOperationException("Error parsing file data format");
+        } catch (IllegalValueException ive) {
+            throw new StorageOperationException("File contains illegal data values; data type constraints not met");
+        }
+    }
+
+    private static Person readPerson(ByteBuffer buffer, Tag[] tags) throws IllegalValueException {
+        final int privacyFlags = buffer.get();
+        final Name name = new Name(readString(buffer));
+        final Phone phone = new Phone(readString(buffer), (privacyFlags & PHONE_PRIVATE) != 0);
+        final Email email = new Email(readString(buffer), (privacyFlags & EMAIL_PRIVATE) != 0);
+        final Address address = new Address(readString(buffer), (privacyFlags & ADDRESS_PRIVATE) != 0);
+        final int tagCount = readUnsigned(buffer);
+        final Set<Tag> personTags = new LinkedHashSet<>();
+        for (int i = 0; i < tagCount; i++) {
+            personTags.add(tags[readUnsigned(buffer)]);
+        }
+        return new Person(name, phone, email, address, new UniqueTagList(personTags));
+    }
+
+    private static int privacyFlagsOf(ReadOnlyPerson person) {
+        return (person.getPhone().isPrivate() ? PHONE_PRIVATE : 0)
+                | (person.getEmail().isPrivate() ? EMAIL_PRIVATE : 0)
+                | (person.getAddress().isPrivate() ? ADDRESS_PRIVATE : 0);
+    }
+
+    /**
+     * Checks the CRC32 at the end of the buffer against the bytes before it.
+     */
+    private static void verifyChecksum(ByteBuffer buffer) throws StorageOperationException {
+        final int contentLength = buffer.limit() - CHECKSUM_LENGTH;
+        if (contentLength < 0) {
+            throw new StorageOperationException("Error parsing file data format");
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset(), contentLength);
+        if ((int) crc.getValue() != buffer.getInt(contentLength)) {
+            throw new StorageOperationException("Storage file is corrupted: checksum mismatch");
+        }
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsigned(data, bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final int length = readUnsigned(buffer);
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Writes a non-negative int in 7-bit groups, lowest group first; the high bit of a byte marks that more follow.
+     */
+    private static void writeUnsigned(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    private static int readUnsigned(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IndexOutOfBoundsException("Malformed length or count");
+    }
+}
@@ -0,0 +1,156 @@
+package seedu.addressbook.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of text records describing changes made since a given snapshot.
+ *
+ * The first line is a header naming the fingerprint of the snapshot the records apply to.
+ * Each following line holds one record, prefixed with the CRC32 of its text, so that a record
+ * cut short by a crash can be told apart from a complete one and dropped.
+ */
+public class Journal {
+
+    private static final String HEADER_PREFIX = "AddressBookJournal v1 ";
+    private static final char RECORD_END = '\n';
+
+    public final Path path;
+
+    public Journal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads the complete records that apply to the snapshot with the given fingerprint.
+     * Any torn record at the end of the file is cut off, so that later appends follow the last complete record.
+     * Returns null if there is no journal or it belongs to a different snapshot; its records are then ignored,
+     * and records must not be appended to it before it is {@link #reset(long) reset}.
+     *
+     * @throws IOException if the journal could not be read or repaired.
+     */
+    public List<String> recover(long snapshotFingerprint) throws IOException {
+        final byte[] content;
+        try {
+            content = Files.readAllBytes(path);
+        } catch (NoSuchFileException nsfe) {
+            return null;
+        }
+
+        final List<String> records = new ArrayList<>();
+        int lineStart = 0;
+        int validLength = 0;
+        boolean isHeaderRead = false;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != RECORD_END) {
+                continue;
+            }
+            final String line = new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            if (!isHeaderRead) {
+                if (!line.equals(header(snapshotFingerprint))) {
+                    return null;
+                }
+                isHeaderRead = true;
+            } else {
+                final String record = checkedRecord(line);
+                if (record == null) {
+                    break;
+                }
+                records.add(record);
+            }
+            lineStart = i + 1;
+            validLength = lineStart;
+        }
+
+        if (!isHeaderRead) {
+            return null;
+        }
+        if (validLength < content.length) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Appends the records to the journal and forces them to the storage device before returning.
+     *
+     * @throws IOException if the records could not be written.
+     */
+    public void append(List<String> records) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (String record : records) {
+            final byte[] text = record.getBytes(StandardCharsets.UTF_8);
+            bytes.write(String.format("%08x ", crcOf(text)).getBytes(StandardCharsets.US_ASCII));
+            bytes.write(text);
+            bytes.write(RECORD_END);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND, StandardOpenOption.CREATE)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Atomically replaces the journal with an empty one for the snapshot with the given fingerprint.
+     *
+     * @throws IOException if the journal could not be replaced.
+     */
+    public void reset(long snapshotFingerprint) throws IOException {
+        final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(
+                    (header(snapshotFingerprint) + RECORD_END).getBytes(StandardCharsets.US_ASCII));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String header(long snapshotFingerprint) {
+        return HEADER_PREFIX + Long.toHexString(snapshotFingerprint);
+    }
+
+    /**
+     * Returns the record text in the line, or null if the line does not hold a complete record.
+     */
+    private static String checkedRecord(String line) {
+        final int separator = line.indexOf(' ');
+        if (separator < 0) {
+            return null;
+        }
+        final String record = line.substring(separator + 1);
+        try {
+            final long expectedCrc = Long.parseLong(line.substring(0, separator), 16);
+            return expectedCrc == crcOf(record.getBytes(StandardCharsets.UTF_8)) ? record : null;
+        } catch (NumberFormatException nfe) {
+            return null;
+        }
+    }
+
+    private static long crcOf(byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,397 @@
+package seedu.addressbook.storage;
+
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.data.AddressBookChange;
+import seedu.addressbook.data.AddressBookChange.ChangeNotApplicableException;
+import seedu.addressbook.data.exception.IllegalValueException;
+import seedu.addressbook.data.person.*;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.UniqueTagList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Represents a storage file that is kept up to date through a journal of changes.
+ *
+ * Instead of rewriting the whole file after every command, each change made to the loaded address book
+ * is appended as a small record to a journal file beside it. Once the journal holds
+ * {@link #compactionThreshold} records, the whole address book is written to the storage file as a
+ * snapshot and the journal is emptied. Loading reads the snapshot and replays the journal on top of it.
+ * Changes that cannot be described by a record, such as restoring an earlier version of the address book,
+ * make the next save write a snapshot instead.
+ */
+public class JournaledStorageFile extends StorageFile implements AddressBook.ChangeListener {
+
+    /** Default number of journal records after which the journal is compacted into a snapshot. */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    /** Suffix appended to the storage file path to get the journal file path. */
+    public static final String JOURNAL_SUFFIX = ".journal";
+
+    private static final char FIELD_SEPARATOR = '\t';
+    private static final String TAG_SEPARATOR = ",";
+
+    private static final String RECORD_ADD = "add";
+    private static final String RECORD_INSERT = "insert";
+    private static final String RECORD_REMOVE = "remove";
+    private static final String RECORD_REPLACE = "replace";
+    private static final String RECORD_ADD_TAG = "addtag";
+    private static final String RECORD_REMOVE_TAG = "removetag";
+    private static final String RECORD_RENAME_TAG = "renametag";
+    private static final String RECORD_CLEAR = "clear";
+    private static final String RECORD_SORT = "sort";
+
+    private final Journal journal;
+    private final int compactionThreshold;
+
+    /** The address book whose changes are being journaled, or null if none is yet. */
+    private AddressBook trackedAddressBook;
+
+    /** Records of changes to the tracked address book that are not in the journal yet. */
+    private final List<String> pendingRecords = new ArrayList<>();
+
+    /** True if the tracked address book had a change that no record can describe since it was last saved. */
+    private boolean isSnapshotRequired;
+
+    /** Number of records in the journal since the last snapshot. */
+    private int journalRecordCount;
+
+    /**
+     * @throws InvalidStorageFilePathException if the default path is invalid
+     */
+    public JournaledStorageFile() throws InvalidStorageFilePathException {
+        this(DEFAULT_STORAGE_FILEPATH, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * @param compactionThreshold number of journal records after which a snapshot is written
+     * @throws InvalidStorageFilePathException if the given file path is invalid
+     */
+    public JournaledStorageFile(String filePath, int compactionThreshold) throws InvalidStorageFilePathException {
+        this(filePath, compactionThreshold, 0);
+    }
+
+    /**
+     * @param compactionThreshold number of journal records after which a snapshot is written
+     * @param backupCount number of previous snapshots to keep as backups
+     * @throws InvalidStorageFilePathException if the given file path is invalid
+     */
+    public JournaledStorageFile(String filePath, int compactionThreshold, int backupCount)
+            throws InvalidStorageFilePathException {
+        super(filePath, backupCount);
+        this.journal = new Journal(path.resolveSibling(path.getFileName() + JOURNAL_SUFFIX));
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Persists all changes made to the address book since the last save.
+     * Only the journal is written, unless it is due for compaction or the address book is not the one
+     * last loaded or saved through this storage file; then a full snapshot is written instead.
+     *
+     * @throws StorageOperationException if there were errors converting and/or storing data to file.
+     */
+    @Override
+    public void save(AddressBook addressBook) throws StorageOperationException {
+        if (addressBook != trackedAddressBook || isSnapshotRequired) {
+            compact(addressBook);
+            return;
+        }
+        if (pendingRecords.isEmpty()) {
+            return;
+        }
+        try {
+            journal.append(pendingRecords);
+        } catch (IOException ioe) {
+            throw new StorageOperationException("Error writing to file: " + journal.path + " error: "
+                    + ioe.getMessage());
+        }
+        journalRecordCount += pendingRecords.size();
+        pendingRecords.clear();
+        if (journalRecordCount >= compactionThreshold) {
+            compact(addressBook);
+        }
+    }
+
+    /**
+     * Loads the latest snapshot and replays the journal on top of it.
+     * A record cut short by a crash at the end of the journal is dropped.
+     * If a backup was loaded instead, or the journal belongs to another snapshot, the journal is ignored,
+     * and the next save writes a snapshot, so that no later change is appended to a journal that is ignored.
+     *
+     * @throws StorageOperationException if there were errors reading and/or converting data from file.
+     */
+    @Override
+    public AddressBook load() throws StorageOperationException {
+        final AddressBook loaded = super.load();
+        if (loaded == trackedAddressBook) { // storage file was missing and an empty snapshot was just written
+            return loaded;
+        }
+
+        final List<String> records;
+        try {
+            // the journal belongs to the storage file, not to a backup loaded because the file could not be read
+            records = isLoadedFromBackup() ? null : journal.recover(fingerprintOfSnapshot());
+        } catch (IOException ioe) {
+            throw new StorageOperationException("Error reading from file: " + journal.path);
+        }
+        if (records == null) {
+            track(loaded, 0);
+            isSnapshotRequired = true;
+            return loaded;
+        }
+        for (String record : records) {
+            try {
+                decode(record).applyTo(loaded);
+            } catch (IllegalValueException | ChangeNotApplicableException e) {
+                throw new StorageOperationException("Journal record does not match the stored data: " + record);
+            }
+        }
+        track(loaded, records.size());
+        return loaded;
+    }
+
+    @Override
+    public void onChange(AddressBookChange change) {
+        if (change instanceof AddressBookChange.Restored) {
+            isSnapshotRequired = true;
+            return;
+        }
+        pendingRecords.add(encode(change));
+    }
+
+    /**
+     * Writes the whole address book as a new snapshot and starts an empty journal for it.
+     */
+    private void compact(AddressBook addressBook) throws StorageOperationException {
+        super.save(addressBook);
+        try {
+            journal.reset(fingerprintOfSnapshot());
+        } catch (IOException ioe) {
+            throw new StorageOperationException("Error writing to file: " + journal.path + " error: "
+                    + ioe.getMessage());
+        }
+        track(addressBook, 0);
+    }
+
+    private void track(AddressBook addressBook, int recordsInJournal) {
+        if (trackedAddressBook != addressBook) {
+            if (trackedAddressBook != null) {
+                trackedAddressBook.removeChangeListener(this);
+            }
+            addressBook.addChangeListener(this);
+            trackedAddressBook = addressBook;
+        }
+        pendingRecords.clear();
+        isSnapshotRequired = false;
+        journalRecordCount = recordsInJournal;
+    }
+
+    /**
+     * Returns a checksum of the snapshot file, used to tell which snapshot a journal belongs to.
+     */
+    private long fingerprintOfSnapshot() throws StorageOperationException {
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = new CheckedInputStream(Files.newInputStream(path), crc)) {
+            while (in.read(buffer) != -1) {
+                // reading updates the checksum
+            }
+        } catch (NoSuchFileException nsfe) {
+            return 0;
+        } catch (IOException ioe) {
+            throw new StorageOperationException("Error reading from file: " + path);
+        }
+        return crc.getValue();
+    }
+
+    /*
+     * Record format: the record type followed by its fields, separated by tabs.
+     * Tabs, line breaks and backslashes inside fields are escaped with a backslash.
+     */
+
+    private static String encode(AddressBookChange change) {
+        final List<String> fields = new ArrayList<>();
+        if (change instanceof AddressBookChange.PersonAdded) {
+            final AddressBookChange.PersonAdded added = (AddressBookChange.PersonAdded) change;
+            if (added.position == AddressBookChange.UNKNOWN_POSITION) {
+                fields.add(RECORD_ADD);
+            } else {
+                fields.add(RECORD_INSERT);
+                fields.add(String.valueOf(added.position));
+            }
+            addPersonFields(fields, added.added);
+        } else if (change instanceof AddressBookChange.PersonRemoved) {
+            fields.add(RECORD_REMOVE);
+            addPersonFields(fields, ((AddressBookChange.PersonRemoved) change).removed);
+        } else if (change instanceof AddressBookChange.PersonReplaced) {
+            final AddressBookChange.PersonReplaced replaced = (AddressBookChange.PersonReplaced) change;
+            fields.add(RECORD_REPLACE);
+            addPersonFields(fields, replaced.oldPerson);
+            addPersonFields(fields, replaced.newPerson);
+        } else if (change instanceof AddressBookChange.TagAdded) {
+            fields.add(RECORD_ADD_TAG);
+            fields.add(((AddressBookChange.TagAdded) change).added.tagName);
+        } else if (change instanceof AddressBookChange.TagRemoved) {
+            fields.add(RECORD_REMOVE_TAG);
+            fields.add(((AddressBookChange.TagRemoved) change).removed.tagName);
+        } else if (change instanceof AddressBookChange.TagRenamed) {
+            final AddressBookChange.TagRenamed renamed = (AddressBookChange.TagRenamed) change;
+            fields.add(RECORD_RENAME_TAG);
+            fields.add(renamed.oldTag.getAsText());
+            fields.add(renamed.newTag.tagName);
+        } else if (change instanceof AddressBookChange.Cleared) {
+            fields.add(RECORD_CLEAR);
+        } else if (change instanceof AddressBookChange.Sorted) {
+            final AddressBookChange.Sorted sorted = (AddressBookChange.Sorted) change;
+            fields.add(RECORD_SORT);
+            fields.add(String.valueOf(sorted.keepSorted));
+            fields.add(sorted.order.toString());
+        } else {
+            throw new IllegalArgumentException("Unknown change: " + change.getClass().getName());
+        }
+
+        final StringBuilder record = new StringBuilder();
+        for (String field : fields) {
+            if (record.length() > 0) {
+                record.append(FIELD_SEPARATOR);
+            }
+            record.append(escape(field));
+        }
+        return record.toString();
+    }
+
+    private static void addPersonFields(List<String> fields, ReadOnlyPerson person) {
+        fields.add(person.getName().fullName);
+        fields.add(person.getPhone().value);
+        fields.add(String.valueOf(person.getPhone().isPrivate()));
+        fields.add(person.getEmail().value);
+        fields.add(String.valueOf(person.getEmail().isPrivate()));
+        fields.add(person.getAddress().value);
+        fields.add(String.valueOf(person.getAddress().isPrivate()));
+        final List<String> tagNames = new ArrayList<>();
+        for (Tag tag : person.getTagIds()) {
+            tagNames.add(tag.tagName);
+        }
+        fields.add(String.join(TAG_SEPARATOR, tagNames));
+    }
+
+    /**
+     * Converts a journal record back into the change it describes.
+     *
+     * @throws IllegalValueException if the record is malformed or holds invalid data.
+     */
+    private static AddressBookChange decode(String record) throws IllegalValueException {
+        final List<String> fields = unescapeFields(record);
+        switch (fields.get(0)) {
+        case RECORD_ADD:
+            return new AddressBookChange.PersonAdded(toPerson(fields, 1));
+        case RECORD_INSERT:
+            return new AddressBookChange.PersonAdded(toPerson(fields, 2), toPosition(field(fields, 1)));
+        case RECORD_REMOVE:
+            return new AddressBookChange.PersonRemoved(toPerson(fields, 1));
+        case RECORD_REPLACE:
+            return new AddressBookChange.PersonReplaced(toPerson(fields, 1), toPerson(fields, 9));
+        case RECORD_ADD_TAG:
+            return new AddressBookChange.TagAdded(new Tag(field(fields, 1)));
+        case RECORD_REMOVE_TAG:
+            return new AddressBookChange.TagRemoved(new Tag(field(fields, 1)));
+        case RECORD_RENAME_TAG:
+            return new AddressBookChange.TagRenamed(new Tag(field(fields, 1)), new Tag(field(fields, 2)));
+        case RECORD_CLEAR:
+            return new AddressBookChange.Cleared();
+        case RECORD_SORT:
+            // records written before the list could be kept sorted, or sorted otherwise than by name, are shorter
+            final boolean keepSorted = fields.size() > 1 && Boolean.parseBoolean(fields.get(1));
+            final SortOrder order = fields.size() > 2 ? new SortOrder(fields.get(2)) : SortOrder.BY_NAME;
+            return new AddressBookChange.Sorted(order, keepSorted);
+        default:
+            throw new IllegalValueException("Unknown journal record type: " + fields.get(0));
+        }
+    }
+
+    private static Person toPerson(List<String> fields, int start) throws IllegalValueException {
+        final Set<Tag> tags = new LinkedHashSet<>();
+        final String tagNames = field(fields, start + 7);
+        if (!tagNames.isEmpty()) {
+            for (String tagName : tagNames.split(TAG_SEPARATOR)) {
+                tags.add(new Tag(tagName));
+            }
+        }
+        return new Person(
+                new Name(field(fields, start)),
+                new Phone(field(fields, start + 1), Boolean.parseBoolean(field(fields, start + 2))),
+                new Email(field(fields, start + 3), Boolean.parseBoolean(field(fields, start + 4))),
+                new Address(field(fields, start + 5), Boolean.parseBoolean(field(fields, start + 6))),
+                new UniqueTagList(tags));
+    }
+
+    private static int toPosition(String field) throws IllegalValueException {
+        try {
+            final int position = Integer.parseInt(field);
+            if (position >= 0) {
+                return position;
+            }
+        } catch (NumberFormatException nfe) {
+            // reported below
+        }
+        throw new IllegalValueException("Journal record has an invalid position: " + field);
+    }
+
+    private static String field(List<String> fields, int index) throws IllegalValueException {
+        if (index >= fields.size()) {
+            throw new IllegalValueException("Journal record has too few fields");
+        }
+        return fields.get(index);
+    }
+
+    private static String escape(String field) {
+        final StringBuilder escaped = new StringBuilder(field.length());
+        for (char c : field.toCharArray()) {
+            switch (c) {
+            case '\\':
+                escaped.append("\\\\");
+                break;
+            case '\t':
+                escaped.append("\\t");
+                break;
+            case '\n':
+                escaped.append("\\n");
+                break;
+            case '\r':
+                escaped.append("\\r");
+                break;
+            default:
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static List<String> unescapeFields(String record) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        for (int i = 0; i < record.length(); i++) {
+            final char c = record.charAt(i);
+            if (c == FIELD_SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < record.length()) {
+                final char escaped = record.charAt(++i);
+                field.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
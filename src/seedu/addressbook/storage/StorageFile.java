@@ -2,24 +2,44 @@ package seedu.addressbook.storage;
 
 import seedu.addressbook.data.AddressBook;
 import seedu.addressbook.data.exception.IllegalValueException;
-import seedu.addressbook.storage.jaxb.AdaptedAddressBook;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Represents the file used to store address book data.
+ * The storage format is chosen by the file extension: XML for '.txt' files, compact binary for '.bin' files.
+ *
+ * Saves never leave a partly written storage file behind: the data are written to a temporary file beside it,
+ * forced to disk, and then moved over the storage file in one step. Optionally, the previous versions of the
+ * file are kept as numbered backups (e.g. 'addressbook.txt.1' being the newest), and loading falls back to the
+ * newest readable backup if the storage file itself cannot be read.
  */
 public class StorageFile {
 
     /** Default file path used if the user doesn't provide the file name. */
     public static final String DEFAULT_STORAGE_FILEPATH = "addressbook.txt";
 
+    /** Extension of storage files kept in the XML format. */
+    public static final String XML_FILE_EXTENSION = ".txt";
+
+    /** Extension of storage files kept in the binary format. */
+    public static final String BINARY_FILE_EXTENSION = ".bin";
+
+    /** Suffix appended to the storage file path to get the file that a save is written to first. */
+    public static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    /** Size of the direct buffer that saves are written through. */
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
     /* Note: Note the use of nested classes below.
      * More info https://docs.oracle.com/javase/tutorial/java/javaOO/nested.html
      */
@@ -43,7 +63,20 @@ public class StorageFile {
         }
     }
 
-    private final JAXBContext jaxbContext;
+    private final StorageFormat format;
+
+    /** Number of previous versions of the storage file kept as backups. */
+    private final int backupCount;
+
+    /** False if the storage file could not be loaded, so that it is not kept as a backup when next saved. */
+    private boolean isStorageFileValid = true;
+
+    /**
+     * Direct buffer every save is written through, allocated by the first save and kept for the next ones,
+     * as direct buffers are slow to allocate and only freed by garbage collection. Saves of one storage file
+     * never overlap, as they all write the same temporary file.
+     */
+    private ByteBuffer writeBuffer;
 
     public final Path path;
 
@@ -58,67 +91,140 @@ public class StorageFile {
      * @throws InvalidStorageFilePathException if the given file path is invalid
      */
     public StorageFile(String filePath) throws InvalidStorageFilePathException {
-        try {
-            jaxbContext = JAXBContext.newInstance(AdaptedAddressBook.class);
-        } catch (JAXBException jaxbe) {
-            throw new RuntimeException("jaxb initialisation error");
-        }
+        this(filePath, 0);
+    }
 
+    /**
+     * @param backupCount number of previous versions of the storage file to keep as backups
+     * @throws InvalidStorageFilePathException if the given file path is invalid
+     */
+    public StorageFile(String filePath, int backupCount) throws InvalidStorageFilePathException {
+        if (backupCount < 0) {
+            throw new IllegalArgumentException("Backup count cannot be negative: " + backupCount);
+        }
+        this.backupCount = backupCount;
         path = Paths.get(filePath);
         if (!isValidPath(path)) {
-            throw new InvalidStorageFilePathException("Storage file should end with '.txt'");
+            throw new InvalidStorageFilePathException("Storage file should end with '" + XML_FILE_EXTENSION
+                    + "' or '" + BINARY_FILE_EXTENSION + "'");
         }
+        format = isBinaryPath(path) ? new BinaryStorageFormat() : new XmlStorageFormat();
     }
 
     /**
      * Returns true if the given path is acceptable as a storage file.
-     * The file path is considered acceptable if it ends with '.txt'
+     * The file path is considered acceptable if it ends with '.txt' or '.bin'
      */
     private static boolean isValidPath(Path filePath) {
-        return filePath.toString().endsWith(".txt");
+        return filePath.toString().endsWith(XML_FILE_EXTENSION) || isBinaryPath(filePath);
+    }
+
+    private static boolean isBinaryPath(Path filePath) {
+        return filePath.toString().endsWith(BINARY_FILE_EXTENSION);
+    }
+
+    /**
+     * Returns the path of the backup with the given number; 1 is the newest.
+     */
+    public Path backupPath(int number) {
+        return path.resolveSibling(path.getFileName() + "." + number);
     }
 
     /**
      * Saves all data to this storage file.
+     * If the save fails, the storage file is left as it was.
      *
      * @throws StorageOperationException if there were errors converting and/or storing data to file.
      */
     public void save(AddressBook addressBook) throws StorageOperationException {
+        final Path tempPath = path.resolveSibling(path.getFileName() + TEMP_FILE_SUFFIX);
+        boolean isSaved = false;
+        try {
 
-        /* Note: Note the 'try with resource' statement below.
-         * More info: https://docs.oracle.com/javase/tutorial/essential/exceptions/tryResourceClose.html
-         */
-        try (final Writer fileWriter =
-                     new BufferedWriter(new FileWriter(path.toFile()))) {
-
-            final AdaptedAddressBook toSave = new AdaptedAddressBook(addressBook);
-            final Marshaller marshaller = jaxbContext.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.marshal(toSave, fileWriter);
+            /* Note: Note the 'try with resource' statement below.
+             * More info: https://docs.oracle.com/javase/tutorial/essential/exceptions/tryResourceClose.html
+             */
+            try (final FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                if (writeBuffer == null) {
+                    writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+                }
+                final OutputStream fileStream = new ChannelOutputStream(channel, writeBuffer);
+                format.write(addressBook, fileStream);
+                fileStream.flush();
+                channel.force(true);
+            }
+            keepBackup();
+            moveIntoPlace(tempPath);
+            isStorageFileValid = true;
+            isSaved = true;
 
         } catch (IOException ioe) {
             throw new StorageOperationException("Error writing to file: " + path + " error: " + ioe.getMessage());
-        } catch (JAXBException jaxbe) {
-            throw new StorageOperationException("Error converting address book into storage format");
+        } finally {
+            if (!isSaved) {
+                deleteIfPossible(tempPath);
+            }
+        }
+    }
+
+    /**
+     * Makes the current storage file the newest backup, shifting older backups along and dropping the oldest.
+     */
+    private void keepBackup() throws IOException {
+        if (backupCount == 0 || !isStorageFileValid || !Files.exists(path)) {
+            return;
+        }
+        Files.deleteIfExists(backupPath(backupCount));
+        for (int number = backupCount - 1; number >= 1; number--) {
+            if (Files.exists(backupPath(number))) {
+                Files.move(backupPath(number), backupPath(number + 1));
+            }
+        }
+        try {
+            Files.createLink(backupPath(1), path);
+        } catch (IOException | UnsupportedOperationException e) {
+            // not every file system supports hard links
+            Files.copy(path, backupPath(1));
+        }
+    }
+
+    /**
+     * Replaces the storage file with the given fully written file, and forces the change of the folder to disk.
+     */
+    private void moveIntoPlace(Path writtenFile) throws IOException {
+        try {
+            Files.move(writtenFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException amnse) {
+            Files.move(writtenFile, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        final Path folder = path.toAbsolutePath().getParent();
+        try (final FileChannel folderChannel = FileChannel.open(folder, StandardOpenOption.READ)) {
+            folderChannel.force(true);
+        } catch (IOException ioe) {
+            // some platforms cannot open folders; the rename is then as durable as the platform makes it
+        }
+    }
+
+    private static void deleteIfPossible(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ioe) {
+            // a leftover temporary file is overwritten by the next save
         }
     }
 
     /**
      * Loads data from this storage file.
+     * If the file cannot be read, the newest readable backup is loaded instead, if there is one.
      *
      * @throws StorageOperationException if there were errors reading and/or converting data from file.
      */
     public AddressBook load() throws StorageOperationException {
-        try (final Reader fileReader =
-                     new BufferedReader(new FileReader(path.toFile()))) {
-
-            final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            final AdaptedAddressBook loaded = (AdaptedAddressBook) unmarshaller.unmarshal(fileReader);
-            // manual check for missing elements
-            if (loaded.isAnyRequiredFieldMissing()) {
-                throw new StorageOperationException("File data missing some elements");
-            }
-            return loaded.toModelType();
+        try {
+            final AddressBook loaded = format.read(path);
+            isStorageFileValid = true;
+            return loaded;
 
         /* Note: Here, we are using an exception to create the file if it is missing. However, we should minimize
          * using exceptions to facilitate normal paths of execution. If we consider the missing file as a 'normal'
@@ -126,23 +232,109 @@ public class StorageFile {
          */
 
         // create empty file if not found
-        } catch (FileNotFoundException fnfe) {
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            final AddressBook fromBackup = loadNewestBackup();
+            if (fromBackup != null) {
+                return fromBackup;
+            }
             final AddressBook empty = new AddressBook();
             save(empty);
             return empty;
 
         // other errors
         } catch (IOException ioe) {
-            throw new StorageOperationException("Error writing to file: " + path);
-        } catch (JAXBException jaxbe) {
-            throw new StorageOperationException("Error parsing file data format");
-        } catch (IllegalValueException ive) {
-            throw new StorageOperationException("File contains illegal data values; data type constraints not met");
+            return loadNewestBackupOrThrow(new StorageOperationException("Error reading from file: " + path));
+        } catch (StorageOperationException soe) {
+            return loadNewestBackupOrThrow(soe);
         }
     }
 
+    private AddressBook loadNewestBackupOrThrow(StorageOperationException cause) throws StorageOperationException {
+        final AddressBook fromBackup = loadNewestBackup();
+        if (fromBackup == null) {
+            throw cause;
+        }
+        return fromBackup;
+    }
+
+    /**
+     * Returns the data of the newest backup that can be read, or null if there is none.
+     * The storage file is then not kept as a backup when next saved, as it could not be read.
+     */
+    private AddressBook loadNewestBackup() {
+        for (int number = 1; number <= backupCount; number++) {
+            try {
+                final AddressBook loaded = format.read(backupPath(number));
+                isStorageFileValid = false;
+                return loaded;
+            } catch (IOException | StorageOperationException e) {
+                // try the next older backup
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the last load read a backup because the storage file could not be read,
+     * and nothing was saved since.
+     */
+    protected boolean isLoadedFromBackup() {
+        return !isStorageFileValid;
+    }
+
     public String getPath() {
         return path.toString();
     }
 
+    /**
+     * Writes to a file channel through a direct buffer, from which the channel can write without another copy.
+     */
+    private static class ChannelOutputStream extends OutputStream {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        /**
+         * @param buffer buffer to write through; anything left in it by an earlier, failed write is discarded
+         */
+        ChannelOutputStream(FileChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+            buffer.clear();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                final int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
 }
@@ -0,0 +1,50 @@
+package seedu.addressbook.storage;
+
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.storage.StorageFile.InvalidStorageFilePathException;
+import seedu.addressbook.storage.StorageFile.StorageOperationException;
+
+import java.nio.file.Files;
+
+/**
+ * Converts a storage file from one format to another, e.g. from XML ('.txt') to binary ('.bin').
+ * Every person, tag and privacy flag is carried over, in the same order.
+ *
+ * Usage: java seedu.addressbook.storage.StorageFileConverter SOURCE_FILE_PATH TARGET_FILE_PATH
+ */
+public class StorageFileConverter {
+
+    public static final String MESSAGE_USAGE =
+            "java seedu.addressbook.storage.StorageFileConverter SOURCE_FILE_PATH TARGET_FILE_PATH";
+
+    /**
+     * Writes the data in the source file to the target file, in the target file's format.
+     *
+     * @throws StorageOperationException if the source file does not exist or either file could not be converted.
+     */
+    public static AddressBook convert(StorageFile source, StorageFile target) throws StorageOperationException {
+        if (!Files.exists(source.path)) {
+            throw new StorageOperationException("File not found: " + source.getPath());
+        }
+        final AddressBook data = source.load();
+        target.save(data);
+        return data;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: " + MESSAGE_USAGE);
+            System.exit(1);
+        }
+        try {
+            final AddressBook converted = convert(new StorageFile(args[0]), new StorageFile(args[1]));
+            System.out.println(String.format("Converted %1$d persons and %2$d tags from %3$s to %4$s",
+                    converted.getAllPersons().size(),
+                    converted.getAllTags().immutableListView().size(),
+                    args[0], args[1]));
+        } catch (InvalidStorageFilePathException | StorageOperationException e) {
+            System.out.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
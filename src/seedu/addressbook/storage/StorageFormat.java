@@ -0,0 +1,31 @@
+package seedu.addressbook.storage;
+
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.storage.StorageFile.StorageOperationException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Converts address book data to and from the bytes kept in a storage file.
+ */
+public interface StorageFormat {
+
+    /**
+     * Writes all data of the address book to the stream.
+     *
+     * @throws IOException if the stream could not be written to.
+     * @throws StorageOperationException if the data could not be converted into this format.
+     */
+    void write(AddressBook addressBook, OutputStream out) throws IOException, StorageOperationException;
+
+    /**
+     * Reads the address book stored in the file.
+     *
+     * @throws java.nio.file.NoSuchFileException if the file does not exist.
+     * @throws IOException if the file could not be read.
+     * @throws StorageOperationException if the file content is not valid address book data in this format.
+     */
+    AddressBook read(Path file) throws IOException, StorageOperationException;
+}
@@ -0,0 +1,195 @@
+package seedu.addressbook.storage;
+
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.storage.StorageFile.StorageOperationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves address books to a storage file on a background writer thread, so that callers are not held up by saving.
+ *
+ * Callers hand over an immutable {@link AddressBook#snapshot() snapshot} after each change. The writer waits until
+ * the oldest unsaved snapshot is as old as the staleness window allows, then saves only the latest one, so a burst
+ * of changes costs a single save. {@link #flush()} skips the wait and returns once everything handed over so far
+ * is saved.
+ *
+ * A failed save is reported by the next call to {@link #submit} or {@link #flush()}; its snapshot is kept,
+ * and saving is retried with the next snapshot or flush.
+ */
+public class WriteBehindSaver {
+
+    /** Default longest time, in milliseconds, that a change may wait before it is saved. */
+    public static final long DEFAULT_MAX_STALENESS_MILLIS = 1000;
+
+    private final StorageFile storage;
+    private final long maxStalenessNanos;
+    private final Thread writer;
+
+    /* All fields below are guarded by this object's lock. */
+
+    /** The latest snapshot not yet saved, or null if everything handed over is saved. */
+    private AddressBook pending;
+
+    /** When the oldest change in {@link #pending} was handed over, as given by {@link System#nanoTime()}. */
+    private long pendingSince;
+
+    /** Number of snapshots handed over so far. */
+    private long submittedCount;
+
+    /** Number of the snapshots handed over that are saved, by themselves or by a later snapshot. */
+    private long savedCount;
+
+    private boolean isFlushRequested;
+    private boolean isClosed;
+
+    /** Failure of the last save, not yet reported to a caller; null if it succeeded. */
+    private StorageOperationException failure;
+
+    /**
+     * Creates a saver for the given storage file, with its writer thread already running.
+     *
+     * @param maxStalenessMillis longest time a change may wait for more changes to be saved together with
+     */
+    public WriteBehindSaver(StorageFile storage, long maxStalenessMillis) {
+        this.storage = storage;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+        this.writer = new Thread(this::writeUntilClosed, "storage-writer");
+        // the application flushes before exiting; the writer must not keep the JVM alive otherwise
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Hands over a snapshot to be saved, replacing any earlier one that is not saved yet.
+     * The snapshot must not be changed afterwards.
+     *
+     * @throws StorageOperationException if an earlier save failed. The given snapshot is still saved later.
+     */
+    public synchronized void submit(AddressBook snapshot) throws StorageOperationException {
+        if (isClosed) {
+            throw new IllegalStateException("Saver is closed");
+        }
+        if (pending == null) {
+            pendingSince = System.nanoTime();
+        }
+        pending = snapshot;
+        submittedCount++;
+        notifyAll();
+        reportFailure();
+    }
+
+    /**
+     * Saves everything handed over so far right away, and waits until it is saved.
+     *
+     * @throws StorageOperationException if the save failed, or the wait was interrupted.
+     */
+    public synchronized void flush() throws StorageOperationException {
+        final long target = submittedCount;
+        failure = null; // retry the snapshot of an earlier failed save too
+        isFlushRequested = true;
+        notifyAll();
+        try {
+            while (savedCount < target && failure == null) {
+                wait();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new StorageOperationException("Interrupted while saving to file: " + storage.getPath());
+        }
+        reportFailure();
+    }
+
+    /**
+     * Flushes, then stops the writer thread. No snapshots may be handed over afterwards.
+     *
+     * @throws StorageOperationException if the final save failed.
+     */
+    public void close() throws StorageOperationException {
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                isClosed = true;
+                notifyAll();
+            }
+        }
+    }
+
+    private void reportFailure() throws StorageOperationException {
+        if (failure != null) {
+            final StorageOperationException reported = failure;
+            failure = null;
+            throw reported;
+        }
+    }
+
+    private void writeUntilClosed() {
+        while (true) {
+            final AddressBook toSave;
+            final long toSaveCount;
+            synchronized (this) {
+                try {
+                    while (!isSaveDue()) {
+                        if (isClosed) {
+                            return;
+                        }
+                        waitUntilSaveDue();
+                    }
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                toSave = pending;
+                toSaveCount = submittedCount;
+                pending = null;
+            }
+
+            try {
+                storage.save(toSave);
+                synchronized (this) {
+                    savedCount = toSaveCount;
+                    if (savedCount == submittedCount) {
+                        isFlushRequested = false;
+                    }
+                    notifyAll();
+                }
+            } catch (StorageOperationException soe) {
+                recordFailure(toSave, soe);
+            } catch (RuntimeException re) {
+                recordFailure(toSave, new StorageOperationException("Error writing to file: " + storage.getPath()
+                        + " error: " + re));
+            }
+        }
+    }
+
+    /**
+     * Keeps the snapshot whose save failed for a retry, unless a newer one has been handed over meanwhile.
+     */
+    private synchronized void recordFailure(AddressBook notSaved, StorageOperationException cause) {
+        if (pending == null) {
+            pending = notSaved;
+            pendingSince = System.nanoTime();
+        }
+        failure = cause;
+        notifyAll();
+    }
+
+    /**
+     * Returns true if there is a snapshot to save now. After a failed save, the writer waits for a new
+     * snapshot or a flush before trying again.
+     */
+    private boolean isSaveDue() {
+        if (pending == null || failure != null) {
+            return false;
+        }
+        return isFlushRequested || isClosed || System.nanoTime() - pendingSince >= maxStalenessNanos;
+    }
+
+    private void waitUntilSaveDue() throws InterruptedException {
+        if (pending == null || failure != null) {
+            wait();
+            return;
+        }
+        final long remainingNanos = maxStalenessNanos - (System.nanoTime() - pendingSince);
+        TimeUnit.NANOSECONDS.timedWait(this, Math.max(remainingNanos, 1));
+    }
+}
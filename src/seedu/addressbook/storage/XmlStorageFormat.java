@@ -0,0 +1,243 @@
+package seedu.addressbook.storage;
+
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.data.exception.IllegalValueException;
+import seedu.addressbook.data.person.SortOrder;
+import seedu.addressbook.data.person.UniquePersonList;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.UniqueTagList;
+import seedu.addressbook.storage.StorageFile.StorageOperationException;
+import seedu.addressbook.storage.jaxb.AdaptedAddressBook;
+import seedu.addressbook.storage.jaxb.AdaptedPerson;
+import seedu.addressbook.storage.jaxb.ParallelPersonConverter;
+import seedu.addressbook.storage.jaxb.ParallelPersonConverter.InvalidPersonsException;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores address book data as an XML document.
+ *
+ * Writing goes through JAXB and the adapted classes in {@link seedu.addressbook.storage.jaxb}.
+ * Reading streams through the document with StAX instead. Each person's raw fields are handed to a
+ * {@link ParallelPersonConverter} as soon as its element has been read, so persons are validated and
+ * converted on other cores while the rest of the document is parsed.
+ * Both sides use the same document layout.
+ *
+ * The JAXB context is expensive to create, so it is created once per process, when first needed, and shared
+ * by all instances. Marshallers are not thread-safe; each thread reuses its own.
+ */
+public class XmlStorageFormat implements StorageFormat {
+
+    /* Element and attribute names, as mapped by the adapted JAXB classes */
+    private static final String ELEMENT_ROOT = "AddressBook";
+    private static final String ELEMENT_PERSON = "persons";
+    private static final String ELEMENT_TAG = "tags";
+    private static final String ELEMENT_NAME = "name";
+    private static final String ELEMENT_PHONE = "phone";
+    private static final String ELEMENT_EMAIL = "email";
+    private static final String ELEMENT_ADDRESS = "address";
+    private static final String ELEMENT_PERSON_TAG = "tagged";
+    private static final String ATTRIBUTE_IS_PRIVATE = "isPrivate";
+    private static final String ATTRIBUTE_KEPT_SORTED_BY = "keptSortedBy";
+
+    /**
+     * Holds the JAXB context, which the JVM creates when this class is first used, i.e. on the first save.
+     */
+    private static class JaxbContextHolder {
+        static final JAXBContext CONTEXT = createContext();
+
+        private static JAXBContext createContext() {
+            try {
+                return JAXBContext.newInstance(AdaptedAddressBook.class);
+            } catch (JAXBException jaxbe) {
+                throw new RuntimeException("jaxb initialisation error");
+            }
+        }
+    }
+
+    private static final ThreadLocal<Marshaller> MARSHALLERS = ThreadLocal.withInitial(() -> {
+        try {
+            final Marshaller marshaller = JaxbContextHolder.CONTEXT.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            return marshaller;
+        } catch (JAXBException jaxbe) {
+            throw new RuntimeException("jaxb initialisation error");
+        }
+    });
+
+    private final XMLInputFactory inputFactory;
+
+    public XmlStorageFormat() {
+        inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    @Override
+    public void write(AddressBook addressBook, OutputStream out) throws StorageOperationException {
+        try {
+            final AdaptedAddressBook toSave = new AdaptedAddressBook(addressBook);
+            MARSHALLERS.get().marshal(toSave, out);
+        } catch (JAXBException jaxbe) {
+            throw new StorageOperationException("Error converting address book into storage format");
+        }
+    }
+
+    @Override
+    public AddressBook read(Path file) throws IOException, StorageOperationException {
+        try (final InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            final XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+            try {
+                return readAddressBook(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException xmlse) {
+            throw new StorageOperationException("Error parsing file data format");
+        } catch (InvalidPersonsException ipe) {
+            throw new StorageOperationException("File contains illegal data values; data type constraints not met\n"
+                    + String.join("\n", ipe.problems));
+        } catch (IllegalValueException ive) {
+            throw new StorageOperationException("File contains illegal data values; data type constraints not met");
+        }
+    }
+
+    /**
+     * Reads the root element and everything in it.
+     * Persons and tags are kept in document order; elements not in the layout are skipped.
+     */
+    private static AddressBook readAddressBook(XMLStreamReader reader)
+            throws XMLStreamException, IllegalValueException, StorageOperationException {
+        if (!nextChildElement(reader) || !reader.getLocalName().equals(ELEMENT_ROOT)) {
+            throw new StorageOperationException("Error parsing file data format");
+        }
+
+        final String keptSortedBy = reader.getAttributeValue(null, ATTRIBUTE_KEPT_SORTED_BY);
+        final ParallelPersonConverter personConverter = new ParallelPersonConverter();
+        final UniqueTagList tags = new UniqueTagList();
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+            case ELEMENT_PERSON:
+                final int lineNumber = reader.getLocation().getLineNumber();
+                personConverter.add(readPerson(reader), lineNumber);
+                break;
+            case ELEMENT_TAG:
+                tags.add(new Tag(reader.getElementText()));
+                break;
+            default:
+                skipElement(reader);
+            }
+        }
+        final UniquePersonList persons = new UniquePersonList(personConverter.finish());
+        if (keptSortedBy != null) {
+            persons.sort(new SortOrder(keptSortedBy), true); // the persons were saved sorted, so this is quick
+        }
+        return new AddressBook(persons, tags);
+    }
+
+    /**
+     * Reads the raw fields of a person element, leaving the reader at its end tag.
+     */
+    private static AdaptedPerson readPerson(XMLStreamReader reader)
+            throws XMLStreamException, StorageOperationException {
+        String name = null;
+        String phone = null;
+        String email = null;
+        String address = null;
+        boolean isPhonePrivate = false;
+        boolean isEmailPrivate = false;
+        boolean isAddressPrivate = false;
+        final List<String> tagNames = new ArrayList<>();
+
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+            case ELEMENT_NAME:
+                name = reader.getElementText();
+                break;
+            case ELEMENT_PHONE:
+                isPhonePrivate = isPrivate(reader);
+                phone = reader.getElementText();
+                break;
+            case ELEMENT_EMAIL:
+                isEmailPrivate = isPrivate(reader);
+                email = reader.getElementText();
+                break;
+            case ELEMENT_ADDRESS:
+                isAddressPrivate = isPrivate(reader);
+                address = reader.getElementText();
+                break;
+            case ELEMENT_PERSON_TAG:
+                tagNames.add(reader.getElementText());
+                break;
+            default:
+                skipElement(reader);
+            }
+        }
+
+        final AdaptedPerson person = new AdaptedPerson(name, phone, isPhonePrivate, email, isEmailPrivate,
+                address, isAddressPrivate, tagNames);
+        if (person.isAnyRequiredFieldMissing()) {
+            throw new StorageOperationException("File data missing some elements");
+        }
+        return person;
+    }
+
+    /**
+     * Returns the privacy attribute of the current element, read the same way JAXB reads an xs:boolean.
+     */
+    private static boolean isPrivate(XMLStreamReader reader) {
+        final String value = reader.getAttributeValue(null, ATTRIBUTE_IS_PRIVATE);
+        if (value == null) {
+            return false;
+        }
+        final String trimmed = value.trim();
+        return trimmed.equals("true") || trimmed.equals("1");
+    }
+
+    /**
+     * Advances to the start of the next child of the current element.
+     *
+     * @return false if the end of the current element (or of the document) was reached instead.
+     */
+    private static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the current element and everything in it, leaving the reader at its end tag.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
@@ -2,12 +2,13 @@ package seedu.addressbook.storage.jaxb;
 
 import seedu.addressbook.data.AddressBook;
 import seedu.addressbook.data.exception.IllegalValueException;
-import seedu.addressbook.data.person.Person;
 import seedu.addressbook.data.person.ReadOnlyPerson;
+import seedu.addressbook.data.person.SortOrder;
 import seedu.addressbook.data.person.UniquePersonList;
 import seedu.addressbook.data.tag.Tag;
 import seedu.addressbook.data.tag.UniqueTagList;
 
+import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import java.util.ArrayList;
@@ -23,6 +24,9 @@ public class AdaptedAddressBook {
     private List<AdaptedPerson> persons = new ArrayList<>();
     @XmlElement
     private List<AdaptedTag> tags = new ArrayList<>();
+    /** The order the persons are kept sorted in; left out unless they are. */
+    @XmlAttribute
+    private String keptSortedBy;
 
     /**
      * No-arg constructor for JAXB use.
@@ -43,6 +47,9 @@ public class AdaptedAddressBook {
         for (Tag tag : source.getAllTags()) {
             tags.add(new AdaptedTag(tag));
         }
+        if (source.isKeptSorted()) {
+            keptSortedBy = source.getSortOrder().toString();
+        }
     }
 
 
@@ -71,17 +78,24 @@ public class AdaptedAddressBook {
 
     /**
      * Converts this jaxb-friendly {@code AdaptedAddressBook} object into the corresponding(@code AddressBook} object.
-     * @throws IllegalValueException if there were any data constraints violated in the adapted person
+     * Persons are converted in parallel, see {@link ParallelPersonConverter}.
+     *
+     * @throws ParallelPersonConverter.InvalidPersonsException if data constraints were violated in any adapted person
+     * @throws IllegalValueException if there were any other data constraints violated
      */
     public AddressBook toModelType() throws IllegalValueException {
         final List<Tag> tagList = new ArrayList<>();
-        final List<Person> personList = new ArrayList<>();
+        final ParallelPersonConverter personConverter = new ParallelPersonConverter();
         for (AdaptedTag tag : tags) {
             tagList.add(tag.toModelType());
         }
         for (AdaptedPerson person : persons) {
-            personList.add(person.toModelType());
+            personConverter.add(person);
+        }
+        final UniquePersonList personList = new UniquePersonList(personConverter.finish());
+        if (keptSortedBy != null) {
+            personList.sort(new SortOrder(keptSortedBy), true); // the persons were saved sorted, so this is quick
         }
-        return new AddressBook(new UniquePersonList(personList), new UniqueTagList(tagList));
+        return new AddressBook(personList, new UniqueTagList(tagList));
     }
 }
@@ -63,11 +63,40 @@ public class AdaptedPerson {
         address.value = source.getAddress().value;
 
         tagged = new ArrayList<>();
-        for (Tag tag : source.getTags()) {
+        for (Tag tag : source.getTagIds()) {
             tagged.add(new AdaptedTag(tag));
         }
     }
 
+    /**
+     * Creates an adapted person from field values read from storage, which have not been validated yet.
+     * A null value marks a field missing from storage.
+     */
+    public AdaptedPerson(String name, String phone, boolean isPhonePrivate, String email, boolean isEmailPrivate,
+                         String address, boolean isAddressPrivate, List<String> tagNames) {
+        this.name = name;
+        this.phone = contactDetail(phone, isPhonePrivate);
+        this.email = contactDetail(email, isEmailPrivate);
+        this.address = contactDetail(address, isAddressPrivate);
+
+        tagged = new ArrayList<>();
+        for (String tagName : tagNames) {
+            final AdaptedTag tag = new AdaptedTag();
+            tag.tagName = tagName;
+            tagged.add(tag);
+        }
+    }
+
+    private static AdaptedContactDetail contactDetail(String value, boolean isPrivate) {
+        if (value == null) {
+            return null;
+        }
+        final AdaptedContactDetail detail = new AdaptedContactDetail();
+        detail.value = value;
+        detail.isPrivate = isPrivate;
+        return detail;
+    }
+
     /**
      * Returns true if any required field is missing.
      *
@@ -0,0 +1,192 @@
+package seedu.addressbook.storage.jaxb;
+
+import seedu.addressbook.data.exception.IllegalValueException;
+import seedu.addressbook.data.person.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Validates and converts adapted persons into {@link Person} objects on a fork-join pool.
+ *
+ * Persons are handed over one at a time, in file order, and converted a chunk at a time while the caller
+ * keeps reading; {@link #finish()} then returns the converted persons in the order they were added.
+ * A person that fails validation does not stop the conversion of the others: every failure is reported
+ * together with the position of its record. Each chunk lets go of its adapted persons as it converts them,
+ * so that, while loading, the adapted persons of converted chunks do not stay in memory beside their model
+ * persons until the last chunk is done.
+ */
+public class ParallelPersonConverter {
+
+    /** Default number of persons converted together by one task. */
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    /**
+     * Signals that some of the adapted persons violate data constraints.
+     */
+    public static class InvalidPersonsException extends IllegalValueException {
+        /** One description per invalid person, in file order. */
+        public final List<String> problems;
+
+        public InvalidPersonsException(List<String> problems) {
+            super(problems.size() + " invalid person record(s):\n" + String.join("\n", problems));
+            this.problems = Collections.unmodifiableList(problems);
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /** Chunks handed to the pool, in file order. */
+    private final List<ChunkConversion> submittedChunks = new ArrayList<>();
+
+    /** Persons added since the last chunk was handed to the pool. */
+    private AdaptedPerson[] pendingPersons;
+    private int[] pendingLineNumbers;
+    private int pendingCount;
+    private int addedCount;
+
+    public ParallelPersonConverter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelPersonConverter(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        startChunk();
+    }
+
+    /**
+     * Adds the next person in file order, whose position in the file is not known.
+     */
+    public void add(AdaptedPerson person) {
+        add(person, 0);
+    }
+
+    /**
+     * Adds the next person in file order.
+     *
+     * @param lineNumber line in the file the person's record starts at, used in error reports; 0 if not known
+     */
+    public void add(AdaptedPerson person, int lineNumber) {
+        pendingPersons[pendingCount] = person;
+        pendingLineNumbers[pendingCount] = lineNumber;
+        pendingCount++;
+        addedCount++;
+        if (pendingCount == chunkSize) {
+            final ChunkConversion chunk = takePendingChunk();
+            pool.submit(chunk);
+            submittedChunks.add(chunk);
+        }
+    }
+
+    /**
+     * Waits for all conversions to complete and returns the persons in the order they were added.
+     *
+     * @throws InvalidPersonsException if any person violates data constraints.
+     */
+    public List<Person> finish() throws InvalidPersonsException {
+        final List<ConvertedChunk> chunks = new ArrayList<>();
+        for (ChunkConversion submitted : submittedChunks) {
+            chunks.add(submitted.join());
+        }
+        if (pendingCount > 0) {
+            // the last partial chunk is small enough to convert on this thread
+            chunks.add(takePendingChunk().compute());
+        }
+        submittedChunks.clear();
+
+        final List<Person> persons = new ArrayList<>(addedCount);
+        final List<String> problems = new ArrayList<>();
+        for (ConvertedChunk chunk : chunks) {
+            persons.addAll(Arrays.asList(chunk.persons));
+            problems.addAll(chunk.problems);
+        }
+        addedCount = 0;
+        if (!problems.isEmpty()) {
+            throw new InvalidPersonsException(problems);
+        }
+        return persons;
+    }
+
+    /**
+     * Returns the number of adapted persons still held by the chunks already converted on the pool; for tests.
+     */
+    int countInputHeldByConvertedChunks() {
+        int count = 0;
+        for (ChunkConversion submitted : submittedChunks) {
+            if (submitted.isDone() && submitted.persons != null) { // the task's result is published once it is done
+                count += submitted.persons.length;
+            }
+        }
+        return count;
+    }
+
+    private void startChunk() {
+        pendingPersons = new AdaptedPerson[chunkSize];
+        pendingLineNumbers = new int[chunkSize];
+        pendingCount = 0;
+    }
+
+    private ChunkConversion takePendingChunk() {
+        final ChunkConversion conversion = new ChunkConversion(addedCount - pendingCount,
+                Arrays.copyOf(pendingPersons, pendingCount), Arrays.copyOf(pendingLineNumbers, pendingCount));
+        startChunk();
+        return conversion;
+    }
+
+    /**
+     * Result of converting one chunk: the persons that passed validation and a description of each that did not.
+     */
+    private static class ConvertedChunk {
+        final Person[] persons;
+        final List<String> problems;
+
+        ConvertedChunk(Person[] persons, List<String> problems) {
+            this.persons = persons;
+            this.problems = problems;
+        }
+    }
+
+    /**
+     * Converts one chunk. The task is held until {@link #finish()}, so it drops its input once converted.
+     */
+    private static class ChunkConversion extends RecursiveTask<ConvertedChunk> {
+        private final int firstIndex;
+        private AdaptedPerson[] persons;
+        private int[] lineNumbers;
+
+        ChunkConversion(int firstIndex, AdaptedPerson[] persons, int[] lineNumbers) {
+            this.firstIndex = firstIndex;
+            this.persons = persons;
+            this.lineNumbers = lineNumbers;
+        }
+
+        @Override
+        protected ConvertedChunk compute() {
+            final List<Person> converted = new ArrayList<>(persons.length);
+            final List<String> problems = new ArrayList<>();
+            for (int i = 0; i < persons.length; i++) {
+                try {
+                    converted.add(persons[i].toModelType());
+                } catch (IllegalValueException ive) {
+                    problems.add(describePosition(firstIndex + i + 1, lineNumbers[i]) + ": " + ive.getMessage());
+                }
+                persons[i] = null;
+            }
+            persons = null;
+            lineNumbers = null;
+            return new ConvertedChunk(converted.toArray(new Person[converted.size()]), problems);
+        }
+
+        private static String describePosition(int personNumber, int lineNumber) {
+            return lineNumber > 0
+                    ? "person " + personNumber + " (line " + lineNumber + ")"
+                    : "person " + personNumber;
+        }
+    }
+}
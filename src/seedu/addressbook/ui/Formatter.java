@@ -1,10 +1,12 @@
 package seedu.addressbook.ui;
 
+import seedu.addressbook.commands.CommandResult;
 import seedu.addressbook.data.person.ReadOnlyPerson;
 import seedu.addressbook.data.tag.ReadOnlyTag;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Used for formatting text for display. e.g. for adding text decorations.
@@ -35,6 +37,24 @@ public class Formatter {
         return sb.toString();
     }
 
+    /**
+     * Formats the result of a command for displaying to the user: the persons or tags it lists, if any,
+     * followed by the feedback. Every line starts with a space, so the result contains no empty lines.
+     */
+    public String formatResult(CommandResult result) {
+        final StringBuilder formatted = new StringBuilder();
+        final Optional<List<? extends ReadOnlyPerson>> resultPersons = result.getRelevantPersons();
+        final Optional<List<? extends ReadOnlyTag>> resultTags = result.getRelevantTags();
+        if (resultPersons.isPresent()) {
+            formatted.append(format(formatPersons(resultPersons.get())));
+        }
+        if (resultTags.isPresent()) {
+            formatted.append(format(formatTags(resultTags.get())));
+        }
+        formatted.append(format(result.feedbackToUser));
+        return formatted.toString();
+    }
+
     /** Formats the given list of persons for displaying to the user. */
     public String formatPersons(List<? extends ReadOnlyPerson> persons) {
         final List<String> formattedPersons = new ArrayList<>();
@@ -1,34 +1,43 @@
 package seedu.addressbook.ui;
 
 
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import seedu.addressbook.commands.ExitCommand;
+import seedu.addressbook.logic.CommandPipeline;
 import seedu.addressbook.logic.Logic;
 import seedu.addressbook.commands.CommandResult;
-import seedu.addressbook.data.person.ReadOnlyPerson;
-import seedu.addressbook.data.tag.ReadOnlyTag;
-
-import java.util.List;
-import java.util.Optional;
 
 import static seedu.addressbook.common.Messages.*;
 
 /**
  * Main Window of the GUI.
+ *
+ * Commands are run, and their results formatted, on a worker thread by a {@link CommandPipeline}, so that the window
+ * stays responsive and further commands can be typed while one runs. Commands typed meanwhile are run in order.
  */
 public class MainWindow {
 
     private Logic logic;
+    private CommandPipeline pipeline;
     private Stoppable mainApp;
 
+    /** Number of commands submitted whose outcome is not displayed yet. Only used on the JavaFX thread. */
+    private int pendingCount;
+
     public MainWindow(){
     }
 
     public void setLogic(Logic logic){
         this.logic = logic;
+        this.pipeline = new CommandPipeline(logic, Platform::runLater);
     }
 
     public void setMainApp(Stoppable mainApp){
@@ -41,24 +50,75 @@ public class MainWindow {
     @FXML
     private TextField commandInput;
 
+    @FXML
+    private ProgressIndicator busyIndicator;
+
+    @FXML
+    private Button cancelButton;
+
+    @FXML
+    void initialize() {
+        // hidden controls take up no space
+        busyIndicator.managedProperty().bind(busyIndicator.visibleProperty());
+        cancelButton.managedProperty().bind(cancelButton.visibleProperty());
+    }
 
     @FXML
     void onCommand(ActionEvent event) {
-        try {
-            String userCommandText = commandInput.getText();
-            CommandResult result = logic.execute(userCommandText);
-            if(isExitCommand(result)){
-                exitApp();
-                return;
+        final String userCommandText = commandInput.getText();
+        clearCommandInput();
+        setPendingCount(pendingCount + 1);
+        pipeline.submit(userCommandText, new Formatter()::formatResult, new CommandPipeline.Callback<String>() {
+            @Override
+            public void onCompleted(CommandResult result, String rendered) {
+                setPendingCount(pendingCount - 1);
+                if (isExitCommand(result)) {
+                    try {
+                        exitApp();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                    return;
+                }
+                clearOutputConsole();
+                outputConsole.setText(rendered);
             }
-            displayResult(result);
-            clearCommandInput();
-        } catch (Exception e) {
-            display(e.getMessage());
-            throw new RuntimeException(e);
+
+            @Override
+            public void onCancelled() {
+                setPendingCount(pendingCount - 1);
+                display(String.format(MESSAGE_COMMAND_CANCELLED, userCommandText));
+            }
+
+            @Override
+            public void onFailed(Exception e) {
+                setPendingCount(pendingCount - 1);
+                display(e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /** Cancels the commands still running or waiting to run, as far as they can be cancelled. */
+    @FXML
+    void onCancel(ActionEvent event) {
+        pipeline.cancelAll();
+    }
+
+    @FXML
+    void onCommandInputKeyPressed(KeyEvent event) {
+        if (event.getCode() == KeyCode.ESCAPE) {
+            pipeline.cancelAll();
         }
     }
 
+    /** Shows the in-progress indicator and the cancel button while any command is pending. */
+    private void setPendingCount(int count) {
+        pendingCount = count;
+        busyIndicator.setVisible(count > 0);
+        cancelButton.setVisible(count > 0);
+    }
+
     private void exitApp() throws Exception {
         mainApp.stop();
     }
@@ -81,15 +141,7 @@ public class MainWindow {
     /** Displays the result of a command execution to the user. */
     public void displayResult(CommandResult result) {
         clearOutputConsole();
-        final Optional<List<? extends ReadOnlyPerson>> resultPersons = result.getRelevantPersons();
-        final Optional<List<? extends ReadOnlyTag>> resultTags = result.getRelevantTags();
-        if(resultPersons.isPresent()) {
-            displayPersons(resultPersons.get());
-        }
-        if(resultTags.isPresent()) {
-            displayTags(resultTags.get());
-        }
-        display(result.feedbackToUser);
+        outputConsole.setText(new Formatter().formatResult(result));
     }
 
     public void displayWelcomeMessage(String version, String storageFilePath) {
@@ -97,21 +149,6 @@ public class MainWindow {
         display(MESSAGE_WELCOME, version, MESSAGE_PROGRAM_LAUNCH_ARGS_USAGE, storageFileInfo);
     }
 
-    /**
-     * Displays the list of persons in the output display area, formatted as an indexed list.
-     * Private contact details are hidden.
-     */
-    private void displayPersons(List<? extends ReadOnlyPerson> persons) {
-        display(new Formatter().formatPersons(persons));
-    }
-    
-    /**
-     * Displays the list of tags in the output display area, formatted as an indexed list.
-     */
-    private void displayTags(List<? extends ReadOnlyTag> tags) {
-        display(new Formatter().formatTags(tags));
-    }
-
     /**
      * Displays the given messages on the output display area, after formatting appropriately.
      */
@@ -0,0 +1,144 @@
+package seedu.addressbook;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import seedu.addressbook.commands.ExitCommand;
+import seedu.addressbook.logic.Logic;
+import seedu.addressbook.storage.StorageFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class CommandServerTest {
+
+    private static final String ADD_ADAM = "add Adam Brown p/111111 e/adam@gmail.com a/111, alpha street";
+    private static final String ADD_BETSY = "add Betsy Crowe p/222222 e/betsy@gmail.com a/222, beta street";
+
+    @Rule
+    public TemporaryFolder saveFolder = new TemporaryFolder();
+
+    private StorageFile saveFile;
+    private CommandServer server;
+
+    @Before
+    public void setup() throws Exception {
+        saveFile = new StorageFile(saveFolder.getRoot().toPath().resolve("data.txt").toString());
+        server = new CommandServer(new Logic(saveFile), 0, 2);
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    public void commands_pipelined_answeredInOrder() throws Exception {
+        try (Client client = new Client()) {
+            client.send(ADD_ADAM, ADD_BETSY, "list", "delete 2", "list");
+
+            assertTrue(client.readAnswer().contains("New person added: Adam Brown"));
+            assertTrue(client.readAnswer().contains("New person added: Betsy Crowe"));
+            assertTrue(client.readAnswer().contains("2 persons listed!"));
+            assertTrue(client.readAnswer().contains("Deleted Person: Betsy Crowe"));
+            final String listing = client.readAnswer();
+            assertTrue(listing.contains("1. Adam Brown"));
+            assertTrue(listing.contains("1 persons listed!"));
+        }
+        assertEquals(1, saveFile.load().getAllPersons().size());
+    }
+
+    @Test
+    public void commands_separateConnections_ownListings() throws Exception {
+        try (Client first = new Client(); Client second = new Client()) {
+            first.send(ADD_ADAM, ADD_BETSY, "find betsy");
+            first.readAnswer();
+            first.readAnswer();
+            assertTrue(first.readAnswer().contains("1 persons listed!"));
+            second.send("list");
+            assertTrue(second.readAnswer().contains("2 persons listed!"));
+
+            // index 1 is Betsy for the first connection, but Adam for the second
+            first.send("view 1");
+            assertTrue(first.readAnswer().contains("Betsy Crowe"));
+            second.send("view 1");
+            assertTrue(second.readAnswer().contains("Adam Brown"));
+        }
+    }
+
+    @Test
+    public void exit_endsConnectionOnly() throws Exception {
+        try (Client client = new Client()) {
+            client.send("exit", ADD_ADAM);
+            assertTrue(client.readAnswer().contains(ExitCommand.MESSAGE_EXIT_ACKNOWEDGEMENT));
+            assertNull(client.in.readLine());
+        }
+        try (Client client = new Client()) {
+            client.send("list");
+            assertTrue(client.readAnswer().contains("0 persons listed!"));
+        }
+    }
+
+    @Test
+    public void connect_tooManyConnections_refused() throws Exception {
+        try (Client first = new Client(); Client second = new Client()) {
+            // make sure both are being served before connecting a third
+            first.send("list");
+            first.readAnswer();
+            second.send("list");
+            second.readAnswer();
+            try (Client third = new Client()) {
+                assertTrue(third.readAnswer().contains(CommandServer.MESSAGE_TOO_MANY_CONNECTIONS));
+            }
+        }
+    }
+
+    /**
+     * A connection to the server.
+     */
+    private class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        Client() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        void send(String... commands) throws IOException {
+            for (String command : commands) {
+                out.write(command + "\n");
+            }
+            out.flush();
+        }
+
+        /** Reads the answer to one command, up to the empty line ending it, or to the end of the connection. */
+        String readAnswer() throws IOException {
+            final StringBuilder answer = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null && !line.isEmpty()) {
+                answer.append(line).append("\n");
+            }
+            return answer.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
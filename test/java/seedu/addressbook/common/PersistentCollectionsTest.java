@@ -0,0 +1,205 @@
+package seedu.addressbook.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class PersistentCollectionsTest {
+
+    private static final int OPERATIONS = 20000;
+
+    @Test
+    public void persistentHashMap_randomUpdates_matchesHashMapAndKeepsOldVersions() {
+        final Random random = new Random(42);
+        final Map<CollidingKey, Integer> expected = new HashMap<>();
+        PersistentHashMap<CollidingKey, Integer> map = PersistentHashMap.empty();
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            final CollidingKey key = new CollidingKey(random.nextInt(2000));
+            final PersistentHashMap<CollidingKey, Integer> before = map;
+            final Map<CollidingKey, Integer> expectedBefore = new HashMap<>(expected);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+            // the version before the update is unchanged
+            assertEquals(expectedBefore.size(), before.size());
+            assertEquals(expectedBefore.get(key), before.get(key));
+        }
+
+        final Map<CollidingKey, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+
+        final Map<CollidingKey, String> expectedMapped = new HashMap<>();
+        expected.forEach((key, value) -> expectedMapped.put(key, "v" + value));
+        final Map<CollidingKey, String> actualMapped = new HashMap<>();
+        final PersistentHashMap<CollidingKey, String> mapped = map.mapValues(value -> "v" + value);
+        mapped.forEach(actualMapped::put);
+        assertEquals(expectedMapped, actualMapped);
+        for (CollidingKey key : expected.keySet()) {
+            assertEquals("v" + expected.get(key), mapped.get(key));
+        }
+    }
+
+    @Test
+    public void persistentHashMap_byIdentity_distinguishesEqualKeys() {
+        final String key = new String("key");
+        final String equalKey = new String("key");
+        final PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>emptyByIdentity()
+                .plus(key, 1);
+
+        assertEquals(Integer.valueOf(1), map.get(key));
+        assertNull(map.get(equalKey));
+        assertEquals(2, map.plus(equalKey, 2).size());
+    }
+
+    @Test
+    public void persistentTrie_randomUpdates_matchesHashSetAndKeepsOldVersions() {
+        final Random random = new Random(42);
+        final Set<String> expected = new HashSet<>();
+        PersistentTrie trie = PersistentTrie.empty();
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            final String string = randomString(random);
+            final PersistentTrie before = trie;
+            final boolean containedBefore = expected.contains(string);
+            if (random.nextInt(3) == 0) {
+                expected.remove(string);
+                trie = trie.minus(string);
+            } else {
+                expected.add(string);
+                trie = trie.plus(string);
+            }
+            assertEquals(expected.size(), trie.size());
+            assertEquals(expected.contains(string), trie.contains(string));
+            // the version before the update is unchanged
+            assertEquals(containedBefore, before.contains(string));
+        }
+
+        for (String prefix : Arrays.asList("", "a", "ab", "bca", "ccccc")) {
+            final Set<String> expectedWithPrefix = new HashSet<>();
+            for (String string : expected) {
+                if (string.startsWith(prefix)) {
+                    expectedWithPrefix.add(string);
+                }
+            }
+            final List<String> actualWithPrefix = new ArrayList<>();
+            trie.forEachWithPrefix(prefix, actualWithPrefix::add);
+            assertEquals(expectedWithPrefix.size(), actualWithPrefix.size());
+            assertEquals(expectedWithPrefix, new HashSet<>(actualWithPrefix));
+        }
+    }
+
+    /**
+     * Returns a short string over a small alphabet, so that many strings share prefixes or are prefixes of others.
+     */
+    private static String randomString(Random random) {
+        final StringBuilder string = new StringBuilder();
+        final int length = random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            string.append((char) ('a' + random.nextInt(3)));
+        }
+        return string.toString();
+    }
+
+    @Test
+    public void persistentRankedMap_randomUpdates_matchesTreeMapAndKeepsOldVersions() {
+        final Random random = new Random(42);
+        final TreeMap<Long, Integer> expected = new TreeMap<>();
+        PersistentRankedMap<Integer> map = PersistentRankedMap.empty();
+        final List<PersistentRankedMap<Integer>> versions = new ArrayList<>();
+        final List<List<Integer>> expectedVersions = new ArrayList<>();
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            final long key = random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.isEmpty() ? 0 : expected.lastKey(), map.lastKey());
+            if (i % 1000 == 0) {
+                versions.add(map);
+                expectedVersions.add(new ArrayList<>(expected.values()));
+            }
+        }
+
+        final List<Integer> values = new ArrayList<>(expected.values());
+        assertEquals(values, toList(map));
+        for (int i = 0; i < values.size(); i += 97) {
+            assertEquals(values.get(i), map.valueAt(i));
+        }
+        int position = 0;
+        for (long key : expected.keySet()) {
+            assertEquals(position++, map.indexOfKey(key));
+        }
+        assertEquals(-1, map.indexOfKey(-1));
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(expectedVersions.get(i), toList(versions.get(i)));
+        }
+    }
+
+    @Test
+    public void persistentRankedMap_ofValues_keysFromFunction() {
+        final PersistentRankedMap<String> map = PersistentRankedMap.ofValues(Arrays.asList("a", "b", "c"),
+                value -> 10 * (value.charAt(0) - 'a' + 1));
+
+        assertEquals(Arrays.asList("a", "b", "c"), toList(map));
+        assertEquals("b", map.get(20));
+        assertEquals(30, map.lastKey());
+        assertEquals(Arrays.asList("a", "c", "d"), toList(map.minus(20).plus(40, "d")));
+        assertEquals(2, map.indexOfFirst(value -> value.compareTo("b") > 0));
+        assertEquals(0, map.indexOfFirst(value -> true));
+        assertEquals(3, map.indexOfFirst(value -> false));
+    }
+
+    private static <V> List<V> toList(Iterable<V> values) {
+        final List<V> list = new ArrayList<>();
+        for (Iterator<V> iterator = values.iterator(); iterator.hasNext();) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+    /**
+     * A key with few distinct hash codes, so that many keys share one.
+     */
+    private static class CollidingKey {
+        private final int value;
+
+        CollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CollidingKey && ((CollidingKey) other).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value % 64;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package seedu.addressbook.data.person;
+
+import org.junit.Test;
+import seedu.addressbook.data.tag.UniqueTagList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class UniquePersonListTest {
+
+    @Test
+    public void add_atPosition_manyAtSamePlace_keepsOrder() throws Exception {
+        final UniquePersonList persons = new UniquePersonList(person("first"), person("last"));
+        final List<ReadOnlyPerson> expected = new ArrayList<>(persons.immutableListView());
+
+        // each insert halves the free ranks left before "last", until the neighbours have to be reranked
+        for (int i = 0; i < 500; i++) {
+            final Person toAdd = person("inserted " + i);
+            persons.add(toAdd, i + 1);
+            expected.add(i + 1, toAdd);
+        }
+
+        assertEquals(expected, persons.immutableListView());
+        for (int i = 0; i < expected.size(); i += 37) {
+            assertEquals(i, persons.indexOf(expected.get(i)));
+        }
+    }
+
+    @Test
+    public void sort_keepSorted_addedPersonsPlacedInNameOrder() throws Exception {
+        final Random random = new Random(42);
+        final UniquePersonList persons = new UniquePersonList(person("Mallory"), person("bob"), person("Alice"));
+        final List<ReadOnlyPerson> expected = new ArrayList<>(persons.immutableListView());
+
+        persons.sort(SortOrder.BY_NAME, true);
+        for (int i = 0; i < 300; i++) {
+            // names in the same few places in the order, in both cases
+            final String name = (random.nextBoolean() ? "Bob " : "bOB ") + random.nextInt(1000) + " " + i;
+            final Person toAdd = person(name);
+            persons.add(toAdd);
+            expected.add(toAdd);
+        }
+        expected.sort(Comparator.comparing(person -> person.getName().toString(), String::compareToIgnoreCase));
+
+        assertTrue(persons.isKeptSorted());
+        assertEquals(expected, persons.immutableListView());
+    }
+
+    @Test
+    public void replace_keptSorted_movesRenamedPerson() throws Exception {
+        final Person alice = person("Alice");
+        final Person bob = person("Bob");
+        final Person carol = person("Carol");
+        final UniquePersonList persons = new UniquePersonList(carol, alice, bob);
+        persons.sort(SortOrder.BY_NAME, true);
+
+        final Person renamed = person("Dave");
+        persons.replace(alice, renamed);
+        persons.add(person("Aaron"), 3); // the position is ignored when kept sorted
+
+        assertEquals("Aaron", persons.immutableListView().get(0).getName().toString());
+        assertEquals(3, persons.indexOf(renamed));
+        assertEquals(1, persons.indexOf(bob));
+    }
+
+    @Test
+    public void addAll_duplicates_skippedAndRestAppendedInOrder() throws Exception {
+        final Person alice = person("Alice");
+        final Person bob = person("Bob");
+        final UniquePersonList persons = new UniquePersonList(alice, bob);
+        final List<Person> toAdd = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            toAdd.add(person("Person " + i));
+        }
+        toAdd.add(person("Bob")); // already in the list
+        toAdd.add(person("Person 2")); // earlier in the persons to add
+
+        // more persons than in the list, so the order is rebuilt in one go
+        final List<Person> added = persons.addAll(toAdd);
+
+        assertEquals(toAdd.subList(0, 5), added);
+        final List<ReadOnlyPerson> expected = new ArrayList<>(Arrays.asList(alice, bob));
+        expected.addAll(added);
+        assertEquals(expected, persons.immutableListView());
+        assertEquals(6, persons.indexOf(added.get(4)));
+
+        // fewer persons than in the list, so they are filed one by one
+        final Person carol = person("Carol");
+        assertEquals(Collections.singletonList(carol), persons.addAll(Arrays.asList(carol, person("Alice"))));
+        assertEquals(7, persons.indexOf(carol));
+        persons.add(person("Dave"));
+        assertEquals(9, persons.size());
+    }
+
+    @Test
+    public void addAll_keptSorted_placedInOrder() throws Exception {
+        final UniquePersonList persons = new UniquePersonList(person("Bob"), person("Dave"));
+        persons.sort(SortOrder.BY_NAME, true);
+
+        persons.addAll(Arrays.asList(person("Carol"), person("Alice"), person("Bob")));
+
+        final List<String> names = new ArrayList<>();
+        for (Person person : persons) {
+            names.add(person.getName().toString());
+        }
+        assertEquals(Arrays.asList("Alice", "Bob", "Carol", "Dave"), names);
+    }
+
+    @Test
+    public void lookups_personChangedInPlace_foundWithoutRefiling() throws Exception {
+        final Person alice = person("Alice");
+        final Person bob = person("Bob");
+        final UniquePersonList persons = new UniquePersonList(alice, bob);
+
+        bob.setName(new Name("Robert"));
+
+        // lookups only read the list, so that they can run in parallel, and leave the person under its old key
+        assertTrue(persons.contains(bob));
+        assertSame(bob, persons.get(bob));
+        assertEquals(1, persons.indexOf(bob));
+        assertNull(persons.find(new PersonKey(bob)));
+
+        // changes refile it first
+        persons.replace(bob, bob);
+        assertSame(bob, persons.find(new PersonKey(bob)));
+        persons.remove(bob);
+        assertEquals(1, persons.size());
+        assertFalse(persons.contains(person("Robert")));
+    }
+
+    private static Person person(String name) throws Exception {
+        return new Person(new Name(name), new Phone("123", false), new Email("a@b", false),
+                new Address("address", false), new UniqueTagList());
+    }
+}
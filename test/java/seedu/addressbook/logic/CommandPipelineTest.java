@@ -0,0 +1,133 @@
+package seedu.addressbook.logic;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import seedu.addressbook.commands.CommandResult;
+import seedu.addressbook.commands.DeleteCommand;
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.storage.StorageFile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class CommandPipelineTest {
+
+    private static final String ADD_ADAM = "add Adam Brown p/111111 e/adam@gmail.com a/111, alpha street";
+    private static final String ADD_BETSY = "add Betsy Crowe p/222222 e/betsy@gmail.com a/222, beta street";
+
+    @Rule
+    public TemporaryFolder saveFolder = new TemporaryFolder();
+
+    private AddressBook addressBook;
+    private Logic logic;
+    private CommandPipeline pipeline;
+
+    /** The outcomes reported to the callbacks, in the order they were reported. */
+    private final List<String> outcomes = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setup() throws Exception {
+        StorageFile saveFile = new StorageFile(saveFolder.newFile("testSaveFile.txt").getPath());
+        addressBook = new AddressBook();
+        saveFile.save(addressBook);
+        logic = new Logic(saveFile, addressBook);
+        pipeline = new CommandPipeline(logic, Runnable::run);
+    }
+
+    @Test
+    public void submit_severalCommands_runInOrder() throws Exception {
+        pipeline.submit(ADD_ADAM, result -> result.feedbackToUser, recordingCallback("add"));
+        pipeline.submit(ADD_BETSY, result -> result.feedbackToUser, recordingCallback("add"));
+        pipeline.submit("list", result -> result.feedbackToUser, recordingCallback("list"));
+        pipeline.submit("delete 1", result -> result.feedbackToUser, recordingCallback("delete"));
+        pipeline.close();
+
+        assertEquals(4, outcomes.size());
+        assertTrue(outcomes.get(0).startsWith("add completed"));
+        assertTrue(outcomes.get(1).startsWith("add completed"));
+        assertEquals("list completed: 2 persons listed!", outcomes.get(2));
+        assertTrue(outcomes.get(3).startsWith("delete completed: "
+                + String.format(DeleteCommand.MESSAGE_DELETE_PERSON_SUCCESS, "Adam Brown")));
+        assertEquals(1, addressBook.getAllPersons().size());
+    }
+
+    @Test
+    public void cancelAll_runningQuery_resultDiscardedAndQueuedCommandsSkipped() throws Exception {
+        pipeline.submit(ADD_ADAM, result -> result.feedbackToUser, recordingCallback("add"));
+        final CountDownLatch queryStarted = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        pipeline.submit("list", blockingRender(queryStarted, cancelled), recordingCallback("list"));
+        pipeline.submit("delete 1", result -> result.feedbackToUser, recordingCallback("delete"));
+
+        queryStarted.await();
+        pipeline.cancelAll();
+        cancelled.countDown();
+        pipeline.close();
+
+        assertEquals(3, outcomes.size());
+        assertTrue(outcomes.get(0).startsWith("add completed"));
+        assertEquals(Arrays.asList("list cancelled", "delete cancelled"), outcomes.subList(1, 3));
+        // the discarded listing is not what later commands refer to, and the queued delete never ran
+        assertTrue(logic.getLastShownPersonList().isEmpty());
+        assertEquals(1, addressBook.getAllPersons().size());
+    }
+
+    @Test
+    public void cancelAll_runningChange_completed() throws Exception {
+        final CountDownLatch addStarted = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        pipeline.submit(ADD_ADAM, blockingRender(addStarted, cancelled), recordingCallback("add"));
+
+        addStarted.await();
+        pipeline.cancelAll();
+        cancelled.countDown();
+        pipeline.close();
+
+        assertEquals(Collections.singletonList("add completed: rendered"), outcomes);
+        assertEquals(1, addressBook.getAllPersons().size());
+    }
+
+    /**
+     * Returns a render function that signals that it started and then waits to be let go.
+     * Rendering runs on the worker, so this holds up the command being rendered.
+     */
+    private static Function<CommandResult, String> blockingRender(CountDownLatch started, CountDownLatch letGo) {
+        return result -> {
+            started.countDown();
+            try {
+                letGo.await();
+            } catch (InterruptedException ie) {
+                throw new RuntimeException(ie);
+            }
+            return "rendered";
+        };
+    }
+
+    private CommandPipeline.Callback<String> recordingCallback(String name) {
+        return new CommandPipeline.Callback<String>() {
+            @Override
+            public void onCompleted(CommandResult result, String rendered) {
+                outcomes.add(name + " completed: " + rendered);
+            }
+
+            @Override
+            public void onCancelled() {
+                outcomes.add(name + " cancelled");
+            }
+
+            @Override
+            public void onFailed(Exception e) {
+                outcomes.add(name + " failed: " + e);
+            }
+        };
+    }
+}
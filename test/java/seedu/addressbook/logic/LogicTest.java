@@ -13,11 +13,18 @@ import seedu.addressbook.data.person.*;
 import seedu.addressbook.data.tag.ReadOnlyTag;
 import seedu.addressbook.data.tag.Tag;
 import seedu.addressbook.data.tag.UniqueTagList;
+import seedu.addressbook.parser.ContactFileParser;
 import seedu.addressbook.storage.StorageFile;
 
+import java.io.File;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
 import static seedu.addressbook.common.Messages.*;
 
 
@@ -95,6 +102,22 @@ public class LogicTest {
     }
 
 
+    @Test
+    public void execute_unmodifiedAddressBook_notSaved() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        File file = new File(saveFile.getPath());
+        assertTrue(file.delete());
+
+        logic.execute("list");
+        logic.execute("find Adam");
+        logic.execute("help");
+        logic.execute("delete 1");
+        assertFalse(file.exists());
+
+        logic.execute(helper.generateAddCommand(helper.adam()));
+        assertTrue(file.exists());
+    }
+
     @Test
     public void execute_unknownCommandWord() throws Exception {
         String unknownCommand = "uicfhmowqewca";
@@ -190,7 +213,7 @@ public class LogicTest {
         // prepare expectations
         TestDataHelper helper = new TestDataHelper();
         AddressBook expectedAB = helper.generateAddressBook(false, true);
-        List<? extends ReadOnlyPerson> expectedList = expectedAB.getAllPersons().immutableListView();
+        List<? extends ReadOnlyPerson> expectedList = expectedAB.getAllPersons();
 
         // prepare address book state
         helper.addToAddressBook(addressBook, false, true);
@@ -202,6 +225,23 @@ public class LogicTest {
                               expectedList);
     }
     
+    @Test
+    public void execute_listThenDelete_shownListUnchanged() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person p1 = helper.generatePerson(1, false);
+        Person p2 = helper.generatePerson(2, true);
+        List<Person> twoPersons = helper.generatePersonList(p1, p2);
+        helper.addToAddressBook(addressBook, twoPersons);
+
+        logic.execute("list");
+        logic.execute("delete 1");
+
+        assertEquals(twoPersons, logic.getLastShownPersonList());
+        assertEquals(String.format(DeleteCommand.MESSAGE_DELETE_PERSON_SUCCESS, p2),
+                logic.execute("delete 2").feedbackToUser);
+        assertEquals(0, addressBook.getAllPersons().size());
+    }
+
     @Test
     public void execute_list_showsAllTags() throws Exception {
         // prepare expectations
@@ -258,6 +298,53 @@ public class LogicTest {
         addressBook.clear();
     }
 
+    @Test
+    public void execute_renameTag_earlierVersionUnchanged() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        logic.execute(helper.generateAddCommand(helper.jack_tag3()));
+        AddressBook before = logic.getCurrentVersion();
+
+        logic.execute("listtag");
+        logic.execute("renametag 1 tag4");
+
+        assertEquals(1, before.countPersonsWithTag(new Tag("tag3")));
+        assertEquals(new Tag("tag3"), before.getAllPersons().get(0).getTagIds().tagAt(0));
+        AddressBook after = logic.getCurrentVersion();
+        assertEquals(0, after.countPersonsWithTag(new Tag("tag3")));
+        assertEquals(new Tag("tag4"), after.getAllPersons().get(0).getTagIds().tagAt(0));
+    }
+
+    @Test
+    public void execute_countTag_showsPersonsWithEachTag() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        addressBook.addPerson(helper.adam());
+        addressBook.addPerson(helper.jack_tag3());
+        addressBook.addTag(new Tag("unused"));
+        logic.execute("listtag");
+        logic.execute("renametag 3 tag1");
+
+        StringBuilder expectedMessage = new StringBuilder();
+        for (Tag tag : addressBook.getAllTags()) {
+            int count = 0;
+            for (ReadOnlyPerson person : addressBook.getAllPersons()) {
+                if (person.getTags().contains(tag)) {
+                    count++;
+                }
+            }
+            expectedMessage.append(String.format(CountTagCommand.MESSAGE_TAG_COUNT, tag, count)).append('\n');
+        }
+        expectedMessage.append(String.format(CountTagCommand.MESSAGE_TAGS_COUNTED, addressBook.getAllTags().immutableListView().size()));
+        List<ReadOnlyTag> shownBefore = new ArrayList<>(logic.getLastShownTagList());
+
+        CommandResult r = logic.execute("counttag");
+        assertEquals(expectedMessage.toString(), r.feedbackToUser);
+        // the counts are no listing, so indexes still refer to the tags listed before
+        assertFalse(r.getRelevantTags().isPresent());
+        assertEquals(shownBefore, logic.getLastShownTagList());
+        assertTrue(expectedMessage.toString().contains("[tag1]: 2 persons"));
+        assertTrue(expectedMessage.toString().contains("[unused]: 0 persons"));
+    }
+
     @Test
     public void execute_view_invalidArgsFormat() throws Exception {
         String expectedMessage = String.format(MESSAGE_INVALID_COMMAND_FORMAT, ViewCommand.MESSAGE_USAGE);
@@ -421,6 +508,26 @@ public class LogicTest {
                 threePersons);
     }
     
+    @Test
+    public void execute_edit_duplicatePerson_notAllowed() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person p1 = helper.generatePerson(1, false);
+        Person p2 = helper.generatePerson(2, false);
+
+        List<Person> twoPersons = helper.generatePersonList(p1, p2);
+
+        AddressBook expectedAB = helper.generateAddressBook(twoPersons);
+
+        helper.addToAddressBook(addressBook, twoPersons);
+        logic.setLastShownPersonList(twoPersons);
+
+        assertCommandBehavior("edit 1 n/Person 2 p/2 e/2@email a/House of 2",
+                                EditCommand.MESSAGE_DUPLICATE_PERSON,
+                                expectedAB,
+                                false,
+                                twoPersons);
+    }
+
     @Test
     public void execute_edit_missingInAddressBook() throws Exception {
         TestDataHelper helper = new TestDataHelper();
@@ -479,6 +586,204 @@ public class LogicTest {
                                 threePersons);
     }
 
+    @Test
+    public void execute_delete_resolvesIndexAgainstOwnSession() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person p1 = helper.generatePerson(1, false);
+        Person p2 = helper.generatePerson(2, false);
+        helper.addToAddressBook(addressBook, helper.generatePersonList(p1, p2));
+        Session listingAll = new Session();
+        Session findingOne = new Session();
+
+        logic.execute("list", listingAll);
+        logic.execute("find 2@email", findingOne);
+        assertEquals(Arrays.asList(p1, p2), listingAll.getLastShownPersonList());
+        assertEquals(Collections.singletonList(p2), findingOne.getLastShownPersonList());
+        assertEquals(Collections.emptyList(), logic.getLastShownPersonList());
+
+        // the same index refers to a different person in each session
+        CommandResult result = logic.execute("delete 1", findingOne);
+        assertEquals(String.format(DeleteCommand.MESSAGE_DELETE_PERSON_SUCCESS, p2), result.feedbackToUser);
+        result = logic.execute("delete 1", listingAll);
+        assertEquals(String.format(DeleteCommand.MESSAGE_DELETE_PERSON_SUCCESS, p1), result.feedbackToUser);
+        result = logic.execute("delete 1");
+        assertEquals(MESSAGE_INVALID_PERSON_DISPLAYED_INDEX, result.feedbackToUser);
+        assertEquals(Collections.emptyList(), addressBook.getAllPersons());
+    }
+
+    @Test
+    public void execute_undoInTwoSessions_eachUndoesOnlyOwnChanges() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person p1 = helper.generatePerson(1, false);
+        Person p2 = helper.generatePerson(2, false);
+        Session first = new Session();
+        Session second = new Session();
+        logic.execute(helper.generateAddCommand(p1), first);
+        logic.execute(helper.generateAddCommand(p2), second);
+
+        // the latest change is the second session's, so the first cannot undo past it
+        assertEquals(UndoCommand.MESSAGE_CHANGED_BY_OTHER_CLIENT, logic.execute("undo", first).feedbackToUser);
+        assertEquals(helper.generatePersonList(p1, p2), addressBook.getAllPersons());
+
+        assertEquals(UndoCommand.MESSAGE_SUCCESS, logic.execute("undo", second).feedbackToUser);
+        assertEquals(RedoCommand.MESSAGE_CHANGED_BY_OTHER_CLIENT, logic.execute("redo", first).feedbackToUser);
+        assertEquals(UndoCommand.MESSAGE_SUCCESS, logic.execute("undo", first).feedbackToUser);
+        assertEquals(Collections.emptyList(), addressBook.getAllPersons());
+
+        assertEquals(RedoCommand.MESSAGE_SUCCESS, logic.execute("redo", first).feedbackToUser);
+        assertEquals(UndoCommand.MESSAGE_CHANGED_BY_OTHER_CLIENT, logic.execute("undo", second).feedbackToUser);
+        assertEquals(helper.generatePersonList(p1), addressBook.getAllPersons());
+    }
+
+    @Test
+    public void execute_concurrentSessions_eachSeesOwnChanges() throws Exception {
+        final int threads = 8;
+        final int personsPerThread = 50;
+        TestDataHelper helper = new TestDataHelper();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> clients = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            clients.add(executor.submit(() -> {
+                Session session = new Session();
+                for (int i = 0; i < personsPerThread; i++) {
+                    int seed = thread * personsPerThread + i;
+                    Person person = helper.generatePerson(seed, false);
+                    logic.execute(helper.generateAddCommand(person), session);
+                    logic.execute("list", session);
+                    // found by its unique email, and deleted by its index in this session's listing
+                    CommandResult found = logic.execute("find " + seed + "@email", session);
+                    assertEquals(Collections.singletonList(person), found.getRelevantPersons().get());
+                    if (i % 2 == 0) {
+                        CommandResult deleted = logic.execute("delete 1", session);
+                        assertTrue(deleted.feedbackToUser.startsWith(
+                                String.format(DeleteCommand.MESSAGE_DELETE_PERSON_SUCCESS, person.getName())));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> client : clients) {
+            client.get();
+        }
+        executor.shutdown();
+
+        assertEquals(threads * personsPerThread / 2, addressBook.getAllPersons().size());
+        assertEquals(addressBook, saveFile.load());
+    }
+
+    @Test
+    public void execute_undoRedoDelete_restoresPosition() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person p1 = helper.generatePerson(1, false);
+        Person p2 = helper.generatePerson(2, true);
+        Person p3 = helper.generatePerson(3, true);
+        List<Person> threePersons = helper.generatePersonList(p1, p2, p3);
+        AddressBook expectedAB = helper.generateAddressBook(threePersons);
+        helper.addToAddressBook(addressBook, threePersons);
+        logic.setLastShownPersonList(threePersons);
+
+        logic.execute("delete 2");
+        logic.execute("list");
+        assertEquals(UndoCommand.MESSAGE_SUCCESS, logic.execute("undo").feedbackToUser);
+        assertEquals(expectedAB, addressBook);
+        assertEquals(expectedAB, saveFile.load());
+
+        expectedAB.removePerson(p2);
+        assertEquals(RedoCommand.MESSAGE_SUCCESS, logic.execute("redo").feedbackToUser);
+        assertEquals(expectedAB, addressBook);
+        assertEquals(RedoCommand.MESSAGE_NOTHING_TO_REDO, logic.execute("redo").feedbackToUser);
+    }
+
+    @Test
+    public void execute_undoClear_restoresPersonsAndTags() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        helper.addToAddressBook(addressBook, false, true, false);
+        AddressBook expectedAB = helper.generateAddressBook(false, true, false);
+
+        logic.execute("clear");
+        logic.execute("undo");
+
+        assertEquals(expectedAB, addressBook);
+        assertEquals(expectedAB.getAllTags(), addressBook.getAllTags());
+        assertEquals(3, addressBook.findPersons(new HashSet<>(Arrays.asList("Person"))).size());
+        assertEquals(expectedAB, saveFile.load());
+    }
+
+    @Test
+    public void execute_undoSortOverMemoryBudget_keepsSortAndForgetsOlderSteps() throws Exception {
+        // the entries of the persons before the sort alone exceed the budget
+        logic = new Logic(saveFile, addressBook, 16 * 1024);
+        TestDataHelper helper = new TestDataHelper();
+        List<Person> persons = new ArrayList<>();
+        for (int i = 200; i >= 1; i--) {
+            persons.add(helper.generatePerson(i, false));
+        }
+        helper.addToAddressBook(addressBook, persons);
+        logic.execute(helper.generateAddCommand(helper.generatePerson(201, false)));
+        List<ReadOnlyPerson> unsorted = new ArrayList<>(addressBook.getAllPersons());
+
+        String feedback = logic.execute("sort").feedbackToUser;
+        assertTrue(feedback.endsWith("\n" + MESSAGE_UNDO_HISTORY_FORGOTTEN));
+        assertFalse(unsorted.equals(addressBook.getAllPersons()));
+
+        assertEquals(UndoCommand.MESSAGE_SUCCESS, logic.execute("undo").feedbackToUser);
+        assertEquals(unsorted, addressBook.getAllPersons());
+        assertEquals(UndoCommand.MESSAGE_NOTHING_TO_UNDO, logic.execute("undo").feedbackToUser);
+    }
+
+    @Test
+    public void execute_undo_nothingToUndo() throws Exception {
+        assertCommandBehavior("undo", UndoCommand.MESSAGE_NOTHING_TO_UNDO);
+    }
+
+    @Test
+    public void execute_sortByFields_listedInOrder() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person p1 = helper.generatePerson(1, false);
+        Person p2 = helper.generatePerson(2, true);
+        Person p3 = helper.generatePerson(3, false);
+        p3.setTags(new UniqueTagList(new Tag("tag3")));
+        helper.addToAddressBook(addressBook, helper.generatePersonList(p1, p2, p3));
+
+        // fewest tags first, then private phones last, then phones in descending order
+        List<Person> expectedList = helper.generatePersonList(p3, p1, p2);
+        AddressBook expectedAB = helper.generateAddressBook(expectedList);
+        assertCommandBehavior("sort tags phone desc",
+                String.format(SortCommand.MESSAGE_SUCCESS, "tags phone desc"),
+                addressBook,
+                true,
+                expectedList);
+        assertEquals(expectedAB.getAllPersons(), addressBook.getAllPersons());
+        assertFalse(addressBook.isKeptSorted());
+    }
+
+    @Test
+    public void execute_sortKeep_addedAndEditedPersonsPlacedInOrder() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person p1 = helper.generatePerson(1, false);
+        Person p2 = helper.generatePerson(2, false);
+        Person p3 = helper.generatePerson(3, false);
+        helper.addToAddressBook(addressBook, helper.generatePersonList(p3, p1));
+
+        assertEquals(String.format(SortCommand.MESSAGE_SUCCESS_KEPT_SORTED, SortOrder.BY_NAME),
+                logic.execute("sort keep").feedbackToUser);
+        logic.execute(helper.generateAddCommand(p2));
+        assertEquals(helper.generatePersonList(p1, p2, p3), addressBook.getAllPersons());
+
+        logic.setLastShownPersonList(helper.generatePersonList(p1, p2, p3));
+        logic.execute("edit 1 n/Person 9");
+        p1.setName(new Name("Person 9"));
+        assertEquals(helper.generatePersonList(p2, p3, p1), addressBook.getAllPersons());
+
+        AddressBook saved = saveFile.load();
+        assertEquals(addressBook, saved);
+        assertTrue(saved.isKeptSorted());
+
+        logic.execute("sort");
+        assertFalse(addressBook.isKeptSorted());
+    }
+
     @Test
     public void execute_delete_missingInAddressBook() throws Exception {
 
@@ -569,6 +874,282 @@ public class LogicTest {
                                 expectedList);
     }
 
+    @Test
+    public void execute_find_doesNotMatchPrivateDetails() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person pTarget = helper.generatePerson(1, false);
+        Person pPrivate = helper.generatePerson(2, true);
+
+        List<Person> twoPersons = helper.generatePersonList(pTarget, pPrivate);
+        AddressBook expectedAB = helper.generateAddressBook(twoPersons);
+        List<Person> expectedList = helper.generatePersonList(pTarget);
+        helper.addToAddressBook(addressBook, twoPersons);
+
+        assertCommandBehavior("find 1@email 2@email",
+                                Command.getMessageForPersonListShownSummary(expectedList),
+                                expectedAB,
+                                true,
+                                expectedList);
+    }
+
+    @Test
+    public void execute_find_matchesRenamedTag() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        addressBook.addPerson(helper.adam());
+        addressBook.addPerson(helper.jack_tag3());
+
+        logic.execute("listtag");
+        logic.execute("renametag 3 tag4");
+
+        AddressBook expectedAB = new AddressBook();
+        expectedAB.addPerson(helper.adam());
+        expectedAB.addPerson(helper.jack_tag4());
+        List<Person> expectedList = helper.generatePersonList(helper.jack_tag4());
+
+        assertCommandBehavior("find [tag4] [tag3]",
+                                Command.getMessageForPersonListShownSummary(expectedList),
+                                expectedAB,
+                                true,
+                                expectedList);
+    }
+
+    @Test
+    public void execute_findPrefix_matchesWordsAndTagsStartingWithPrefix() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person pAlice = helper.generatePersonWithName("Alice Tan");
+        Person pAli = helper.generatePersonWithName("Ali Baba");
+        Person pSali = helper.generatePersonWithName("Sali Tan");
+        Person pAdam = helper.adam();
+
+        List<Person> fourPersons = helper.generatePersonList(pAlice, pAli, pSali, pAdam);
+        AddressBook expectedAB = helper.generateAddressBook(fourPersons);
+        helper.addToAddressBook(addressBook, fourPersons);
+
+        // prefixes match the start of words only, ignoring case
+        List<Person> expectedList = helper.generatePersonList(pAlice, pAli);
+        assertCommandBehavior("find ali*",
+                                Command.getMessageForPersonListShownSummary(expectedList),
+                                expectedAB,
+                                true,
+                                expectedList);
+
+        expectedList = helper.generatePersonList(pAli, pSali, pAdam);
+        assertCommandBehavior("find BA* [TAG2*] sali",
+                                Command.getMessageForPersonListShownSummary(expectedList),
+                                expectedAB,
+                                true,
+                                expectedList);
+
+        // a removed person is no longer found by prefix
+        addressBook.removePerson(pAli);
+        expectedAB.removePerson(pAli);
+        expectedList = helper.generatePersonList(pAlice);
+        assertCommandBehavior("find ali*",
+                                Command.getMessageForPersonListShownSummary(expectedList),
+                                expectedAB,
+                                true,
+                                expectedList);
+    }
+
+    @Test
+    public void execute_findWithLimit_listsMostRelevantFirst() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person pLong = helper.generatePersonWithName("bla bli KEY blu");
+        Person pShort = helper.generatePersonWithName("KEY bla");
+        Person pBoth = helper.generatePersonWithName("KEY rare");
+        Person pNone = helper.generatePersonWithName("bla bla");
+
+        List<Person> fourPersons = helper.generatePersonList(pLong, pShort, pBoth, pNone);
+        AddressBook expectedAB = helper.generateAddressBook(fourPersons);
+        helper.addToAddressBook(addressBook, fourPersons);
+
+        // matching both keywords beats matching one; of those matching one, shorter details win
+        List<Person> expectedList = helper.generatePersonList(pBoth, pShort);
+        assertCommandBehavior("find key rare limit/2",
+                                Command.getMessageForPersonListShownSummary(expectedList),
+                                expectedAB,
+                                true,
+                                expectedList);
+
+        // a limit above the number of matches lists every match
+        expectedList = helper.generatePersonList(pBoth, pShort, pLong);
+        assertCommandBehavior("find key rare limit/10",
+                                Command.getMessageForPersonListShownSummary(expectedList),
+                                expectedAB,
+                                true,
+                                expectedList);
+    }
+
+    @Test
+    public void execute_findWithLimit_equallyRelevantInListOrder() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person p1 = helper.generatePersonWithName("KEY one");
+        Person p2 = helper.generatePersonWithName("KEY two");
+        Person p3 = helper.generatePersonWithName("KEY three");
+
+        List<Person> threePersons = helper.generatePersonList(p1, p2, p3);
+        AddressBook expectedAB = helper.generateAddressBook(threePersons);
+        helper.addToAddressBook(addressBook, threePersons);
+
+        List<Person> expectedList = helper.generatePersonList(p1, p2);
+        assertCommandBehavior("find [tag] limit/2",
+                                Command.getMessageForPersonListShownSummary(expectedList),
+                                expectedAB,
+                                true,
+                                expectedList);
+    }
+
+    @Test
+    public void execute_run_runsEachLineAndSavesOnce() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person p1 = helper.generatePerson(1, false);
+        Person p2 = helper.generatePerson(2, false);
+        File script = saveFolder.newFile("script.txt");
+        java.nio.file.Files.write(script.toPath(), Arrays.asList(
+                RunCommand.COMMENT_START + " two persons, one of them twice",
+                helper.generateAddCommand(p1),
+                "",
+                helper.generateAddCommand(p2),
+                helper.generateAddCommand(p1),
+                "bogus",
+                "list",
+                "delete 1"));
+        CountingStorageFile countingSaveFile = new CountingStorageFile(saveFile.getPath());
+        logic = new Logic(countingSaveFile, addressBook);
+
+        CommandResult r = logic.execute("run " + script.getPath());
+
+        String expectedMessage = String.format(RunCommand.MESSAGE_SUCCESS, 6, script.getPath(), 4, 2) + "\n"
+                + String.format(RunCommand.MESSAGE_LINE_FAILED, 5, AddCommand.MESSAGE_DUPLICATE_PERSON) + "\n"
+                + String.format(RunCommand.MESSAGE_LINE_FAILED, 6,
+                        String.format(RunCommand.MESSAGE_UNKNOWN_COMMAND, "bogus"));
+        assertEquals(expectedMessage, r.feedbackToUser);
+        AddressBook expectedAB = helper.generateAddressBook(helper.generatePersonList(p1, p2));
+        expectedAB.removePerson(p1);
+        assertEquals(expectedAB, addressBook);
+        assertEquals(expectedAB, saveFile.load());
+        assertEquals(1, countingSaveFile.saveCount);
+        // the listing in the script is not what later commands refer to
+        assertEquals(Collections.emptyList(), logic.getLastShownPersonList());
+
+        // each line is undone on its own
+        logic.execute("undo");
+        assertEquals(helper.generateAddressBook(helper.generatePersonList(p1, p2)), addressBook);
+    }
+
+    @Test
+    public void execute_runWithCheckpoint_savesAtCheckpoints() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        File script = saveFolder.newFile("script.txt");
+        java.nio.file.Files.write(script.toPath(), Arrays.asList(
+                helper.generateAddCommand(helper.generatePerson(1, false)),
+                helper.generateAddCommand(helper.generatePerson(2, false)),
+                helper.generateAddCommand(helper.generatePerson(3, false))));
+        CountingStorageFile countingSaveFile = new CountingStorageFile(saveFile.getPath());
+        logic = new Logic(countingSaveFile, addressBook);
+
+        RunCommand run = new RunCommand(script.getPath(), 2);
+        logic.execute(run, result -> true);
+
+        // once after the second command, and once more at the end
+        assertEquals(2, countingSaveFile.saveCount);
+        assertEquals(addressBook, saveFile.load());
+        assertFalse(run.hasFailed());
+    }
+
+    @Test
+    public void execute_runNested_lineFails() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person p1 = helper.generatePerson(1, false);
+        File script = saveFolder.newFile("script.txt");
+        java.nio.file.Files.write(script.toPath(), Arrays.asList(
+                helper.generateAddCommand(p1),
+                "run " + script.getPath()));
+
+        RunCommand run = new RunCommand(script.getPath(), RunCommand.NO_CHECKPOINTS);
+        CommandResult r = logic.execute(run, result -> true);
+
+        assertEquals(String.format(RunCommand.MESSAGE_SUCCESS, 2, script.getPath(), 1, 1) + "\n"
+                + String.format(RunCommand.MESSAGE_LINE_FAILED, 2, RunCommand.MESSAGE_NESTED_RUN),
+                r.feedbackToUser);
+        assertEquals(helper.generateAddressBook(helper.generatePersonList(p1)), addressBook);
+        assertTrue(run.hasFailed());
+    }
+
+    @Test
+    public void execute_run_missingFile() throws Exception {
+        String missingPath = new File(saveFolder.getRoot(), "missing.txt").getPath();
+        RunCommand run = new RunCommand(missingPath, RunCommand.NO_CHECKPOINTS);
+        CommandResult r = logic.execute(run, result -> true);
+        assertTrue(r.feedbackToUser.startsWith(String.format(RunCommand.MESSAGE_SUCCESS, 0, missingPath, 0, 0)
+                + "\n" + String.format(RunCommand.MESSAGE_CANNOT_READ, missingPath, "")));
+        // no command failed, but the script did not run, so a script launch exits with a failure
+        assertEquals(0, run.getFailedCount());
+        assertTrue(run.hasFailed());
+    }
+
+    @Test
+    public void execute_import_addsNewPersonsAndSkipsDuplicates() throws Exception {
+        TestDataHelper helper = new TestDataHelper();
+        Person existing = helper.generatePerson(1, false);
+        Person p2 = helper.generatePerson(2, false);
+        Person p3 = helper.generatePerson(3, false);
+        helper.addToAddressBook(addressBook, helper.generatePersonList(existing));
+        File csv = saveFolder.newFile("contacts.csv");
+        java.nio.file.Files.write(csv.toPath(), Arrays.asList(
+                "name,phone,email,address,tags",
+                toCsvLine(p2),
+                toCsvLine(existing),
+                "Inv@lid,1,a@b.com,Street,",
+                toCsvLine(p3)));
+
+        CommandResult r = logic.execute("import " + csv.getPath());
+
+        String[] lines = r.feedbackToUser.split("\n");
+        assertEquals(String.format(ImportCommand.MESSAGE_SUCCESS, 2, csv.getPath(), 1, 1), lines[0]);
+        assertTrue(lines[1].startsWith("Read 4 records in "));
+        assertEquals(String.format(ContactFileParser.MESSAGE_INVALID_RECORD, 4, Name.MESSAGE_NAME_CONSTRAINTS),
+                lines[2]);
+        AddressBook expectedAB = helper.generateAddressBook(helper.generatePersonList(existing, p2, p3));
+        assertEquals(expectedAB, addressBook);
+        assertEquals(expectedAB, saveFile.load());
+
+        // the whole import is undone at once
+        logic.execute("undo");
+        assertEquals(Collections.singletonList(existing), addressBook.getAllPersons());
+    }
+
+    @Test
+    public void execute_import_unknownFormat() throws Exception {
+        assertCommandBehavior("import contacts.txt", ContactFileParser.MESSAGE_UNKNOWN_FORMAT);
+    }
+
+    private static String toCsvLine(ReadOnlyPerson person) {
+        final StringJoiner tags = new StringJoiner(" ");
+        for (Tag tag : person.getTags()) {
+            tags.add(tag.tagName);
+        }
+        return String.join(",", person.getName().toString(), person.getPhone().toString(),
+                person.getEmail().toString(), "\"" + person.getAddress() + "\"", tags.toString());
+    }
+
+    /**
+     * A storage file that counts how many times it is saved to.
+     */
+    private static class CountingStorageFile extends StorageFile {
+        private int saveCount;
+
+        CountingStorageFile(String filePath) throws Exception {
+            super(filePath);
+        }
+
+        @Override
+        public void save(AddressBook addressBook) throws StorageOperationException {
+            saveCount++;
+            super.save(addressBook);
+        }
+    }
+
     /**
      * A utility class to generate test data.
      */
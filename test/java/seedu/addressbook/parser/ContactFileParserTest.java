@@ -0,0 +1,232 @@
+package seedu.addressbook.parser;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import seedu.addressbook.data.exception.IllegalValueException;
+import seedu.addressbook.data.person.Person;
+import seedu.addressbook.data.person.Phone;
+import seedu.addressbook.data.tag.ReadOnlyTag;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ContactFileParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Person> persons = new ArrayList<>();
+    private final List<String> problems = new ArrayList<>();
+
+    @Test
+    public void parse_csv_quotedValuesAndColumnsInAnyOrder() throws Exception {
+        parse("contacts.csv",
+                "Email,Name,Address,Tags,Phone,Notes",
+                "alice@example.com,Alice Tan,\"1 Main St, #02-01\",friends work,9123 4567,\"says \"\"hi\"\"\"",
+                "",
+                "bob@example.com,Bob Lee,2 Side St,,(65) 8000-1234,");
+
+        assertEquals(2, persons.size());
+        final Person alice = persons.get(0);
+        assertEquals("Alice Tan", alice.getName().toString());
+        assertEquals("91234567", alice.getPhone().toString());
+        assertEquals("1 Main St, #02-01", alice.getAddress().toString());
+        assertEquals(Arrays.asList("friends", "work"), tagNames(alice));
+        assertFalse(alice.getEmail().isPrivate());
+        assertEquals("6580001234", persons.get(1).getPhone().toString());
+        assertTrue(tagNames(persons.get(1)).isEmpty());
+        assertTrue(problems.isEmpty());
+    }
+
+    @Test
+    public void parse_csvInvalidRows_reportedWithLineNumbers() throws Exception {
+        parse("contacts.csv",
+                "name,phone,email,address",
+                "Valid One,1,one@example.com,1 Street",
+                "Inv@lid,2,two@example.com,2 Street",
+                "Valid Three,3,three@example.com,3 Street",
+                "Bad Phone,call me,four@example.com,4 Street",
+                "Unclosed,5,five@example.com,\"5 Street");
+
+        assertEquals(2, persons.size());
+        assertEquals(3, problems.size());
+        assertTrue(problems.get(0).startsWith("Line 3: "));
+        assertTrue(problems.get(1).startsWith("Line 5: "));
+        assertEquals("Line 6: " + ContactFileParser.MESSAGE_UNCLOSED_QUOTE, problems.get(2));
+    }
+
+    @Test
+    public void parse_csvLineBreaksInQuotedValues_keptInOneRecord() throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("name,phone,email,address");
+        for (int i = 1; i <= 50; i++) {
+            lines.add("Person " + i + "," + i + ",p" + i + "@example.com,\"" + i + " Main St\r\nApt " + i + "\"\r");
+        }
+        lines.add("Inv@lid,0,x@example.com,\"Street\n\n, \"\"quoted\"\"\"");
+        // blocks shorter than a record, so that the cuts between chunks must not fall inside quoted values
+        parse("contacts.csv", lines, 16);
+
+        assertEquals(50, persons.size());
+        assertEquals("1 Main St Apt 1", persons.get(0).getAddress().toString());
+        assertEquals("Person 50", persons.get(49).getName().toString());
+        assertEquals("50 Main St Apt 50", persons.get(49).getAddress().toString());
+        // each record above spans two lines
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).startsWith("Line 102: "));
+    }
+
+    @Test
+    public void parse_csvMissingColumn_rejected() throws Exception {
+        try {
+            parse("contacts.csv", "name,phone,address", "Alice,1,1 Street");
+            fail("A file without an email column should be rejected");
+        } catch (IllegalValueException ive) {
+            assertEquals(String.format(ContactFileParser.MESSAGE_MISSING_COLUMN, ContactFileParser.COLUMN_EMAIL),
+                    ive.getMessage());
+        }
+    }
+
+    @Test
+    public void parse_manySmallBlocks_keepsFileOrderAndLineNumbers() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        lines.add("name,phone,email,address,tags");
+        for (int i = 1; i <= 500; i++) {
+            lines.add(i % 100 == 0
+                    ? "Invalid!,0,x@example.com,Street"
+                    : "Person " + i + "," + i + ",p" + i + "@example.com,House of " + i + ",tag" + i % 7);
+        }
+        // blocks shorter than some lines, so the buffer has to grow
+        parse("contacts.csv", lines, 16);
+
+        assertEquals(495, persons.size());
+        assertEquals("Person 1", persons.get(0).getName().toString());
+        assertEquals("Person 499", persons.get(494).getName().toString());
+        assertEquals(5, problems.size());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(problems.get(i).startsWith("Line " + ((i + 1) * 100 + 1) + ": "));
+        }
+    }
+
+    @Test
+    public void parse_vCard_propertiesFoldedAndEscaped() throws Exception {
+        parse("contacts.vcf",
+                "BEGIN:VCARD",
+                "VERSION:3.0",
+                "N:Tan;Alice;;;",
+                "FN:Alice Tan",
+                "TEL;TYPE=cell:9123 4567",
+                "item1.TEL:8888 8888",
+                "EMAIL;TYPE=work:alice@example.com",
+                "EMAIL:other@example.com",
+                "ADR;TYPE=home:;#02-01;1 Main St;Singa",
+                " pore;;123456;",
+                "CATEGORIES:friends,work",
+                "END:VCARD",
+                "BEGIN:VCARD",
+                "N:Lee;Bob;;;",
+                "TEL:8000 1234",
+                "EMAIL:bob@example.com",
+                "ADR:;;2 Side St\\, Block 5;;;;",
+                "END:VCARD",
+                "BEGIN:VCARD",
+                "FN:No Phone",
+                "EMAIL:none@example.com",
+                "ADR:;;3 Street;;;;",
+                "END:VCARD",
+                "BEGIN:VCARD",
+                "FN:Plus Sign",
+                "TEL:+65 1234",
+                "EMAIL:plus@example.com",
+                "ADR:;;4 Street;;;;",
+                "END:VCARD",
+                "BEGIN:VCARD",
+                "FN:Letters",
+                "TEL:call me",
+                "EMAIL:letters@example.com",
+                "ADR:;;5 Street;;;;",
+                "END:VCARD");
+
+        assertEquals(3, persons.size());
+        final Person alice = persons.get(0);
+        assertEquals("Alice Tan", alice.getName().toString());
+        assertEquals("91234567", alice.getPhone().toString());
+        assertEquals("#02-01, 1 Main St, Singapore, 123456", alice.getAddress().toString());
+        assertEquals("alice@example.com", alice.getEmail().toString());
+        assertEquals(Arrays.asList("friends", "work"), tagNames(alice));
+        final Person bob = persons.get(1);
+        assertEquals("Bob Lee", bob.getName().toString());
+        assertEquals("80001234", bob.getPhone().toString());
+        assertEquals("2 Side St, Block 5", bob.getAddress().toString());
+        // the plus sign of an international number is dropped, keeping the country code
+        assertEquals("Plus Sign", persons.get(2).getName().toString());
+        assertEquals("651234", persons.get(2).getPhone().toString());
+
+        assertEquals(Arrays.asList(
+                "Line 19: " + String.format(ContactFileParser.MESSAGE_MISSING_PROPERTY, "TEL"),
+                "Line 30: " + Phone.MESSAGE_PHONE_CONSTRAINTS), problems);
+    }
+
+    @Test
+    public void parse_vCardManySmallBlocks_cutBetweenCards() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            lines.addAll(Arrays.asList("BEGIN:VCARD", "FN:Person " + i, "TEL:" + i, "EMAIL:p" + i + "@example.com",
+                    "ADR:;;House of " + i + ";;;;", "END:VCARD"));
+        }
+        lines.add("BEGIN:VCARD");
+        lines.add("FN:Unended");
+
+        parse("contacts.vcard", lines, 64);
+
+        assertEquals(200, persons.size());
+        for (int i = 1; i <= 200; i++) {
+            assertEquals("Person " + i, persons.get(i - 1).getName().toString());
+        }
+        assertEquals(Arrays.asList("Line 1201: " + ContactFileParser.MESSAGE_UNCLOSED_CARD), problems);
+    }
+
+    @Test
+    public void parse_unknownExtension_rejected() throws Exception {
+        try {
+            parse("contacts.txt", "name,phone,email,address");
+            fail("A file of unknown format should be rejected");
+        } catch (IllegalValueException ive) {
+            assertEquals(ContactFileParser.MESSAGE_UNKNOWN_FORMAT, ive.getMessage());
+        }
+    }
+
+    private void parse(String fileName, String... lines) throws Exception {
+        parse(fileName, Arrays.asList(lines), ContactFileParser.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Writes the lines to a file of the given name and parses it in blocks of the given size,
+     * collecting the persons and problems found.
+     */
+    private void parse(String fileName, List<String> lines, int blockSize) throws Exception {
+        final Path file = folder.getRoot().toPath().resolve(fileName);
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        new ContactFileParser(ForkJoinPool.commonPool(), blockSize).parse(file, chunk -> {
+            persons.addAll(chunk.persons);
+            problems.addAll(chunk.problems);
+        });
+    }
+
+    private static List<String> tagNames(Person person) {
+        final List<String> names = new ArrayList<>();
+        for (ReadOnlyTag tag : person.getTags().immutableListView()) {
+            names.add(tag.getAsText());
+        }
+        names.sort(null);
+        return names;
+    }
+}
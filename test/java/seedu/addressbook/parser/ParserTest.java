@@ -65,6 +65,26 @@ public class ParserTest {
         parseAndAssertCommandType(input, ExitCommand.class);
     }
 
+    @Test
+    public void flushCommand_parsedCorrectly() {
+        final String input = "flush";
+        parseAndAssertCommandType(input, FlushCommand.class);
+    }
+
+    @Test
+    public void sortCommand_parsedCorrectly() {
+        parseAndAssertCommandType("sort", SortCommand.class);
+        parseAndAssertCommandType("sort keep", SortCommand.class);
+        parseAndAssertCommandType("sort tags desc name asc phone", SortCommand.class);
+        parseAndAssertCommandType("sort address desc keep", SortCommand.class);
+    }
+
+    @Test
+    public void sortCommand_invalidArgs() {
+        parseAndAssertIncorrectWithMessage(SortOrder.MESSAGE_SORT_ORDER_CONSTRAINTS,
+                "sort forever", "sort name name", "sort desc name", "sort keep name", "sort name keep keep");
+    }
+
     /**
      * Test single index argument commands
      */
@@ -145,7 +165,11 @@ public class ParserTest {
         // no keywords
         final String[] inputs = {
                 "find",
-                "find "
+                "find ",
+                "find limit/3",
+                "find key limit/0",
+                "find key limit/-1",
+                "find key limit/three"
         };
         final String resultMessage =
                 String.format(MESSAGE_INVALID_COMMAND_FORMAT, FindCommand.MESSAGE_USAGE);
@@ -175,6 +199,63 @@ public class ParserTest {
         assertEquals(keySet, result.getKeywords());
     }
 
+    @Test
+    public void findCommand_withLimit_parsedCorrectly() {
+        final FindCommand unlimited = parseAndAssertCommandType("find key1 key2", FindCommand.class);
+        assertEquals(FindCommand.NO_LIMIT, unlimited.getLimit());
+
+        final FindCommand limited = parseAndAssertCommandType("find key1 key2 limit/5", FindCommand.class);
+        assertEquals(new HashSet<>(Arrays.asList("key1", "key2")), limited.getKeywords());
+        assertEquals(5, limited.getLimit());
+    }
+
+    /**
+     * Test run command
+     */
+
+    @Test
+    public void runCommand_invalidArgs() {
+        final String[] inputs = {
+                "run",
+                "run  ",
+                "run checkpoint/5",
+                "run script.txt checkpoint/0",
+                "run script.txt checkpoint/five"
+        };
+        final String resultMessage = String.format(MESSAGE_INVALID_COMMAND_FORMAT, RunCommand.MESSAGE_USAGE);
+        parseAndAssertIncorrectWithMessage(resultMessage, inputs);
+    }
+
+    @Test
+    public void runCommand_validArgs_parsedCorrectly() {
+        final RunCommand withoutCheckpoints = parseAndAssertCommandType("run my scripts/add all.txt",
+                RunCommand.class);
+        assertEquals("my scripts/add all.txt", withoutCheckpoints.getFilePath());
+        assertEquals(RunCommand.NO_CHECKPOINTS, withoutCheckpoints.getCheckpointInterval());
+
+        final RunCommand withCheckpoints = parseAndAssertCommandType("run script.txt checkpoint/1000",
+                RunCommand.class);
+        assertEquals("script.txt", withCheckpoints.getFilePath());
+        assertEquals(1000, withCheckpoints.getCheckpointInterval());
+    }
+
+    /**
+     * Test import command
+     */
+
+    @Test
+    public void importCommand_noArgs() {
+        final String[] inputs = { "import", "import  " };
+        final String resultMessage = String.format(MESSAGE_INVALID_COMMAND_FORMAT, ImportCommand.MESSAGE_USAGE);
+        parseAndAssertIncorrectWithMessage(resultMessage, inputs);
+    }
+
+    @Test
+    public void importCommand_filePath_parsedCorrectly() {
+        final ImportCommand result = parseAndAssertCommandType("import my contacts/all.vcf ", ImportCommand.class);
+        assertEquals("my contacts/all.vcf", result.getFilePath());
+    }
+
     /**
      * Test add person command
      */
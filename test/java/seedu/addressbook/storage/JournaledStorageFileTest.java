@@ -0,0 +1,144 @@
+package seedu.addressbook.storage;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.data.person.SortOrder;
+import seedu.addressbook.data.tag.Tag;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+import static seedu.addressbook.storage.StorageTestUtil.generatePerson;
+
+public class JournaledStorageFileTest {
+
+    @Rule
+    public TemporaryFolder saveFolder = new TemporaryFolder();
+
+    private String filePath;
+
+    @Before
+    public void setup() {
+        filePath = saveFolder.getRoot().toPath().resolve("journaled.txt").toString();
+    }
+
+    @Test
+    public void load_missingFile_createsEmptySnapshotAndJournal() throws Exception {
+        AddressBook loaded = new JournaledStorageFile(filePath, 10).load();
+
+        assertEquals(AddressBook.empty(), loaded);
+        assertTrue(Files.exists(Paths.get(filePath)));
+        assertTrue(Files.exists(journalPath()));
+    }
+
+    @Test
+    public void save_changesAppendedToJournalOnly_replayedOnLoad() throws Exception {
+        JournaledStorageFile storage = new JournaledStorageFile(filePath, 10);
+        AddressBook addressBook = storage.load();
+        byte[] snapshot = Files.readAllBytes(Paths.get(filePath));
+
+        addressBook.addPerson(generatePerson(1));
+        addressBook.addPerson(generatePerson(2));
+        storage.save(addressBook);
+        addressBook.removePerson(generatePerson(1));
+        addressBook.renameTag(new Tag("tag2"), "renamed");
+        addressBook.sort(new SortOrder("tags desc name"), true);
+        addressBook.addPerson(generatePerson(0));
+        storage.save(addressBook);
+
+        assertArrayEquals(snapshot, Files.readAllBytes(Paths.get(filePath)));
+        AddressBook reloaded = new JournaledStorageFile(filePath, 10).load();
+        assertEquals(addressBook, reloaded);
+        assertEquals(addressBook.getAllTags(), reloaded.getAllTags());
+        assertTrue(reloaded.isKeptSorted());
+        assertEquals(new SortOrder("tags desc name"), reloaded.getSortOrder());
+    }
+
+    @Test
+    public void save_thresholdReached_compactsIntoSnapshot() throws Exception {
+        JournaledStorageFile storage = new JournaledStorageFile(filePath, 2);
+        AddressBook addressBook = storage.load();
+        long emptyJournalSize = Files.size(journalPath());
+
+        addressBook.addPerson(generatePerson(1));
+        addressBook.addPerson(generatePerson(2));
+        storage.save(addressBook);
+
+        assertEquals(emptyJournalSize, Files.size(journalPath()));
+        assertEquals(addressBook, new StorageFile(filePath).load());
+        assertEquals(addressBook, new JournaledStorageFile(filePath, 2).load());
+    }
+
+    @Test
+    public void load_tornLastRecord_dropsOnlyThatRecord() throws Exception {
+        JournaledStorageFile storage = new JournaledStorageFile(filePath, 10);
+        AddressBook addressBook = storage.load();
+        addressBook.addPerson(generatePerson(1));
+        storage.save(addressBook);
+        AddressBook expected = new JournaledStorageFile(filePath, 10).load();
+
+        addressBook.addPerson(generatePerson(2));
+        storage.save(addressBook);
+        byte[] journal = Files.readAllBytes(journalPath());
+        Files.write(journalPath(), java.util.Arrays.copyOf(journal, journal.length - 5));
+
+        JournaledStorageFile recovered = new JournaledStorageFile(filePath, 10);
+        AddressBook reloaded = recovered.load();
+        assertEquals(expected, reloaded);
+
+        // later appends follow the last complete record
+        reloaded.addPerson(generatePerson(3));
+        recovered.save(reloaded);
+        assertEquals(reloaded, new JournaledStorageFile(filePath, 10).load());
+    }
+
+    @Test
+    public void load_journalOfOlderSnapshot_ignored() throws Exception {
+        JournaledStorageFile storage = new JournaledStorageFile(filePath, 10);
+        AddressBook addressBook = storage.load();
+        addressBook.addPerson(generatePerson(1));
+        storage.save(addressBook);
+        byte[] journal = Files.readAllBytes(journalPath());
+
+        // simulates a crash after writing a snapshot but before the journal was emptied
+        new StorageFile(filePath).save(addressBook);
+        Files.write(journalPath(), journal, StandardOpenOption.TRUNCATE_EXISTING);
+
+        assertEquals(addressBook, new JournaledStorageFile(filePath, 10).load());
+    }
+
+    @Test
+    public void load_corruptSnapshotFromBackup_laterChangesKept() throws Exception {
+        JournaledStorageFile storage = new JournaledStorageFile(filePath, 2, 2);
+        AddressBook addressBook = storage.load();
+        addressBook.addPerson(generatePerson(1));
+        addressBook.addPerson(generatePerson(2));
+        storage.save(addressBook);
+        AddressBook backedUp = new JournaledStorageFile(filePath, 2).load();
+        addressBook.addPerson(generatePerson(3));
+        addressBook.addPerson(generatePerson(4));
+        storage.save(addressBook);
+        Files.write(Paths.get(filePath), new byte[] {1, 2, 3});
+
+        JournaledStorageFile recovered = new JournaledStorageFile(filePath, 2, 2);
+        AddressBook reloaded = recovered.load();
+        assertEquals(backedUp, reloaded);
+
+        // the journal of the unreadable snapshot does not hold the change, so a snapshot of the backup is written
+        reloaded.addPerson(generatePerson(5));
+        recovered.save(reloaded);
+        assertEquals(reloaded, new JournaledStorageFile(filePath, 2, 2).load());
+    }
+
+    private Path journalPath() {
+        return Paths.get(filePath + JournaledStorageFile.JOURNAL_SUFFIX);
+    }
+}
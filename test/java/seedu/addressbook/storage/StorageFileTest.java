@@ -0,0 +1,204 @@
+package seedu.addressbook.storage;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.data.person.*;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.UniqueTagList;
+import seedu.addressbook.storage.StorageFile.StorageOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class StorageFileTest {
+
+    @Rule
+    public TemporaryFolder saveFolder = new TemporaryFolder();
+
+    @Test
+    public void save_binaryFile_loadsSameData() throws Exception {
+        StorageFile storage = new StorageFile(pathOf("data.bin"));
+        AddressBook addressBook = generateAddressBook();
+
+        storage.save(addressBook);
+        AddressBook loaded = storage.load();
+
+        assertEquals(addressBook, loaded);
+        assertEquals(addressBook.getAllTags(), loaded.getAllTags());
+    }
+
+    @Test
+    public void load_missingBinaryFile_createsEmptyFile() throws Exception {
+        StorageFile storage = new StorageFile(pathOf("missing.bin"));
+
+        assertEquals(AddressBook.empty(), storage.load());
+        assertEquals(AddressBook.empty(), storage.load());
+    }
+
+    @Test
+    public void convert_xmlToBinaryAndBack_lossless() throws Exception {
+        StorageFile xml = new StorageFile(pathOf("data.txt"));
+        StorageFile binary = new StorageFile(pathOf("data.bin"));
+        StorageFile xmlAgain = new StorageFile(pathOf("again.txt"));
+        xml.save(generateAddressBook());
+
+        StorageFileConverter.convert(xml, binary);
+        StorageFileConverter.convert(binary, xmlAgain);
+
+        assertTrue(Files.size(binary.path) < Files.size(xml.path));
+        assertArrayEquals(Files.readAllBytes(xml.path), Files.readAllBytes(xmlAgain.path));
+    }
+
+    @Test
+    public void load_xmlWithUnknownElements_skipsThem() throws Exception {
+        StorageFile storage = new StorageFile(pathOf("data.txt"));
+        Files.write(storage.path, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<AddressBook><version>2</version>"
+                + "<persons><name>Alice</name><nickname><short>Al</short></nickname>"
+                + "<phone isPrivate=\"1\">123</phone><email isPrivate=\"false\">a@b</email>"
+                + "<address>A &amp; B</address><tagged>friend</tagged></persons>"
+                + "<tags>colleague</tags></AddressBook>").getBytes(StandardCharsets.UTF_8));
+
+        AddressBook expected = new AddressBook();
+        expected.addTag(new Tag("colleague"));
+        expected.addPerson(new Person(new Name("Alice"), new Phone("123", true), new Email("a@b", false),
+                new Address("A & B", false), new UniqueTagList(new Tag("friend"))));
+        AddressBook loaded = storage.load();
+
+        assertEquals(expected, loaded);
+        assertEquals(expected.getAllTags(), loaded.getAllTags());
+        assertTrue(loaded.getAllPersons().get(0).getPhone().isPrivate());
+    }
+
+    @Test
+    public void load_xmlPersonMissingElement_throwsException() throws Exception {
+        StorageFile storage = new StorageFile(pathOf("data.txt"));
+        Files.write(storage.path, ("<AddressBook><persons><name>Alice</name><phone>123</phone>"
+                + "<address>A</address></persons></AddressBook>").getBytes(StandardCharsets.UTF_8));
+
+        try {
+            storage.load();
+            fail("A person without an email should not be loaded");
+        } catch (StorageOperationException soe) {
+            assertEquals("File data missing some elements", soe.getMessage());
+        }
+    }
+
+    @Test
+    public void load_xmlWithInvalidPersons_reportsEveryInvalidPerson() throws Exception {
+        StorageFile storage = new StorageFile(pathOf("data.txt"));
+        Files.write(storage.path, ("<AddressBook>\n"
+                + "<persons><name>Al!ce</name><phone>1</phone><email>a@b</email><address>A</address></persons>\n"
+                + "<persons><name>Bob</name><phone>2</phone><email>b@b</email><address>B</address></persons>\n"
+                + "<persons><name>Carl</name><phone>three</phone><email>c@b</email><address>C</address></persons>\n"
+                + "</AddressBook>").getBytes(StandardCharsets.UTF_8));
+
+        try {
+            storage.load();
+            fail("Invalid persons should not be loaded");
+        } catch (StorageOperationException soe) {
+            assertTrue(soe.getMessage().contains("person 1 (line 2): " + Name.MESSAGE_NAME_CONSTRAINTS));
+            assertTrue(soe.getMessage().contains("person 3 (line 4): " + Phone.MESSAGE_PHONE_CONSTRAINTS));
+            assertFalse(soe.getMessage().contains("person 2"));
+        }
+    }
+
+    @Test(expected = StorageOperationException.class)
+    public void convert_missingSource_throwsException() throws Exception {
+        StorageFileConverter.convert(new StorageFile(pathOf("missing.txt")), new StorageFile(pathOf("data.bin")));
+    }
+
+    @Test
+    public void load_corruptedBinaryFile_throwsException() throws Exception {
+        StorageFile storage = new StorageFile(pathOf("data.bin"));
+        storage.save(generateAddressBook());
+        byte[] content = Files.readAllBytes(storage.path);
+        content[content.length / 2] ^= 1;
+        Files.write(storage.path, content);
+
+        try {
+            storage.load();
+            fail("A corrupted file should not be loaded");
+        } catch (StorageOperationException soe) {
+            assertTrue(soe.getMessage().contains("checksum"));
+        }
+    }
+
+    @Test
+    public void save_tempFileCannotBeWritten_keepsStorageFile() throws Exception {
+        StorageFile storage = new StorageFile(pathOf("data.txt"));
+        storage.save(generateAddressBook());
+        byte[] saved = Files.readAllBytes(storage.path);
+        Files.createDirectory(storage.path.resolveSibling("data.txt" + StorageFile.TEMP_FILE_SUFFIX));
+
+        try {
+            storage.save(new AddressBook());
+            fail("Save should fail when its temporary file cannot be written");
+        } catch (StorageOperationException soe) {
+            assertArrayEquals(saved, Files.readAllBytes(storage.path));
+        }
+    }
+
+    @Test
+    public void save_withBackups_keepsNewestVersions() throws Exception {
+        StorageFile storage = new StorageFile(pathOf("data.bin"), 2);
+        AddressBook addressBook = generateAddressBook();
+        storage.save(addressBook);
+        byte[] first = Files.readAllBytes(storage.path);
+        addressBook.removeTag(new Tag("unused"));
+        storage.save(addressBook);
+        byte[] second = Files.readAllBytes(storage.path);
+        addressBook.clear();
+        storage.save(addressBook);
+        storage.save(addressBook);
+
+        assertArrayEquals(Files.readAllBytes(storage.path), Files.readAllBytes(storage.backupPath(1)));
+        assertArrayEquals(second, Files.readAllBytes(storage.backupPath(2)));
+        assertFalse(Files.exists(storage.backupPath(3)));
+        assertFalse(Arrays.equals(first, second));
+        assertFalse(Files.exists(storage.path.resolveSibling("data.bin" + StorageFile.TEMP_FILE_SUFFIX)));
+    }
+
+    @Test
+    public void load_corruptedFileWithBackups_loadsNewestValidBackup() throws Exception {
+        StorageFile storage = new StorageFile(pathOf("data.bin"), 3);
+        AddressBook addressBook = generateAddressBook();
+        storage.save(addressBook);
+        storage.save(addressBook);
+        storage.save(addressBook);
+        Files.write(storage.backupPath(1), new byte[] {1, 2, 3});
+        Files.write(storage.path, new byte[] {4, 5, 6});
+
+        assertEquals(addressBook, storage.load());
+
+        // the unreadable storage file is not kept as a backup
+        storage.save(addressBook);
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(storage.backupPath(1)));
+    }
+
+    private String pathOf(String fileName) {
+        Path path = saveFolder.getRoot().toPath().resolve(fileName);
+        return path.toString();
+    }
+
+    private static AddressBook generateAddressBook() throws Exception {
+        AddressBook addressBook = new AddressBook();
+        addressBook.addTag(new Tag("unused"));
+        for (int seed = 1; seed <= 5; seed++) {
+            addressBook.addPerson(new Person(
+                    new Name("Person " + seed),
+                    new Phone("" + seed, seed % 2 == 0),
+                    new Email(seed + "@email", seed % 3 == 0),
+                    new Address("House of " + seed + " é & <" + seed + ">", seed % 2 == 1),
+                    new UniqueTagList(new Tag("tag" + seed), new Tag("tag" + (seed + 1)))));
+        }
+        return addressBook;
+    }
+}
@@ -0,0 +1,27 @@
+package seedu.addressbook.storage;
+
+import seedu.addressbook.data.person.*;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.data.tag.UniqueTagList;
+
+/**
+ * Test data shared by the storage tests.
+ */
+final class StorageTestUtil {
+
+    private StorageTestUtil() {}
+
+    /**
+     * Generates a valid person using the given seed.
+     * The same seed always gives a person with the same state, and each seed gives a different person.
+     * Privacy differs between the fields, and the address holds a tab, so that both survive a round trip.
+     */
+    static Person generatePerson(int seed) throws Exception {
+        return new Person(
+                new Name("Person " + seed),
+                new Phone("" + Math.abs(seed), seed % 2 == 0),
+                new Email(seed + "@email", false),
+                new Address("House\tof " + seed, true),
+                new UniqueTagList(new Tag("tag" + Math.abs(seed)), new Tag("tag" + Math.abs(seed + 1))));
+    }
+}
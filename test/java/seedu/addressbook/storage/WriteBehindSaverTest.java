@@ -0,0 +1,103 @@
+package seedu.addressbook.storage;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import seedu.addressbook.data.AddressBook;
+import seedu.addressbook.data.tag.Tag;
+import seedu.addressbook.storage.StorageFile.StorageOperationException;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static seedu.addressbook.storage.StorageTestUtil.generatePerson;
+
+public class WriteBehindSaverTest {
+
+    /** Long enough that no save happens in a test before it is flushed. */
+    private static final long LONG_STALENESS_MILLIS = 60000;
+
+    @Rule
+    public TemporaryFolder saveFolder = new TemporaryFolder();
+
+    @Test
+    public void flush_burstOfSnapshots_savesLatestOnce() throws Exception {
+        CountingStorageFile storage = new CountingStorageFile(saveFolder.getRoot().toPath().resolve("data.bin"));
+        WriteBehindSaver saver = new WriteBehindSaver(storage, LONG_STALENESS_MILLIS);
+        AddressBook addressBook = new AddressBook();
+
+        for (int i = 1; i <= 5; i++) {
+            addressBook.addPerson(generatePerson(i));
+            saver.submit(addressBook.snapshot());
+        }
+        saver.flush();
+
+        assertEquals(1, storage.saveCount.get());
+        assertEquals(addressBook, storage.load());
+        saver.close();
+    }
+
+    @Test
+    public void submit_changesAfterSnapshot_notSaved() throws Exception {
+        CountingStorageFile storage = new CountingStorageFile(saveFolder.getRoot().toPath().resolve("data.bin"));
+        WriteBehindSaver saver = new WriteBehindSaver(storage, 0);
+        AddressBook addressBook = new AddressBook();
+        addressBook.addPerson(generatePerson(1));
+
+        saver.submit(addressBook.snapshot());
+        AddressBook expected = addressBook.snapshot();
+        addressBook.addPerson(generatePerson(2));
+        addressBook.renameTag(new Tag("tag1"), "buddies");
+        saver.flush();
+
+        assertEquals(expected, storage.load());
+        saver.close();
+    }
+
+    @Test
+    public void flush_saveFails_reportsFailureAndRetries() throws Exception {
+        CountingStorageFile storage = new CountingStorageFile(saveFolder.getRoot().toPath().resolve("data.bin"));
+        WriteBehindSaver saver = new WriteBehindSaver(storage, LONG_STALENESS_MILLIS);
+        AddressBook addressBook = new AddressBook();
+        addressBook.addPerson(generatePerson(1));
+        saver.submit(addressBook.snapshot());
+
+        storage.isFailing = true;
+        try {
+            saver.flush();
+            fail("Expected the failed save to be reported");
+        } catch (StorageOperationException soe) {
+            assertEquals(CountingStorageFile.MESSAGE_FAILURE, soe.getMessage());
+        }
+
+        storage.isFailing = false;
+        saver.flush();
+        assertEquals(addressBook, storage.load());
+        saver.close();
+    }
+
+    /**
+     * A storage file that counts its saves, and can be made to fail them.
+     */
+    private static class CountingStorageFile extends StorageFile {
+        static final String MESSAGE_FAILURE = "Disk full";
+
+        final AtomicInteger saveCount = new AtomicInteger();
+        volatile boolean isFailing;
+
+        CountingStorageFile(Path path) throws Exception {
+            super(path.toString());
+        }
+
+        @Override
+        public void save(AddressBook addressBook) throws StorageOperationException {
+            if (isFailing) {
+                throw new StorageOperationException(MESSAGE_FAILURE);
+            }
+            saveCount.incrementAndGet();
+            super.save(addressBook);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package seedu.addressbook.storage.jaxb;
+
+import org.junit.Test;
+
+import seedu.addressbook.data.person.Person;
+import seedu.addressbook.storage.jaxb.ParallelPersonConverter.InvalidPersonsException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ParallelPersonConverterTest {
+
+    @Test
+    public void finish_manyChunks_keepsAddedOrder() throws Exception {
+        ParallelPersonConverter converter = new ParallelPersonConverter(ForkJoinPool.commonPool(), 3);
+        for (int i = 1; i <= 10; i++) {
+            converter.add(adaptedPerson("Person " + i, "" + i));
+        }
+
+        List<Person> persons = converter.finish();
+
+        assertEquals(10, persons.size());
+        for (int i = 1; i <= 10; i++) {
+            assertEquals("Person " + i, persons.get(i - 1).getName().fullName);
+            assertEquals("tag" + i, persons.get(i - 1).getTags().immutableListView().get(0).getAsText());
+        }
+    }
+
+    @Test
+    public void finish_invalidPersons_reportsEachWithPosition() throws Exception {
+        ParallelPersonConverter converter = new ParallelPersonConverter(ForkJoinPool.commonPool(), 2);
+        converter.add(adaptedPerson("Valid", "1"), 3);
+        converter.add(adaptedPerson("Inv@lid", "2"), 9);
+        converter.add(adaptedPerson("Valid Too", "3"), 15);
+        converter.add(adaptedPerson("Bad phone", "not a phone"), 21);
+        converter.add(adaptedPerson("Valid Again", "5"));
+
+        try {
+            converter.finish();
+            fail("Invalid persons should be reported");
+        } catch (InvalidPersonsException ipe) {
+            assertEquals(2, ipe.problems.size());
+            assertTrue(ipe.problems.get(0).startsWith("person 2 (line 9): "));
+            assertTrue(ipe.problems.get(1).startsWith("person 4 (line 21): "));
+        }
+    }
+
+    @Test
+    public void add_chunkConverted_adaptedPersonsReleased() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        ParallelPersonConverter converter = new ParallelPersonConverter(pool, 2);
+        converter.add(adaptedPerson("Person 1", "1"));
+        converter.add(adaptedPerson("Person 2", "2"));
+        converter.add(adaptedPerson("Person 3", "3"));
+        assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+
+        // the converted chunk is held until finish(), but not the adapted persons it was converted from
+        assertEquals(0, converter.countInputHeldByConvertedChunks());
+        assertEquals(3, converter.finish().size());
+        pool.shutdown();
+    }
+
+    private static AdaptedPerson adaptedPerson(String name, String phone) {
+        String tagName = "tag" + phone.replaceAll("\\W", "");
+        return new AdaptedPerson(name, phone, false, "a@b", true, "address", false,
+                Collections.singletonList(tagName));
+    }
+}